@@ -0,0 +1,292 @@
+package com.webflux.study.Scheduler;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * <h2>prefetch 를 스스로 조절하는 publishOn()</h2>
+ * <p>
+ *     publishOn(scheduler, prefetch) 는 prefetch 개수를 Upstream 에 요청해 두고 그 중 75% 를 처리할 때마다 다시 요청함.<br>
+ *     prefetch 가 너무 작으면 Downstream 이 Upstream 의 데이터를 기다리느라 놀고 스레드 전환(hand-off)이 잦아지며,
+ *     너무 크면 느린 Downstream 앞에 데이터가 쌓여서 메모리를 낭비함.
+ * </p>
+ * <p>
+ *     이 Operator 는 Downstream 의 onNext 처리 시간을 재서, prefetch 의 75% 를 처리할 때마다 prefetch 를 조절함.
+ * </p>
+ * <ul>
+ *     <li>Downstream 에 요청이 남아 있는데 큐가 비어 있었다면(Downstream 이 굶었다면),
+ *     두 배로 늘린 prefetch 를 처리하는 데 targetLatency 보다 오래 걸리지 않는 한 prefetch 를 두 배로 늘림.</li>
+ *     <li>Downstream 이 굶지 않았고, prefetch 개를 처리하는 데 targetLatency 보다 오래 걸린다면 prefetch 를 절반으로 줄임.</li>
+ * </ul>
+ * <p>
+ *     Upstream 에 요청했지만 아직 Downstream 에 전달하지 않은 데이터 수는 drain 스레드에서만 세므로,
+ *     Upstream 에 미리 요청해 둔 개수는 항상 prefetch 이하로 유지됨.
+ * </p>
+ * <p>
+ *     하나의 AdaptivePublishOn 을 여러 번 구독하면 prefetch 와 통계 값은 마지막으로 조절한 구독의 값을 보여줌.
+ * </p>
+ */
+public class AdaptivePublishOn<T> implements Function<Flux<T>, Flux<T>> {
+    private final Scheduler scheduler;
+    private final int minPrefetch;
+    private final int maxPrefetch;
+    private final long targetLatencyNanos;
+
+    private volatile int currentPrefetch;
+    private final LongAdder resizes = new LongAdder();
+    private final LongAdder upstreamRequests = new LongAdder();
+    private final LongAdder starvations = new LongAdder();
+
+    public AdaptivePublishOn(Scheduler scheduler) {
+        this(scheduler, 4, 1024, Duration.ofMillis(10));
+    }
+
+    /**
+     * @param targetLatency 큐에 쌓인 데이터를 Downstream 이 모두 처리하는 데 걸려도 괜찮은 최대 시간
+     */
+    public AdaptivePublishOn(Scheduler scheduler, int minPrefetch, int maxPrefetch, Duration targetLatency) {
+        if (minPrefetch < 1 || maxPrefetch < minPrefetch) {
+            throw new IllegalArgumentException("invalid prefetch range: " + minPrefetch + ".." + maxPrefetch);
+        }
+        this.scheduler = scheduler;
+        this.minPrefetch = minPrefetch;
+        this.maxPrefetch = maxPrefetch;
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.currentPrefetch = minPrefetch;
+    }
+
+    @Override
+    public Flux<T> apply(Flux<T> source) {
+        return Flux.from((Publisher<T>) actual ->
+                source.subscribe(new AdaptivePublishOnSubscriber(Operators.toCoreSubscriber(actual))));
+    }
+
+    public int currentPrefetch() {
+        return currentPrefetch;
+    }
+
+    public long resizes() {
+        return resizes.sum();
+    }
+
+    /**
+     * Upstream 에 request() 를 보낸 횟수. 적을수록 batch 가 큼.
+     */
+    public long upstreamRequests() {
+        return upstreamRequests.sum();
+    }
+
+    /**
+     * Downstream 에 요청이 남아 있는데 큐가 비어서 drain loop 를 빠져나온 횟수.
+     */
+    public long starvations() {
+        return starvations.sum();
+    }
+
+    private class AdaptivePublishOnSubscriber implements CoreSubscriber<T>, Subscription {
+        private final CoreSubscriber<? super T> actual;
+        private final Scheduler.Worker worker = scheduler.createWorker();
+        private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicLong requested = new AtomicLong();
+
+        private Subscription upstream;
+        private volatile boolean done;
+        private volatile boolean cancelled;
+        private Throwable error;
+
+        // 아래 값은 drain 스레드에서만 사용함.
+        private int prefetch = minPrefetch;
+        private int limit = limitOf(minPrefetch);
+        /** Upstream 에 요청했지만 아직 Downstream 에 전달하지 않은 데이터 수 (큐에 있거나 아직 도착하지 않은 데이터) */
+        private long pending = minPrefetch;
+        private long consumed;
+        private long serviceNanos;
+        private long runStart;
+        private boolean starved;
+
+        AdaptivePublishOnSubscriber(CoreSubscriber<? super T> actual) {
+            this.actual = actual;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.validate(upstream, s)) {
+                upstream = s;
+                actual.onSubscribe(this);
+                upstreamRequests.increment();
+                s.request(prefetch);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (done) {
+                Operators.onNextDropped(t, actual.currentContext());
+                return;
+            }
+            queue.offer(t);
+            schedule();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (done) {
+                Operators.onErrorDropped(t, actual.currentContext());
+                return;
+            }
+            error = t;
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                requested.getAndUpdate(r -> Operators.addCap(r, n));
+                schedule();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            upstream.cancel();
+            schedule();
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                worker.schedule(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            for (;;) {
+                long r = requested.get();
+                long e = 0L;
+                // 데이터마다 시간을 재지 않고, 큐가 빌 때까지 연속으로 onNext 를 호출한 구간의 시간을 Downstream 처리 시간으로 봄.
+                runStart = System.nanoTime();
+                while (e != r) {
+                    if (checkTerminated(done, false)) {
+                        return;
+                    }
+                    boolean d = done;
+                    T v = queue.poll();
+                    if (checkTerminated(d, v == null)) {
+                        return;
+                    }
+                    if (v == null) {
+                        starved = true;
+                        starvations.increment();
+                        break;
+                    }
+                    pending--;
+                    actual.onNext(v);
+                    e++;
+                    if (++consumed >= limit) {
+                        adapt();
+                    }
+                }
+                serviceNanos += System.nanoTime() - runStart;
+                if (e == r && checkTerminated(done, queue.isEmpty())) {
+                    return;
+                }
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-e);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        private void adapt() {
+            long now = System.nanoTime();
+            serviceNanos += now - runStart;
+            runStart = now;
+            long averageNanos = serviceNanos / consumed;
+            int resized = prefetch;
+            if (starved) {
+                if (averageNanos * (prefetch << 1) <= targetLatencyNanos) {
+                    resized = Math.min(maxPrefetch, prefetch << 1);
+                }
+            } else if (averageNanos * prefetch > targetLatencyNanos) {
+                resized = Math.max(minPrefetch, prefetch >> 1);
+            }
+            if (resized != prefetch) {
+                prefetch = resized;
+                limit = limitOf(resized);
+                currentPrefetch = resized;
+                resizes.increment();
+            }
+            consumed = 0;
+            serviceNanos = 0;
+            starved = false;
+            replenish();
+        }
+
+        private void replenish() {
+            long need = prefetch - pending;
+            if (need > 0 && !done) {
+                pending += need;
+                upstreamRequests.increment();
+                upstream.request(need);
+            }
+        }
+
+        private boolean checkTerminated(boolean d, boolean empty) {
+            if (cancelled) {
+                queue.clear();
+                worker.dispose();
+                return true;
+            }
+            if (d && empty) {
+                worker.dispose();
+                if (error != null) {
+                    actual.onError(error);
+                } else {
+                    actual.onComplete();
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static int limitOf(int prefetch) {
+        return Math.max(1, prefetch - (prefetch >> 2));
+    }
+}
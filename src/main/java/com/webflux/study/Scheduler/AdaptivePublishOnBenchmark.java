@@ -0,0 +1,70 @@
+package com.webflux.study.Scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * <h2>고정 prefetch 와 {@link AdaptivePublishOn} 비교</h2>
+ * <p>
+ *     별도의 producer 스레드에서 emit 되는 데이터를 publishOn() 으로 consumer 스레드에 넘기고,
+ *     데이터 하나를 처리하는 데 걸리는 시간이 다른 세 consumer(0us, 5us, 200us)에서 초당 처리량과 Upstream request 횟수를 비교함.
+ * </p>
+ */
+@Slf4j
+public class AdaptivePublishOnBenchmark {
+
+    /**
+     * <h3>실행 결과</h3>
+     * <p>
+     *     prefetch 1 은 데이터마다 request 가 오가므로 빠른 consumer 에서 처리량이 크게 떨어짐.<br>
+     *     prefetch 256 은 빠른 consumer 에서는 좋지만 느린 consumer 앞에도 256개를 쌓아 둠.<br>
+     *     AdaptivePublishOn 은 빠른 consumer 에서는 prefetch 를 키워서 256 과 비슷한 처리량을 내고,
+     *     느린 consumer 에서는 처리량을 유지하면서 prefetch 를 작게 유지함.
+     * </p>
+     */
+    public static void main(String[] args) {
+        Scheduler producer = Schedulers.newSingle("producer");
+        Scheduler consumer = Schedulers.newSingle("consumer");
+
+        for (int round = 0; round < 2; round++) { // 첫 번째 round 는 JIT warm-up
+            for (long workNanos : new long[]{0, 5_000, 200_000}) {
+                int count = workNanos == 0 ? 2_000_000 : (int) Math.min(200_000, 2_000_000_000L / workNanos);
+                AdaptivePublishOn<Integer> adaptive =
+                        new AdaptivePublishOn<>(consumer, 4, 1024, Duration.ofMillis(5));
+
+                String prefetch1 = measure(producer, count, workNanos, flux -> flux.publishOn(consumer, 1));
+                String prefetch256 = measure(producer, count, workNanos, flux -> flux.publishOn(consumer, 256));
+                String adaptiveResult = measure(producer, count, workNanos, adaptive);
+                log.info("# round {}, work {}us x {}: prefetch 1: {}, prefetch 256: {}, adaptive: {} (prefetch: {}, requests: {}, resizes: {})",
+                        round, workNanos / 1_000, count, prefetch1, prefetch256, adaptiveResult,
+                        adaptive.currentPrefetch(), adaptive.upstreamRequests(), adaptive.resizes());
+            }
+        }
+        producer.dispose();
+        consumer.dispose();
+    }
+
+    private static String measure(Scheduler producer, int count, long workNanos,
+                                  Function<Flux<Integer>, Flux<Integer>> hop) {
+        long start = System.nanoTime();
+        Flux.range(0, count)
+                .subscribeOn(producer)
+                .transform(hop)
+                .doOnNext(i -> spin(workNanos))
+                .blockLast();
+        long elapsedNanos = System.nanoTime() - start;
+        return (count * 1_000_000_000L / elapsedNanos) + "/s";
+    }
+
+    private static void spin(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        while (nanos > 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.webflux.study.Scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * <h2>{@link AffinityPipeline} 으로 불필요한 스레드 전환 제거</h2>
+ */
+@Slf4j
+public class AffinityHops {
+    private static final int COUNT = 1_000_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        example1();
+        log.info("==========================================");
+        example2();
+        log.info("==========================================");
+        example3();
+    }
+
+    /**
+     * <h3>실행 결과</h3>
+     * <p>
+     *     {@link com.webflux.study.sinks.SinksExample2} 처럼 publishOn(parallel()) 을 두 번 쓰면 map() 과 onNext 가 서로 다른
+     *     parallel 스레드에서 실행되지만, 두 번째 publishOn() 은 이미 parallel Worker 위에 있으므로 제거되어 모두 같은 스레드에서 실행됨.
+     * </p>
+     */
+    private static void example1() throws InterruptedException {
+        AffinityPipeline<String> pipeline = AffinityPipeline.from(Flux.range(1, 3))
+                .publishOn(Schedulers.parallel())
+                .map(n -> "task " + n + " result success!")
+                .doOnNext(data -> log.info("# map(): {}", data))
+                .publishOn(Schedulers.parallel());
+        Flux<String> flux = pipeline.build();
+        log.info("# eliminated hops: {}, plan: {}", pipeline.eliminatedHops(), pipeline.plan());
+
+        flux.subscribe(data -> log.info("# onNext: {}", data));
+        Thread.sleep(200L);
+    }
+
+    /**
+     * <h3>실행 결과</h3>
+     * <p>
+     *     {@link PublishOnWithSubscribeOn} 의 마지막 예제처럼 subscribeOn(boundedElastic()) 이후에 publishOn(parallel()) 을 쓰면
+     *     Scheduler 가 다르므로 스레드 전환이 필요하고, 그대로 남음. 연속된 publishOn() 중 앞의 것과 immediate() 는 제거됨.
+     * </p>
+     */
+    private static void example2() throws InterruptedException {
+        AffinityPipeline<Integer> pipeline = AffinityPipeline.from(Flux.just(1, 3, 5, 7))
+                .subscribeOn(Schedulers.boundedElastic())
+                .filter(data -> data > 3)
+                .doOnNext(data -> log.info("# doOnNext filter: {}", data))
+                .publishOn(Schedulers.single())
+                .publishOn(Schedulers.parallel())
+                .map(data -> data * 10)
+                .publishOn(Schedulers.immediate())
+                .doOnNext(data -> log.info("# doOnNext map: {}", data));
+        Flux<Integer> flux = pipeline.build();
+        log.info("# eliminated hops: {}, plan: {}", pipeline.eliminatedHops(), pipeline.plan());
+
+        flux.subscribe(data -> log.info("# onNext: {}", data));
+        Thread.sleep(200L);
+    }
+
+    /**
+     * <h3>실행 결과</h3>
+     * <p>
+     *     100만 개의 데이터를 publishOn(parallel()) 세 번으로 처리할 때와, 같은 체인을 AffinityPipeline 으로 조립했을 때의 처리 시간을 비교함.
+     * </p>
+     */
+    private static void example3() {
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            Flux.range(0, COUNT)
+                    .publishOn(Schedulers.parallel())
+                    .map(n -> n + 1)
+                    .publishOn(Schedulers.parallel())
+                    .filter(n -> n % 2 == 0)
+                    .publishOn(Schedulers.parallel())
+                    .blockLast();
+            long plain = (System.nanoTime() - start) / 1_000_000;
+
+            start = System.nanoTime();
+            AffinityPipeline.from(Flux.range(0, COUNT))
+                    .publishOn(Schedulers.parallel())
+                    .map(n -> n + 1)
+                    .publishOn(Schedulers.parallel())
+                    .filter(n -> n % 2 == 0)
+                    .publishOn(Schedulers.parallel())
+                    .build()
+                    .blockLast();
+            long affinity = (System.nanoTime() - start) / 1_000_000;
+            log.info("# round {}: 3 hops: {} ms, affinity: {} ms", round, plain, affinity);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.webflux.study.Scheduler;
+
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * <h2>불필요한 스레드 전환을 없애는 Operator 체인 빌더</h2>
+ * <p>
+ *     {@link PublishOnWithSubscribeOn} 처럼 subscribeOn() 과 publishOn() 을 겹쳐 쓰거나 같은 Scheduler 로 publishOn() 을 두 번 쓰면,
+ *     데이터마다 다른 Worker 의 큐를 거쳐서 스레드(코어)를 옮겨 다니게 됨.<br>
+ *     이 빌더는 Operator 를 바로 조립하지 않고 기록해 두었다가, build() 할 때 실제로 필요한 스레드 전환만 남김.
+ * </p>
+ * <ul>
+ *     <li>publishOn(Schedulers.immediate()) 는 스레드를 바꾸지 않으므로 제거함.</li>
+ *     <li>사이에 다른 Operator 가 없는 연속된 publishOn() 은 마지막 것만 남김. (사이의 publishOn(Schedulers.immediate()) 는 없는 것으로 봄.)</li>
+ *     <li>이미 같은 Scheduler 의 Worker 에서 실행 중인데 다시 같은 Scheduler 로 publishOn() 하면 제거함.
+ *     (subscribeOn() 으로 지정한 Scheduler 도 포함되며, 원본 Publisher 가 구독한 스레드에서 emit 한다고 가정함.)</li>
+ *     <li>다른 Scheduler 로의 전환과 subscribeOn() 은 그대로 둠.</li>
+ * </ul>
+ * <p>
+ *     빌더는 불변이라 Operator 를 추가할 때마다 새 빌더를 리턴하므로, 같은 빌더에서 여러 갈래의 체인을 만들어도 서로 영향을 주지 않음.<br>
+ *     제거되는 스레드 전환 수는 {@link #eliminatedHops()} 로, 최적화 결과는 {@link #plan()} 으로 build() 하지 않고도 확인할 수 있음.
+ * </p>
+ */
+public class AffinityPipeline<T> {
+    private enum Kind {
+        STAGE, PUBLISH_ON, SUBSCRIBE_ON
+    }
+
+    private final Flux<?> source;
+    private final List<Stage> stages;
+
+    private AffinityPipeline(Flux<?> source, List<Stage> stages) {
+        this.source = source;
+        this.stages = stages;
+    }
+
+    public static <T> AffinityPipeline<T> from(Flux<T> source) {
+        return new AffinityPipeline<>(source, Collections.emptyList());
+    }
+
+    public AffinityPipeline<T> publishOn(Scheduler scheduler) {
+        return add(new Stage(Kind.PUBLISH_ON, "publishOn(" + scheduler + ")", scheduler,
+                flux -> flux.publishOn(scheduler)));
+    }
+
+    public AffinityPipeline<T> subscribeOn(Scheduler scheduler) {
+        return add(new Stage(Kind.SUBSCRIBE_ON, "subscribeOn(" + scheduler + ")", scheduler,
+                flux -> flux.subscribeOn(scheduler)));
+    }
+
+    public <R> AffinityPipeline<R> map(Function<? super T, ? extends R> mapper) {
+        return transform("map", flux -> flux.map(mapper));
+    }
+
+    public AffinityPipeline<T> filter(Predicate<? super T> predicate) {
+        return transform("filter", flux -> flux.filter(predicate));
+    }
+
+    public AffinityPipeline<T> doOnNext(Consumer<? super T> onNext) {
+        return transform("doOnNext", flux -> flux.doOnNext(onNext));
+    }
+
+    /**
+     * 스레드를 바꾸지 않는 임의의 Operator 를 추가함.
+     */
+    public <R> AffinityPipeline<R> transform(String name, Function<? super Flux<T>, ? extends Flux<R>> operator) {
+        return add(new Stage(Kind.STAGE, name, null, flux -> operator.apply(cast(flux))));
+    }
+
+    @SuppressWarnings("unchecked")
+    public Flux<T> build() {
+        boolean[] kept = optimize();
+        Flux<Object> flux = (Flux<Object>) source;
+        for (int i = 0; i < stages.size(); i++) {
+            if (kept[i]) {
+                flux = stages.get(i).operator.apply(flux);
+            }
+        }
+        return (Flux<T>) flux;
+    }
+
+    /**
+     * build() 할 때 제거되는 publishOn() 수.
+     */
+    public int eliminatedHops() {
+        int eliminated = 0;
+        for (boolean kept : optimize()) {
+            if (!kept) {
+                eliminated++;
+            }
+        }
+        return eliminated;
+    }
+
+    /**
+     * build() 할 때 조립되는 Operator 순서. 제거되는 Operator 에는 [eliminated] 가 붙음.
+     */
+    public String plan() {
+        boolean[] kept = optimize();
+        List<String> steps = new ArrayList<>(stages.size());
+        for (int i = 0; i < stages.size(); i++) {
+            steps.add(kept[i] ? stages.get(i).name : stages.get(i).name + " [eliminated]");
+        }
+        return steps.stream().collect(Collectors.joining(" -> "));
+    }
+
+    /**
+     * 기존 빌더의 Stage 목록은 그대로 두고, 복사한 목록에 Stage 를 추가한 새 빌더를 리턴함.
+     */
+    private <R> AffinityPipeline<R> add(Stage stage) {
+        List<Stage> next = new ArrayList<>(stages.size() + 1);
+        next.addAll(stages);
+        next.add(stage);
+        return new AffinityPipeline<>(source, Collections.unmodifiableList(next));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Flux<T> cast(Flux<Object> flux) {
+        return (Flux<T>) (Flux<?>) flux;
+    }
+
+    private boolean[] optimize() {
+        boolean[] kept = new boolean[stages.size()];
+        // 원본 Publisher 에 가장 가까운 subscribeOn() 이 원본의 실행 스레드를 결정함.
+        Scheduler current = stages.stream()
+                .filter(stage -> stage.kind == Kind.SUBSCRIBE_ON)
+                .map(stage -> stage.scheduler)
+                .findFirst()
+                .orElse(null);
+        for (int i = 0; i < stages.size(); i++) {
+            Stage stage = stages.get(i);
+            if (stage.kind != Kind.PUBLISH_ON) {
+                kept[i] = true;
+                continue;
+            }
+            if (stage.scheduler == Schedulers.immediate() || supersededByNext(i) || stage.scheduler == current) {
+                continue;
+            }
+            kept[i] = true;
+            current = stage.scheduler;
+        }
+        return kept;
+    }
+
+    /**
+     * i 번째 publishOn() 바로 뒤에 (publishOn(Schedulers.immediate()) 를 건너뛰고) 다른 publishOn() 이 이어지는지 확인함.
+     */
+    private boolean supersededByNext(int i) {
+        for (int j = i + 1; j < stages.size(); j++) {
+            Stage next = stages.get(j);
+            if (next.kind != Kind.PUBLISH_ON) {
+                return false;
+            }
+            if (next.scheduler != Schedulers.immediate()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class Stage {
+        private final Kind kind;
+        private final String name;
+        private final Scheduler scheduler;
+        private final Function<Flux<Object>, Flux<Object>> operator;
+
+        @SuppressWarnings("unchecked")
+        Stage(Kind kind, String name, Scheduler scheduler, Function<? super Flux<Object>, ? extends Flux<?>> operator) {
+            this.kind = kind;
+            this.name = name;
+            this.scheduler = scheduler;
+            this.operator = flux -> (Flux<Object>) operator.apply(flux);
+        }
+    }
+}
@@ -14,6 +14,10 @@ import reactor.core.scheduler.Schedulers;
  *     publishOn() Operator는 코드 상에서 <strong>publishOn()을 기준으로 아래쪽인 Downstream 의 실행 스레드를 변경함.</strong>
  * </p>
  *
+ * <p>
+ *     prefetch 를 지정하지 않으면 256개를 미리 요청함. Downstream 의 처리 속도에 맞춰 prefetch 를 조절하려면 {@link AdaptivePublishOn} 을 사용함.
+ * </p>
+ *
  */
 @Slf4j
 public class PublishOn {
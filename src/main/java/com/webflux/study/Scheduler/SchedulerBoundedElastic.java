@@ -21,6 +21,10 @@ import lombok.extern.slf4j.Slf4j;
  *     즉, 다른 스레드는 데이터를 가져오고 다른 스레드는 작업을 이어나가 면 될 것임.
  * </p>
  *
+ * <p>
+ *     JDK 21 이상에서는 스레드 수 제한이 없는 {@link VirtualThreads#scheduler()} 를 대신 사용할 수 있음.
+ * </p>
+ *
  */
 @Slf4j
 public class SchedulerBoundedElastic {
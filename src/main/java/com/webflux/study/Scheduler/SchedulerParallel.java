@@ -9,6 +9,9 @@ import lombok.extern.slf4j.Slf4j;
  *     {@link SchedulerBoundedElastic}이 Blocking I/O 작업에 최적화 되어 있다면, <br>
  *     이 친구는 Non-Blocking I/O 에 최적화되어 있는 Scheduler 로서 CPU 코어 수만큼의 스레드를 할당함.
  * </p>
+ * <p>
+ *     스레드마다 작업 큐가 고정되어 있으므로 작업 시간이 고르지 않다면 {@link WorkStealingSchedulers} 를 사용할 수 있음.
+ * </p>
  */
 @Slf4j
 public class SchedulerParallel {
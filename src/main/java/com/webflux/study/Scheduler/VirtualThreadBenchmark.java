@@ -0,0 +1,70 @@
+package com.webflux.study.Scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * <h2>Blocking I/O 작업의 boundedElastic() 과 Virtual Thread Scheduler 비교</h2>
+ * <p>
+ *     RestTemplate.exchange() 처럼 50ms 동안 Blocking 되는 호출을 flatMap() 안에서 subscribeOn() 으로 넘기고,
+ *     모든 호출이 끝날 때까지 걸린 시간과 최대 스레드 수를 비교함.
+ * </p>
+ * <p>
+ *     JDK 21 이상에서 실행해야 Virtual Thread 가 측정되며, -D{@value VirtualThreads#ENABLED_PROPERTY}=false 로 끌 수 있음.
+ * </p>
+ */
+@Slf4j
+public class VirtualThreadBenchmark {
+    private static final long BLOCKING_MILLIS = 50L;
+
+    /**
+     * <h3>실행 결과</h3>
+     * <p>
+     *     boundedElastic() 은 스레드가 CPU 코어 수 x 10 개로 제한되므로 그 이상의 호출은 큐에서 기다리고,
+     *     처리 시간이 호출 수에 비례해서 늘어남.<br>
+     *     Virtual Thread Scheduler 는 호출마다 Virtual Thread 를 만들기 때문에 호출 수와 상관없이 거의 한 번의 Blocking 시간 안에 끝나며,
+     *     Blocking 된 Virtual Thread 는 carrier 스레드를 점유하지 않으므로 플랫폼 스레드 수도 늘지 않음.
+     * </p>
+     */
+    public static void main(String[] args) {
+        Scheduler virtual = VirtualThreads.isAvailable() ? VirtualThreads.newVirtualThreadScheduler("virtual") : null;
+        if (virtual == null) {
+            log.info("# virtual threads are not available on JDK {}", Runtime.version().feature());
+        }
+
+        for (int calls : new int[]{100, 1_000, 2_000}) {
+            log.info("# {} calls: boundedElastic: {}", calls, measure(Schedulers.boundedElastic(), calls));
+            if (virtual != null) {
+                log.info("# {} calls: virtual threads: {}", calls, measure(virtual, calls));
+            }
+        }
+        if (virtual != null) {
+            virtual.dispose();
+        }
+    }
+
+    private static String measure(Scheduler scheduler, int calls) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        long start = System.nanoTime();
+
+        Flux.range(0, calls)
+                .flatMap(i -> Mono.fromCallable(() -> blockingCall(i)).subscribeOn(scheduler), calls)
+                .count()
+                .block();
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return elapsedMillis + " ms, peak platform threads: " + threads.getPeakThreadCount();
+    }
+
+    private static int blockingCall(int i) throws InterruptedException {
+        Thread.sleep(BLOCKING_MILLIS); // RestTemplate.exchange() 대신
+        return i;
+    }
+}
@@ -0,0 +1,80 @@
+package com.webflux.study.Scheduler;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * <h3>Virtual Thread 지원 여부 확인</h3>
+ * <p>
+ *     Virtual Thread 는 JDK 21 부터 정식 기능이지만 이 프로젝트는 JDK 17 로 컴파일되므로, 실행 중인 JDK 에
+ *     Executors.newVirtualThreadPerTaskExecutor() 가 있는지 리플렉션으로 확인해서 사용함.
+ * </p>
+ * <p>
+ *     시스템 프로퍼티 {@value #ENABLED_PROPERTY} 를 false 로 지정하면 JDK 21 이상이어도 사용하지 않음.
+ * </p>
+ * <p>
+ *     {@link #scheduler()} 는 RestTemplate 호출 같은 Blocking I/O 를 subscribeOn()/publishOn() 으로 넘길 때 사용하는 Scheduler 로,
+ *     작업마다 Virtual Thread 를 하나씩 만들기 때문에 {@link SchedulerBoundedElastic} 처럼 스레드 수(CPU 코어 수 x 10)에 막히지 않음.
+ *     Virtual Thread 를 사용할 수 없으면 Schedulers.boundedElastic() 을 그대로 사용함.
+ * </p>
+ */
+public final class VirtualThreads {
+    public static final String ENABLED_PROPERTY = "study.virtual-threads.enabled";
+
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findFactory();
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isAvailable() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null
+                && Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"));
+    }
+
+    /**
+     * 작업마다 새로운 Virtual Thread 를 만드는 ExecutorService.
+     *
+     * @throws UnsupportedOperationException Virtual Thread 를 사용할 수 없는 경우
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (!isAvailable()) {
+            throw new UnsupportedOperationException("virtual threads are not available on " + Runtime.version());
+        }
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Blocking 작업용 공유 Scheduler. 처음 호출할 때 만들어지며 dispose 하지 않아야 함.
+     */
+    public static Scheduler scheduler() {
+        return isAvailable() ? SharedScheduler.INSTANCE : Schedulers.boundedElastic();
+    }
+
+    /**
+     * 작업마다 새로운 Virtual Thread 에서 실행하는 Scheduler. 다 쓰고 나면 dispose 해야 함.
+     *
+     * @throws UnsupportedOperationException Virtual Thread 를 사용할 수 없는 경우
+     */
+    public static Scheduler newVirtualThreadScheduler(String name) {
+        return Schedulers.fromExecutorService(newVirtualThreadPerTaskExecutor(), name);
+    }
+
+    private static Method findFactory() {
+        try {
+            return java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static class SharedScheduler {
+        private static final Scheduler INSTANCE = newVirtualThreadScheduler("virtual");
+    }
+}
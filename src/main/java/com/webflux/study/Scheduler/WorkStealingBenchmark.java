@@ -0,0 +1,79 @@
+package com.webflux.study.Scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * <h2>작업 시간이 고르지 않은 경우의 Scheduler 비교</h2>
+ * <p>
+ *     작업 1,000개 중 8개마다 1개는 다른 작업보다 100배 오래 걸리는 CPU 작업을 실행하고, 전체 처리 시간을 비교함.
+ * </p>
+ * <ul>
+ *     <li>flatMap + subscribeOn: 작업 하나하나를 Scheduler 에 넘김.</li>
+ *     <li>parallel + runOn: 작업을 rail 에 미리 나눠 놓고 rail 단위로 처리함.</li>
+ * </ul>
+ */
+@Slf4j
+public class WorkStealingBenchmark {
+    private static final int TASKS = 1_000;
+    private static final int SLOW_EVERY = 8;
+    private static final long FAST_ITERATIONS = 20_000;
+    private static final long SLOW_ITERATIONS = FAST_ITERATIONS * 100;
+
+    /**
+     * <h3>실행 결과</h3>
+     * <p>
+     *     Schedulers.parallel() 에서는 flatMap + subscribeOn 이 작업을 Worker 에 Round Robin 으로 넘기므로
+     *     Worker 수가 8의 약수이면 느린 작업이 모두 같은 Worker 에 몰리고, work-stealing Scheduler 에서는 놀고 있는 스레드가 남은 작업을 가져가서 처리함.<br>
+     *     parallel + runOn 은 두 Scheduler 모두 rail 배정이 같으므로 차이가 없음.<br>
+     *     CPU 코어가 하나뿐인 환경에서는 스레드가 모두 같은 코어를 나눠 쓰므로 차이가 나타나지 않음.
+     * </p>
+     */
+    public static void main(String[] args) {
+        int parallelism = Math.max(4, Runtime.getRuntime().availableProcessors());
+        Scheduler parallel = Schedulers.newParallel("fixed", parallelism, true);
+        Scheduler workStealing = WorkStealingSchedulers.newWorkStealing("stealing", parallelism);
+        log.info("# cores: {}, parallelism: {}", Runtime.getRuntime().availableProcessors(), parallelism);
+
+        for (int round = 0; round < 3; round++) { // 첫 번째 round 는 JIT warm-up
+            log.info("# round {}: flatMap+subscribeOn parallel: {} ms, work-stealing: {} ms",
+                    round, flatMapSubscribeOn(parallel), flatMapSubscribeOn(workStealing));
+            log.info("# round {}: parallel+runOn       parallel: {} ms, work-stealing: {} ms",
+                    round, parallelRunOn(parallel, parallelism), parallelRunOn(workStealing, parallelism));
+        }
+        parallel.dispose();
+        workStealing.dispose();
+    }
+
+    private static long flatMapSubscribeOn(Scheduler scheduler) {
+        long start = System.nanoTime();
+        Flux.range(0, TASKS)
+                .flatMap(i -> Mono.fromCallable(() -> work(i)).subscribeOn(scheduler))
+                .reduce(0L, Long::sum)
+                .block();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static long parallelRunOn(Scheduler scheduler, int parallelism) {
+        long start = System.nanoTime();
+        Flux.range(0, TASKS)
+                .parallel(parallelism)
+                .runOn(scheduler)
+                .map(WorkStealingBenchmark::work)
+                .reduce(Long::sum)
+                .block();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static long work(int i) {
+        long iterations = i % SLOW_EVERY == 0 ? SLOW_ITERATIONS : FAST_ITERATIONS;
+        long x = i;
+        for (long n = 0; n < iterations; n++) {
+            x = x * 6364136223846793005L + 1442695040888963407L;
+        }
+        return x & 1;
+    }
+}
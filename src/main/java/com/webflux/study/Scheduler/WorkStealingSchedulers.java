@@ -0,0 +1,55 @@
+package com.webflux.study.Scheduler;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <h3>work-stealing Scheduler</h3>
+ * <p>
+ *     Schedulers.parallel() 는 Worker 마다 전용 스레드와 작업 큐를 두고 작업을 Worker 에 Round Robin 으로 나눠주기 때문에,
+ *     작업마다 처리 시간이 크게 다르면 일이 몰린 Worker 가 끝날 때까지 다른 스레드는 놀게 됨.
+ * </p>
+ * <p>
+ *     이 Scheduler 는 {@link SchedulerFromExecutorService} 방식으로 ForkJoinPool 을 감싼 것으로, 스레드마다 작업 deque 를 두고
+ *     자기 deque 가 빈 스레드는 다른 스레드의 deque 에서 작업을 훔쳐와서(work-stealing) 실행함.<br>
+ *     asyncMode 를 true 로 지정해서 각 deque 를 FIFO 로 처리하지만, 이것은 한 스레드의 deque 안에서의 순서일 뿐임.
+ * </p>
+ * <p>
+ *     fromExecutorService() 의 Worker 는 작업을 ForkJoinPool 에 바로 제출하므로, 같은 Worker 에 예약한 작업이라도
+ *     서로 다른 스레드에서 동시에, 예약한 순서와 다르게 실행될 수 있음.
+ *     publishOn() 은 Operator 안에서 drain 을 한 번에 하나만 실행하므로 순서가 지켜지지만,
+ *     Worker 가 작업을 순서대로 하나씩 실행해 준다고 가정하는 코드에는 사용하면 안 됨.
+ * </p>
+ * <p>
+ *     또한 ForkJoinPool 은 ScheduledExecutorService 가 아니므로 지연/주기 예약을 지원하지 않음.
+ *     delayElements(), interval(), timeout() 처럼 시간 기반 예약이 필요한 Operator 에 이 Scheduler 를 넘기면
+ *     RejectedExecutionException 으로 실패함.
+ * </p>
+ * <p>
+ *     단, runOn() 은 데이터를 rail 에 미리 나눠 놓고 rail 마다 하나의 drain 작업으로 처리하므로 작업을 훔쳐올 단위가 없음.
+ *     work-stealing 의 효과는 flatMap() 안에서 데이터마다 subscribeOn() 으로 작업을 나눌 때 나타남.
+ * </p>
+ */
+public final class WorkStealingSchedulers {
+    private WorkStealingSchedulers() {
+    }
+
+    public static Scheduler newWorkStealing(String name) {
+        return newWorkStealing(name, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static Scheduler newWorkStealing(String name, int parallelism) {
+        AtomicInteger counter = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName(name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, true);
+        return Schedulers.fromExecutorService(pool, name);
+    }
+}
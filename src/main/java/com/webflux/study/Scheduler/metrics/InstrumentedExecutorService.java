@@ -0,0 +1,343 @@
+package com.webflux.study.Scheduler.metrics;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <h3>작업 시간을 기록하는 ScheduledExecutorService</h3>
+ * <p>
+ *     제출되는 작업을 {@link TimedTask} 로 감싸서 실행 예정 시각부터 실제로 시작되기까지의 시간(queue wait)과 실행 시간을 기록함.<br>
+ *     지연 실행 작업은 지연 시간이 지난 시점부터 queue wait 을 재고, 주기 실행 작업은 실행 시간만 기록함.
+ * </p>
+ * <p>
+ *     시작되기 전에 취소된 작업도 큐에 쌓인 작업 수에서 빠지도록 리턴하는 Future 도 감쌈.
+ * </p>
+ * <p>
+ *     작업 수는 Scheduler 전체(Recorder)와 이 ExecutorService 각각에 함께 기록하므로, worker 별 큐 길이도 확인할 수 있음.
+ * </p>
+ */
+class InstrumentedExecutorService implements ScheduledExecutorService {
+    private final ScheduledExecutorService delegate;
+    private final SchedulerMetrics.Recorder recorder;
+    private final int index;
+    private final AtomicBoolean shutdown = new AtomicBoolean();
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    InstrumentedExecutorService(ScheduledExecutorService delegate, SchedulerMetrics.Recorder recorder, int index) {
+        this.delegate = delegate;
+        this.recorder = recorder;
+        this.index = index;
+    }
+
+    WorkerStats stats() {
+        return new WorkerStats(index, queued.get(), active.get(), completed.sum(), rejected.sum());
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        TimedTask<Void> task = new TimedTask<>(command, 0);
+        submitted(task);
+        try {
+            delegate.execute(task::call0);
+        } catch (RejectedExecutionException e) {
+            rejected(task);
+            throw e;
+        }
+    }
+
+    @Override
+    public Future<?> submit(Runnable command) {
+        return submit(new TimedTask<>(command, 0));
+    }
+
+    @Override
+    public <T> Future<T> submit(Runnable command, T result) {
+        return submit(new TimedTask<>(() -> {
+            command.run();
+            return result;
+        }, 0));
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> callable) {
+        return submit(new TimedTask<>(callable, 0));
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        return schedule(new TimedTask<>(command, unit.toNanos(delay)), delay, unit);
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        return schedule(new TimedTask<>(callable, unit.toNanos(delay)), delay, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        try {
+            return delegate.scheduleAtFixedRate(periodic(command), initialDelay, period, unit);
+        } catch (RejectedExecutionException e) {
+            countRejected();
+            throw e;
+        }
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        try {
+            return delegate.scheduleWithFixedDelay(periodic(command), initialDelay, delay, unit);
+        } catch (RejectedExecutionException e) {
+            countRejected();
+            throw e;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        retire();
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        retire();
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+        return delegate.invokeAll(tasks);
+    }
+
+    @Override
+    public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        return delegate.invokeAll(tasks, timeout, unit);
+    }
+
+    @Override
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
+        return delegate.invokeAny(tasks);
+    }
+
+    @Override
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        return delegate.invokeAny(tasks, timeout, unit);
+    }
+
+    private <T> Future<T> submit(TimedTask<T> task) {
+        submitted(task);
+        try {
+            return new TrackedFuture<>(delegate.submit(task), task);
+        } catch (RejectedExecutionException e) {
+            rejected(task);
+            throw e;
+        }
+    }
+
+    private <T> ScheduledFuture<T> schedule(TimedTask<T> task, long delay, TimeUnit unit) {
+        submitted(task);
+        try {
+            return new TrackedScheduledFuture<>(delegate.schedule(task, delay, unit), task);
+        } catch (RejectedExecutionException e) {
+            rejected(task);
+            throw e;
+        }
+    }
+
+    private void submitted(TimedTask<?> task) {
+        if (task.countsAsQueued) {
+            recorder.queued.incrementAndGet();
+            queued.incrementAndGet();
+        }
+    }
+
+    private void dequeued() {
+        recorder.queued.decrementAndGet();
+        queued.decrementAndGet();
+    }
+
+    private void rejected(TimedTask<?> task) {
+        task.cancelBeforeStart();
+        countRejected();
+    }
+
+    private void countRejected() {
+        recorder.rejected.increment();
+        rejected.increment();
+    }
+
+    private void started() {
+        recorder.active.incrementAndGet();
+        active.incrementAndGet();
+    }
+
+    private void finished(long start) {
+        recorder.execution.record(System.nanoTime() - start);
+        recorder.completed.increment();
+        completed.increment();
+        recorder.active.decrementAndGet();
+        active.decrementAndGet();
+    }
+
+    private Runnable periodic(Runnable command) {
+        return () -> {
+            started();
+            long start = System.nanoTime();
+            try {
+                command.run();
+            } finally {
+                finished(start);
+            }
+        };
+    }
+
+    private void retire() {
+        if (shutdown.compareAndSet(false, true)) {
+            recorder.executors.remove(this);
+        }
+    }
+
+    private static final int QUEUED = 0;
+    private static final int STARTED = 1;
+    private static final int CANCELLED = 2;
+
+    private class TimedTask<T> implements Callable<T> {
+        private final Callable<T> callable;
+        private final long dueNanos;
+        private final boolean countsAsQueued;
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        TimedTask(Runnable runnable, long delayNanos) {
+            this(() -> {
+                runnable.run();
+                return null;
+            }, delayNanos);
+        }
+
+        TimedTask(Callable<T> callable, long delayNanos) {
+            this.callable = callable;
+            this.dueNanos = System.nanoTime() + Math.max(delayNanos, 0);
+            this.countsAsQueued = delayNanos <= 0; // 지연 실행 작업은 큐에 쌓인 작업으로 세지 않음.
+        }
+
+        @Override
+        public T call() throws Exception {
+            if (!state.compareAndSet(QUEUED, STARTED)) {
+                return null;
+            }
+            long start = System.nanoTime();
+            if (countsAsQueued) {
+                dequeued();
+            }
+            recorder.queueWait.record(Math.max(start - dueNanos, 0));
+            started();
+            try {
+                return callable.call();
+            } finally {
+                finished(start);
+            }
+        }
+
+        void call0() {
+            try {
+                call();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void cancelBeforeStart() {
+            if (state.compareAndSet(QUEUED, CANCELLED) && countsAsQueued) {
+                dequeued();
+            }
+        }
+    }
+
+    private class TrackedFuture<T> implements Future<T> {
+        final Future<T> future;
+        final TimedTask<T> task;
+
+        TrackedFuture(Future<T> future, TimedTask<T> task) {
+            this.future = future;
+            this.task = task;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            task.cancelBeforeStart();
+            return future.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return future.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return future.isDone();
+        }
+
+        @Override
+        public T get() throws InterruptedException, ExecutionException {
+            return future.get();
+        }
+
+        @Override
+        public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            return future.get(timeout, unit);
+        }
+    }
+
+    private class TrackedScheduledFuture<T> extends TrackedFuture<T> implements ScheduledFuture<T> {
+        TrackedScheduledFuture(ScheduledFuture<T> future, TimedTask<T> task) {
+            super(future, task);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return ((ScheduledFuture<T>) future).getDelay(unit);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return ((ScheduledFuture<T>) future).compareTo(other);
+        }
+    }
+}
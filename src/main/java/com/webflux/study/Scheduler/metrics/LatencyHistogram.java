@@ -0,0 +1,83 @@
+package com.webflux.study.Scheduler.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 마이크로초 단위 시간을 2의 거듭제곱 구간(1us, 2us, 4us, ...)으로 세는 lock-free 히스토그램.
+ */
+class LatencyHistogram {
+    private static final int BUCKETS = 40;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+    private final LongAdder totalNanos = new LongAdder();
+
+    LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    void record(long nanos) {
+        long micros = Math.max(nanos / 1_000, 1L);
+        int bucket = Math.min(64 - Long.numberOfLeadingZeros(micros - 1), BUCKETS - 1);
+        counts[bucket].increment();
+        totalNanos.add(nanos);
+    }
+
+    long count() {
+        long count = 0;
+        for (LongAdder bucket : counts) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    double meanMicros() {
+        long count = count();
+        return count == 0 ? 0 : totalNanos.sum() / 1_000.0 / count;
+    }
+
+    /**
+     * 비율(0 ~ 1)에 해당하는 구간의 상한값(마이크로초).
+     */
+    long percentileMicros(double ratio) {
+        long[] snapshot = snapshot();
+        long count = 0;
+        for (long bucket : snapshot) {
+            count += bucket;
+        }
+        long target = (long) Math.ceil(count * ratio);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= target && seen > 0) {
+                return 1L << i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 비어 있지 않은 구간만 "구간 상한(us)" -> 개수 로 리턴함.
+     */
+    Map<String, Long> buckets() {
+        long[] snapshot = snapshot();
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKETS; i++) {
+            if (snapshot[i] != 0) {
+                buckets.put("le_" + (1L << i) + "us", snapshot[i]);
+            }
+        }
+        return buckets;
+    }
+
+    private long[] snapshot() {
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts[i].sum();
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,118 @@
+package com.webflux.study.Scheduler.metrics;
+
+import reactor.core.Scannable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <h3>Scheduler 계측</h3>
+ * <p>
+ *     install() 을 호출하면 Schedulers.addExecutorServiceDecorator() 로 그 이후에 만들어지는 모든 Scheduler 의
+ *     ExecutorService 를 {@link InstrumentedExecutorService} 로 감싸서, Scheduler 인스턴스별로 아래 값을 기록함.
+ *     이름이 같은 Scheduler 가 여러 개 있어도 instance 번호로 구분되고, dispose 된 Scheduler 는 GC 되면 결과에서 빠짐.
+ * </p>
+ * <ul>
+ *     <li>작업이 제출된 뒤 실행되기까지 큐에서 기다린 시간(queue wait)과 실행 시간의 히스토그램</li>
+ *     <li>작업을 실행 중인(active) worker 수와 놀고 있는(idle) worker 수, 큐에 쌓인 작업 수</li>
+ *     <li>ExecutorService 가 거부한(RejectedExecutionException) 작업 수</li>
+ *     <li>worker(ExecutorService) 별 큐에 쌓인 작업 수와 실행 중/완료/거부된 작업 수</li>
+ * </ul>
+ * <p>
+ *     Schedulers.parallel() 처럼 이미 만들어진 기본 Scheduler 는 계측되지 않으므로 애플리케이션 시작 시점에 install() 해야 함.
+ * </p>
+ */
+public final class SchedulerMetrics {
+    public static final String DECORATOR_KEY = "study.scheduler-metrics";
+
+    // Scheduler 는 equals() 를 재정의하지 않으므로 인스턴스별로 구분됨.
+    private static final Map<Scheduler, Recorder> RECORDERS = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+    private static final AtomicBoolean INSTALLED = new AtomicBoolean();
+
+    private SchedulerMetrics() {
+    }
+
+    public static void install() {
+        if (INSTALLED.compareAndSet(false, true)) {
+            Schedulers.addExecutorServiceDecorator(DECORATOR_KEY, SchedulerMetrics::decorate);
+        }
+    }
+
+    public static void uninstall() {
+        if (INSTALLED.compareAndSet(true, false)) {
+            Schedulers.removeExecutorServiceDecorator(DECORATOR_KEY);
+        }
+    }
+
+    public static List<SchedulerStats> snapshot() {
+        List<SchedulerStats> stats;
+        synchronized (RECORDERS) {
+            stats = new ArrayList<>(RECORDERS.size());
+            RECORDERS.values().forEach(recorder -> stats.add(recorder.stats()));
+        }
+        stats.sort(Comparator.comparing(SchedulerStats::getScheduler).thenComparingInt(SchedulerStats::getInstance));
+        return stats;
+    }
+
+    public static void reset() {
+        RECORDERS.clear();
+    }
+
+    private static ScheduledExecutorService decorate(Scheduler scheduler, ScheduledExecutorService executor) {
+        Recorder recorder = RECORDERS.computeIfAbsent(scheduler,
+                key -> new Recorder(Scannable.from(key).name(), INSTANCES.incrementAndGet()));
+        InstrumentedExecutorService instrumented =
+                new InstrumentedExecutorService(executor, recorder, recorder.nextWorkerIndex.getAndIncrement());
+        recorder.executors.add(instrumented);
+        return instrumented;
+    }
+
+    /**
+     * 같은 Scheduler 에 속한 ExecutorService 들이 함께 기록하는 값.
+     */
+    static class Recorder {
+        final String name;
+        final int instance;
+        /** 아직 shutdown 되지 않은 ExecutorService */
+        final List<InstrumentedExecutorService> executors = new CopyOnWriteArrayList<>();
+        final AtomicInteger nextWorkerIndex = new AtomicInteger();
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicLong queued = new AtomicLong();
+        final LongAdder completed = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LatencyHistogram queueWait = new LatencyHistogram();
+        final LatencyHistogram execution = new LatencyHistogram();
+
+        Recorder(String name, int instance) {
+            this.name = name;
+            this.instance = instance;
+        }
+
+        SchedulerStats stats() {
+            List<WorkerStats> workers = new ArrayList<>();
+            for (InstrumentedExecutorService executor : executors) {
+                workers.add(executor.stats());
+            }
+            int workerCount = workers.size();
+            int activeCount = active.get();
+            return new SchedulerStats(name, instance, workerCount, activeCount, Math.max(workerCount - activeCount, 0),
+                    queued.get(), completed.sum(), rejected.sum(),
+                    queueWait.meanMicros(), queueWait.percentileMicros(0.99),
+                    execution.meanMicros(), execution.percentileMicros(0.99),
+                    queueWait.buckets(), execution.buckets(), workers);
+        }
+    }
+}
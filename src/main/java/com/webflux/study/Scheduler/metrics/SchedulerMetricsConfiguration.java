@@ -0,0 +1,29 @@
+package com.webflux.study.Scheduler.metrics;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * <h3>Scheduler 계측 endpoint</h3>
+ * <p>
+ *     {@link SchedulerMetrics} 를 설치하고, GET /metrics/schedulers 로 Scheduler 별 계측 결과를 JSON 으로 응답함.
+ * </p>
+ */
+@Configuration
+public class SchedulerMetricsConfiguration {
+    public static final String PATH = "/metrics/schedulers";
+
+    public SchedulerMetricsConfiguration() {
+        SchedulerMetrics.install();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> schedulerMetricsRoute() {
+        return RouterFunctions.route()
+                .GET(PATH, request -> ServerResponse.ok().bodyValue(SchedulerMetrics.snapshot()))
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.webflux.study.Scheduler.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scheduler 하나의 계측 결과. 시간 값은 모두 마이크로초 단위임.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class SchedulerStats {
+    private final String scheduler;
+    /** 이름이 같은 Scheduler 를 구분하기 위한 번호 */
+    private final int instance;
+    /** 이 Scheduler 가 만든(아직 shutdown 되지 않은) ExecutorService 수 */
+    private final int workers;
+    /** 작업을 실행 중인 worker 수 */
+    private final int activeWorkers;
+    private final int idleWorkers;
+    /** 제출되었지만 아직 시작되지 않은 작업 수 */
+    private final long queued;
+    private final long completed;
+    private final long rejected;
+    private final double meanQueueWaitMicros;
+    private final long p99QueueWaitMicros;
+    private final double meanExecutionMicros;
+    private final long p99ExecutionMicros;
+    private final Map<String, Long> queueWaitHistogram;
+    private final Map<String, Long> executionHistogram;
+    private final List<WorkerStats> workerStats;
+}
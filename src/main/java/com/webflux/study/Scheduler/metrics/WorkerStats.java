@@ -0,0 +1,21 @@
+package com.webflux.study.Scheduler.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Scheduler 가 만든 ExecutorService(worker) 하나의 계측 결과.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class WorkerStats {
+    /** Scheduler 안에서 ExecutorService 가 만들어진 순서 */
+    private final int index;
+    /** 제출되었지만 아직 시작되지 않은 작업 수 */
+    private final long queued;
+    private final int active;
+    private final long completed;
+    private final long rejected;
+}
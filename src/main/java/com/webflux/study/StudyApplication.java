@@ -1,5 +1,6 @@
 package com.webflux.study;
 
+import com.webflux.study.Scheduler.metrics.SchedulerMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -9,6 +10,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 public class StudyApplication {
 
 	public static void main(String[] args) {
+		SchedulerMetrics.install(); // 기본 Scheduler 가 만들어지기 전에 설치해야 계측됨.
 		SpringApplication springApplication = new SpringApplication(StudyApplication.class);
 		log.info(springApplication.getWebApplicationType().toString());
 
@@ -0,0 +1,298 @@
+package com.webflux.study.backpressure;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * <h2>부하에 따라 BUFFER → SAMPLE → DROP 으로 바뀌는 Backpressure 전략</h2>
+ * <p>
+ *     onBackpressureBuffer(), onBackpressureDrop() 은 하나의 전략만 사용함.<br>
+ *     이 전략은 잠깐의 burst 는 버퍼에 담아서 모두 전달하고, Downstream 이 계속 밀리면 데이터를 샘플링하다가 그래도 밀리면 모두 버림.
+ * </p>
+ * <ul>
+ *     <li>BUFFER: 모든 데이터를 버퍼에 담음.</li>
+ *     <li>SAMPLE: sampleEvery 개 중 하나만 버퍼에 담고 나머지는 버림.</li>
+ *     <li>DROP: 새 데이터를 모두 버림.</li>
+ * </ul>
+ * <p>
+ *     버퍼가 highWatermark(75%) 이상 찬 상태가 lagThreshold 동안 계속되면(BUFFER 단계에서는 버퍼가 가득 차도) 한 단계 올라가고,
+ *     버퍼가 lowWatermark(25%) 이하인 상태가 lagThreshold 동안 계속되면 한 단계 내려감.
+ * </p>
+ * <p>
+ *     버퍼가 얼마나 빨리 차는지(fill rate)는 lagThreshold 길이의 구간마다 버퍼 크기가 늘어난 양, 즉 버퍼에 들어간 개수에서 Downstream 이 꺼내 간 개수를 뺀 값으로 잼.
+ *     highWatermark 이상인 상태에서 직전 구간의 fill rate 로 계산했을 때 lagThreshold 안에 버퍼가 가득 찰 것 같으면,
+ *     lagThreshold 를 다 기다리지 않고 바로 한 단계 올라감.
+ * </p>
+ * <p>
+ *     단계는 데이터가 들어올 때뿐 아니라 clock Scheduler 의 타이머로 lagThreshold 의 절반마다 다시 판단하므로,
+ *     Upstream 이 멈춰도 버퍼가 비면 단계가 내려감.
+ * </p>
+ * <p>
+ *     단계가 바뀔 때마다 doOnTransition 콜백이, 데이터를 버릴 때마다 doOnShed 콜백이 호출되며 누적 값은 getter 로 확인할 수 있음.
+ * </p>
+ */
+public class AdaptiveOverflow<T> implements Function<Flux<T>, Flux<T>> {
+    public enum Mode {
+        BUFFER, SAMPLE, DROP
+    }
+
+    private final int capacity;
+    private final int highWatermark;
+    private final int lowWatermark;
+    private final long lagThresholdMillis;
+    private final int sampleEvery;
+    private final Scheduler clock;
+
+    private BiConsumer<Mode, Mode> onTransition = (from, to) -> {};
+    private Consumer<? super T> onShed = shed -> {};
+
+    private volatile Mode mode = Mode.BUFFER;
+    private volatile double fillRate;
+    private final LongAdder escalations = new LongAdder();
+    private final LongAdder deescalations = new LongAdder();
+    private final LongAdder sampled = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    public AdaptiveOverflow(int capacity, Duration lagThreshold, int sampleEvery) {
+        this(capacity, lagThreshold, sampleEvery, Schedulers.parallel());
+    }
+
+    /**
+     * @param clock 지연 시간을 잴 때 사용함. 테스트에서는 VirtualTimeScheduler 를 넘길 수 있음.
+     */
+    public AdaptiveOverflow(int capacity, Duration lagThreshold, int sampleEvery, Scheduler clock) {
+        if (capacity < 4 || sampleEvery < 2) {
+            throw new IllegalArgumentException("capacity must be >= 4 and sampleEvery >= 2");
+        }
+        this.capacity = capacity;
+        this.highWatermark = capacity - (capacity >> 2);
+        this.lowWatermark = capacity >> 2;
+        this.lagThresholdMillis = lagThreshold.toMillis();
+        this.sampleEvery = sampleEvery;
+        this.clock = clock;
+    }
+
+    public AdaptiveOverflow<T> doOnTransition(BiConsumer<Mode, Mode> onTransition) {
+        this.onTransition = onTransition;
+        return this;
+    }
+
+    public AdaptiveOverflow<T> doOnShed(Consumer<? super T> onShed) {
+        this.onShed = onShed;
+        return this;
+    }
+
+    @Override
+    public Flux<T> apply(Flux<T> source) {
+        return source.transform(Operators.<T, T>lift((scannable, actual) -> new AdaptiveOverflowSubscriber(actual)));
+    }
+
+    /**
+     * 가장 최근에 구독한 Subscriber 의 현재 단계.
+     */
+    public Mode mode() {
+        return mode;
+    }
+
+    /**
+     * 가장 최근에 구독한 Subscriber 의 직전 구간 fill rate(초당 버퍼 크기 증가량). 버퍼가 줄어들고 있으면 음수.
+     */
+    public double fillRate() {
+        return fillRate;
+    }
+
+    public long escalations() {
+        return escalations.sum();
+    }
+
+    public long deescalations() {
+        return deescalations.sum();
+    }
+
+    /**
+     * SAMPLE 단계에서 버린 데이터 수.
+     */
+    public long sampled() {
+        return sampled.sum();
+    }
+
+    /**
+     * DROP 단계에서 버린 데이터 수.
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * 버퍼가 가득 차서 버린 데이터 수.
+     */
+    public long overflowed() {
+        return overflowed.sum();
+    }
+
+    public long shed() {
+        return sampled() + dropped() + overflowed();
+    }
+
+    final class AdaptiveOverflowSubscriber extends DrainSubscriber<T, T> {
+        private final ArrayDeque<T> buffer = new ArrayDeque<>();
+        private Mode current = Mode.BUFFER;
+        private long lagSince = -1;
+        private long calmSince = -1;
+        private long sampleCounter;
+        // fill rate 를 재는 구간의 시작 시각과 그때의 버퍼 크기
+        private long windowStart;
+        private int windowStartSize;
+        private double currentFillRate;
+        private volatile Disposable evaluator;
+
+        AdaptiveOverflowSubscriber(CoreSubscriber<? super T> actual) {
+            super(actual);
+            mode = Mode.BUFFER;
+            fillRate = 0;
+            windowStart = clock.now(TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            long period = Math.max(lagThresholdMillis / 2, 1L);
+            evaluator = clock.schedulePeriodically(this::evaluate, period, period, TimeUnit.MILLISECONDS);
+            super.onSubscribe(s);
+        }
+
+        @Override
+        protected void offer(T t) {
+            T shed = null;
+            Mode[] transition;
+            synchronized (this) {
+                transition = evaluate(clock.now(TimeUnit.MILLISECONDS));
+                if (current == Mode.DROP) {
+                    dropped.increment();
+                    shed = t;
+                } else if (current == Mode.SAMPLE && sampleCounter++ % sampleEvery != 0) {
+                    sampled.increment();
+                    shed = t;
+                } else if (buffer.size() >= capacity) {
+                    overflowed.increment();
+                    shed = t;
+                } else {
+                    buffer.offer(t);
+                }
+            }
+            // 콜백은 lock 밖에서 호출함.
+            notifyTransition(transition);
+            if (shed != null) {
+                onShed.accept(shed);
+                Operators.onDiscard(shed, currentContext());
+            }
+        }
+
+        /**
+         * 타이머에서 호출함. 데이터가 들어오지 않아도 단계가 바뀔 수 있도록 함.
+         */
+        private void evaluate() {
+            Mode[] transition;
+            synchronized (this) {
+                transition = evaluate(clock.now(TimeUnit.MILLISECONDS));
+            }
+            notifyTransition(transition);
+        }
+
+        /**
+         * 단계를 다시 판단하고, 바뀌었으면 {이전 단계, 새 단계} 를 리턴함. lock 을 잡고 호출해야 함.
+         */
+        private Mode[] evaluate(long now) {
+            int size = buffer.size();
+            if (now - windowStart >= lagThresholdMillis) {
+                currentFillRate = (size - windowStartSize) * 1000.0 / (now - windowStart);
+                fillRate = currentFillRate;
+                windowStart = now;
+                windowStartSize = size;
+            }
+            Mode to = null;
+            if (size >= highWatermark) {
+                if (lagSince < 0) {
+                    lagSince = now;
+                }
+                boolean burstOverflow = size >= capacity && current == Mode.BUFFER;
+                boolean lagged = now - lagSince >= lagThresholdMillis;
+                // 직전 구간의 속도로 lagThreshold 안에 버퍼가 가득 찰 것 같으면 기다리지 않음.
+                boolean fillingFast = currentFillRate > 0
+                        && size + currentFillRate * lagThresholdMillis / 1000.0 >= capacity;
+                if (current != Mode.DROP && (burstOverflow || lagged || fillingFast)) {
+                    to = current == Mode.BUFFER ? Mode.SAMPLE : Mode.DROP;
+                    lagSince = now; // 다음 단계로 올라가려면 다시 lagThreshold 만큼 밀려야 함.
+                }
+                calmSince = -1;
+            } else {
+                lagSince = -1;
+                if (size > lowWatermark) {
+                    calmSince = -1;
+                } else if (calmSince < 0) {
+                    calmSince = now;
+                }
+                if (current != Mode.BUFFER && calmSince >= 0 && now - calmSince >= lagThresholdMillis) {
+                    to = current == Mode.DROP ? Mode.SAMPLE : Mode.BUFFER;
+                    calmSince = now;
+                }
+            }
+            if (to == null) {
+                return null;
+            }
+            Mode from = current;
+            current = to;
+            mode = to;
+            sampleCounter = 0;
+            // 단계가 바뀌면 유입 속도도 바뀌므로 fill rate 를 새로 잼.
+            currentFillRate = 0;
+            windowStart = now;
+            windowStartSize = size;
+            return new Mode[]{from, to};
+        }
+
+        private void notifyTransition(Mode[] transition) {
+            if (transition == null) {
+                return;
+            }
+            if (transition[1].ordinal() > transition[0].ordinal()) {
+                escalations.increment();
+            } else {
+                deescalations.increment();
+            }
+            onTransition.accept(transition[0], transition[1]);
+        }
+
+        @Override
+        protected synchronized T poll() {
+            return buffer.poll();
+        }
+
+        @Override
+        protected synchronized boolean isEmpty() {
+            return buffer.isEmpty();
+        }
+
+        @Override
+        protected synchronized void clear() {
+            buffer.clear();
+            Disposable task = evaluator;
+            if (task != null) {
+                task.dispose();
+            }
+        }
+    }
+}
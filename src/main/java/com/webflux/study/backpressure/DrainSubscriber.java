@@ -0,0 +1,190 @@
+package com.webflux.study.backpressure;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Upstream 에는 Unbounded request 를 보내고, emit 된 데이터를 하위 클래스의 저장소(버퍼, 맵 등)에 보관했다가
+ * Downstream 의 요청 개수만큼만 꺼내서 전달하는 Operator 의 공통 drain loop.
+ * <p>
+ *     onNext/request/cancel 이 서로 다른 스레드에서 호출되어도 wip 카운터로 drain loop 는 한 번에 하나의 스레드에서만 실행됨.<br>
+ *     offer() 는 Upstream 스레드에서, poll() 은 drain 스레드에서 호출되므로 하위 클래스의 저장소는 두 스레드 간에 안전해야 함.
+ * </p>
+ */
+abstract class DrainSubscriber<T, R> implements CoreSubscriber<T>, Subscription {
+    protected final CoreSubscriber<? super R> actual;
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+
+    protected Subscription upstream;
+    private volatile boolean done;
+    private volatile boolean cancelled;
+    private Throwable error;
+
+    protected DrainSubscriber(CoreSubscriber<? super R> actual) {
+        this.actual = actual;
+    }
+
+    /**
+     * Upstream 에서 emit 된 데이터를 보관함. 보관할 수 없는 데이터는 하위 클래스가 직접 drop 처리함.
+     */
+    protected abstract void offer(T t);
+
+    /**
+     * Downstream 으로 전달할 다음 데이터. 없으면 null.
+     */
+    protected abstract R poll();
+
+    protected abstract boolean isEmpty();
+
+    protected void clear() {
+    }
+
+    /**
+     * onSubscribe 시점에 Upstream 으로 보낼 요청 개수.
+     */
+    protected long initialRequest() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        if (Operators.validate(upstream, s)) {
+            upstream = s;
+            actual.onSubscribe(this);
+            long n = initialRequest();
+            if (n > 0) {
+                s.request(n);
+            }
+        }
+    }
+
+    @Override
+    public void onNext(T t) {
+        if (done) {
+            Operators.onNextDropped(t, actual.currentContext());
+            return;
+        }
+        offer(t);
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        if (done) {
+            Operators.onErrorDropped(t, actual.currentContext());
+            return;
+        }
+        error = t;
+        done = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        if (done) {
+            return;
+        }
+        done = true;
+        drain();
+    }
+
+    @Override
+    public void request(long n) {
+        if (Operators.validate(n)) {
+            requested.getAndUpdate(r -> Operators.addCap(r, n));
+            drain();
+        }
+    }
+
+    @Override
+    public void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        upstream.cancel();
+        if (wip.getAndIncrement() == 0) {
+            clear();
+        }
+    }
+
+    @Override
+    public Context currentContext() {
+        return actual.currentContext();
+    }
+
+    protected boolean isCancelled() {
+        return cancelled;
+    }
+
+    protected boolean isDone() {
+        return done;
+    }
+
+    /**
+     * Downstream 이 아직 처리하지 못한 요청 개수.
+     */
+    protected long requested() {
+        return requested.get();
+    }
+
+    protected final void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        for (;;) {
+            long r = requested.get();
+            long e = 0L;
+            while (e != r) {
+                if (cancelled) {
+                    clear();
+                    return;
+                }
+                boolean d = done;
+                R v = poll();
+                if (v == null) {
+                    if (d) {
+                        terminate();
+                        return;
+                    }
+                    break;
+                }
+                actual.onNext(v);
+                e++;
+            }
+            if (e == r) {
+                if (cancelled) {
+                    clear();
+                    return;
+                }
+                if (done && isEmpty()) {
+                    terminate();
+                    return;
+                }
+            }
+            if (e != 0L && r != Long.MAX_VALUE) {
+                requested.addAndGet(-e);
+            }
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                break;
+            }
+        }
+    }
+
+    private void terminate() {
+        clear();
+        if (error != null) {
+            actual.onError(error);
+        } else {
+            actual.onComplete();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.webflux.study.backpressure;
+
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * <h2>Key 별 최신 값으로 합치는(conflate) Backpressure 전략</h2>
+ * <p>
+ *     DROP 이나 DROP_OLDEST 는 어떤 코인의 가격을 통째로 잃어버릴 수 있지만, 이 전략은 Downstream 이 밀려 있는 동안 들어온 데이터를
+ *     key(코인 이름) 별로 가장 최근 값 하나만 남겨서 Map 스냅샷 하나로 합침.
+ * </p>
+ * <ul>
+ *     <li>Downstream 이 처리 속도를 따라가면 데이터 하나마다 크기가 1인 Map 이 그대로 전달됨.</li>
+ *     <li>Downstream 이 밀리면 다음 요청 시점에 그동안 바뀐 모든 key 의 최신 값이 하나의 Map 으로 전달됨.</li>
+ *     <li>보관하는 데이터는 key 개수를 넘지 않으므로 큐처럼 쌓이지 않고 메모리 사용량이 일정함.</li>
+ * </ul>
+ */
+public class LatestByKey {
+
+    private LatestByKey() {
+    }
+
+    public static <T, K, V> Function<Flux<T>, Flux<Map<K, V>>> conflate(Function<? super T, ? extends K> keyMapper,
+                                                                    Function<? super T, ? extends V> valueMapper) {
+        return source -> source.transform(Operators.<T, Map<K, V>>lift((scannable, actual) ->
+                new LatestByKeySubscriber<T, K, V>(actual, keyMapper, valueMapper)));
+    }
+
+    static final class LatestByKeySubscriber<T, K, V> extends DrainSubscriber<T, Map<K, V>> {
+        private final Function<? super T, ? extends K> keyMapper;
+        private final Function<? super T, ? extends V> valueMapper;
+        private Map<K, V> pending = new LinkedHashMap<>();
+
+        LatestByKeySubscriber(CoreSubscriber<? super Map<K, V>> actual,
+                              Function<? super T, ? extends K> keyMapper,
+                              Function<? super T, ? extends V> valueMapper) {
+            super(actual);
+            this.keyMapper = keyMapper;
+            this.valueMapper = valueMapper;
+        }
+
+        @Override
+        protected void offer(T t) {
+            K key;
+            V value;
+            try {
+                key = keyMapper.apply(t);
+                value = valueMapper.apply(t);
+            } catch (Throwable e) {
+                // Upstream 을 취소하고, 이미 합쳐 둔 스냅샷을 전달한 뒤에 에러를 전달함.
+                onError(Operators.onOperatorError(upstream, e, t, currentContext()));
+                return;
+            }
+            synchronized (this) {
+                pending.put(key, value);
+            }
+        }
+
+        @Override
+        protected synchronized Map<K, V> poll() {
+            if (pending.isEmpty()) {
+                return null;
+            }
+            Map<K, V> snapshot = pending;
+            pending = new LinkedHashMap<>(); // 전달한 스냅샷은 더 이상 수정하지 않음.
+            return Collections.unmodifiableMap(snapshot);
+        }
+
+        @Override
+        protected synchronized boolean isEmpty() {
+            return pending.isEmpty();
+        }
+
+        @Override
+        protected synchronized void clear() {
+            pending.clear();
+        }
+    }
+}
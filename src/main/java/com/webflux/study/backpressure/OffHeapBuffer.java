@@ -0,0 +1,205 @@
+package com.webflux.study.backpressure;
+
+import com.webflux.study.sinks.ElementCodec;
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * <h2>heap 밖의 버퍼를 사용하는 onBackpressureBuffer()</h2>
+ * <p>
+ *     onBackpressureBuffer() 는 버퍼에 담긴 데이터를 heap 의 객체로 보관하므로, 버퍼가 크면 그만큼 GC 가 살펴봐야 할 객체가 늘어남.<br>
+ *     이 전략은 데이터를 {@link ElementCodec} 으로 직렬화해서 direct ByteBuffer 로 만든 ring buffer 에 [길이(int)][데이터] 형태로 담고,
+ *     Downstream 이 요청할 때 다시 객체로 만들어서 전달함. 버퍼 크기는 데이터 개수가 아닌 바이트 수로 지정함.
+ * </p>
+ * <ul>
+ *     <li>DROP_LATEST: 버퍼에 공간이 없으면 새로 emit 된 데이터를 버림.</li>
+ *     <li>DROP_OLDEST: 새 데이터가 들어갈 공간이 생길 때까지 가장 오래된 데이터부터 버림.</li>
+ *     <li>ERROR: Upstream 을 취소하고 overflow 에러를 전달함.</li>
+ * </ul>
+ */
+public class OffHeapBuffer {
+
+    private OffHeapBuffer() {
+    }
+
+    public static <T> Function<Flux<T>, Flux<T>> onBackpressureBuffer(int capacityBytes,
+                                                                    ElementCodec<T> codec,
+                                                                    BufferOverflowStrategy strategy) {
+        return onBackpressureBuffer(capacityBytes, codec, strategy, dropped -> {});
+    }
+
+    /**
+     * @param onOverflow 버려진 데이터마다 호출됨. DROP_OLDEST 인 경우 버려진 데이터를 다시 객체로 만들어서 전달함.
+     */
+    public static <T> Function<Flux<T>, Flux<T>> onBackpressureBuffer(int capacityBytes,
+                                                                    ElementCodec<T> codec,
+                                                                    BufferOverflowStrategy strategy,
+                                                                    Consumer<? super T> onOverflow) {
+        return source -> source.transform(Operators.<T, T>lift((scannable, actual) ->
+                new OffHeapBufferSubscriber<>(actual, new ByteRing<>(capacityBytes, codec), strategy, onOverflow)));
+    }
+
+    static final class OffHeapBufferSubscriber<T> extends DrainSubscriber<T, T> {
+        private final ByteRing<T> ring;
+        private final BufferOverflowStrategy strategy;
+        private final Consumer<? super T> onOverflow;
+
+        OffHeapBufferSubscriber(CoreSubscriber<? super T> actual, ByteRing<T> ring,
+                                BufferOverflowStrategy strategy, Consumer<? super T> onOverflow) {
+            super(actual);
+            this.ring = ring;
+            this.strategy = strategy;
+            this.onOverflow = onOverflow;
+        }
+
+        @Override
+        protected void offer(T t) {
+            List<T> evicted = null;
+            T dropped = null;
+            boolean overflow = false;
+            synchronized (this) {
+                if (!ring.offer(t)) {
+                    switch (strategy) {
+                        case DROP_OLDEST:
+                            evicted = new ArrayList<>();
+                            while (!ring.isEmpty() && !ring.offer(t)) {
+                                evicted.add(ring.poll());
+                            }
+                            if (ring.isEmpty() && !ring.offer(t)) {
+                                dropped = t; // 버퍼 전체보다 큰 데이터
+                            }
+                            break;
+                        case DROP_LATEST:
+                            dropped = t;
+                            break;
+                        default:
+                            dropped = t;
+                            overflow = true;
+                            break;
+                    }
+                }
+            }
+            // 콜백은 lock 밖에서 호출함.
+            if (evicted != null) {
+                for (T oldest : evicted) {
+                    onOverflow.accept(oldest);
+                    Operators.onDiscard(oldest, currentContext());
+                }
+            }
+            if (dropped != null) {
+                onOverflow.accept(dropped);
+                Operators.onDiscard(dropped, currentContext());
+            }
+            if (overflow) {
+                upstream.cancel();
+                onError(Exceptions.failWithOverflow(Exceptions.BACKPRESSURE_ERROR_QUEUE_FULL));
+            }
+        }
+
+        @Override
+        protected synchronized T poll() {
+            return ring.poll();
+        }
+
+        @Override
+        protected synchronized boolean isEmpty() {
+            return ring.isEmpty();
+        }
+
+        @Override
+        protected synchronized void clear() {
+            ring.clear();
+        }
+    }
+
+    /**
+     * direct ByteBuffer 로 만든 가변 길이 record 의 ring buffer. 동기화는 호출하는 쪽에서 함.
+     * <p>
+     *     record 가 buffer 끝에 이어서 들어가지 않으면 그 위치(wrapEnd)를 기억해 두고 앞쪽으로 돌아가서 씀.
+     *     읽는 쪽이 wrapEnd 에 도달하면 다시 앞쪽부터 읽음.
+     * </p>
+     */
+    static final class ByteRing<T> {
+        private final ByteBuffer buffer;
+        private final int capacity;
+        private final ElementCodec<T> codec;
+        private int head;
+        private int tail;
+        private int wrapEnd;
+        private boolean wrapped;
+        private int count;
+
+        ByteRing(int capacity, ElementCodec<T> codec) {
+            this.buffer = ByteBuffer.allocateDirect(capacity);
+            this.capacity = capacity;
+            this.codec = codec;
+        }
+
+        boolean offer(T value) {
+            int size = codec.encodedSize(value);
+            int recordSize = Integer.BYTES + size;
+            int position;
+            if (wrapped) {
+                // 데이터는 [head, wrapEnd) 와 [0, tail) 에 있음.
+                if (head - tail < recordSize) {
+                    return false;
+                }
+                position = tail;
+            } else if (capacity - tail >= recordSize) {
+                // 데이터는 [head, tail) 에 있음.
+                position = tail;
+            } else if (head >= recordSize) {
+                wrapEnd = tail;
+                wrapped = true;
+                position = 0;
+            } else {
+                return false;
+            }
+            buffer.putInt(position, size);
+            codec.encode(value, buffer.slice(position + Integer.BYTES, size));
+            tail = position + recordSize;
+            count++;
+            return true;
+        }
+
+        T poll() {
+            if (count == 0) {
+                return null;
+            }
+            int size = buffer.getInt(head);
+            T value = codec.decode(buffer.slice(head + Integer.BYTES, size));
+            head += Integer.BYTES + size;
+            if (--count == 0) {
+                clear();
+            } else if (wrapped && head == wrapEnd) {
+                head = 0;
+                wrapped = false;
+            }
+            return value;
+        }
+
+        boolean isEmpty() {
+            return count == 0;
+        }
+
+        int size() {
+            return count;
+        }
+
+        void clear() {
+            head = 0;
+            tail = 0;
+            wrapped = false;
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.webflux.study.backpressure;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * <h2>여러 Operator 체인이 함께 쓰는 token bucket</h2>
+ * <p>
+ *     초당 permitsPerSecond 개의 token 이 채워지고 최대 burst 개까지 쌓이는 token bucket 으로, GCRA(Generic Cell Rate Algorithm) 방식을 사용함.<br>
+ *     token 수를 따로 세지 않고 "다음 token 이 생기는 이론상의 시각(tat)" 하나만 AtomicLong 에 두고 CAS 로 갱신하므로,
+ *     token 을 채우는 타이머도 lock 도 필요 없음.
+ * </p>
+ * <p>
+ *     {@link #limit()} 으로 만든 Operator 는 Downstream 의 request(n) 을 지금 남아 있는 token 수만큼만 Upstream 에 전달하고,
+ *     token 은 요청할 때가 아니라 데이터가 실제로 emit 될 때 가져감.
+ *     아직 도착하지 않은 요청(in-flight)도 남은 token 에서 빼고 계산하므로, Upstream 이 한동안 emit 하지 않다가 몰아서 emit 해도 burst 를 넘지 않음.<br>
+ *     token 이 모자라면 한 번에 여러 개를 받을 수 있는 시각에 한 번만 다시 시도하므로, 데이터마다 타이머를 예약하지 않음.<br>
+ *     같은 TokenBucket 으로 만든 Operator 들은 token 을 나눠 쓰므로, 여러 체인을 합친 속도가 permitsPerSecond 로 제한되고,
+ *     emit 하지 않고 있는 체인이 token 을 미리 가져가 다른 체인을 굶기지 않음.
+ * </p>
+ * <p>
+ *     Flux.interval() 처럼 요청과 상관없이 emit 하는 Publisher 는 속도를 늦출 수 없으므로,
+ *     onBackpressureDrop() 이나 onBackpressureLatest() 다음에 사용해야 함.
+ * </p>
+ */
+public class TokenBucket {
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final int burst;
+    private final Scheduler scheduler;
+    /** theoretical arrival time: 다음 token 이 생기는 이론상의 시각 */
+    private final AtomicLong tat;
+    private final LongAdder granted = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, Schedulers.parallel());
+    }
+
+    /**
+     * @param scheduler 현재 시각을 구하고 token 이 모자랄 때 다시 시도할 타이머를 예약함. 테스트에서는 VirtualTimeScheduler 를 넘길 수 있음.
+     */
+    public TokenBucket(double permitsPerSecond, int burst, Scheduler scheduler) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive and burst >= 1");
+        }
+        this.intervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burst = burst;
+        this.toleranceNanos = intervalNanos * burst;
+        this.scheduler = scheduler;
+        this.tat = new AtomicLong(now());
+    }
+
+    /**
+     * 지금 사용할 수 있는 token 을 최대 n 개까지 가져감.
+     *
+     * @return 가져간 token 수. 0 이면 token 이 없음.
+     */
+    public long tryAcquire(long n) {
+        for (;;) {
+            long now = now();
+            long current = tat.get();
+            long base = Math.max(current, now);
+            long available = (now + toleranceNanos - base) / intervalNanos;
+            long permits = Math.min(n, available);
+            if (permits <= 0) {
+                return 0;
+            }
+            if (tat.compareAndSet(current, base + permits * intervalNanos)) {
+                granted.add(permits);
+                return permits;
+            }
+        }
+    }
+
+    /**
+     * 지금 가져갈 수 있는 token 수. token 을 가져가지는 않음.
+     */
+    public long availablePermits() {
+        long now = now();
+        long base = Math.max(tat.get(), now);
+        return Math.max(0L, (now + toleranceNanos - base) / intervalNanos);
+    }
+
+    /**
+     * n 개의 token 을 한 번에 가져갈 수 있을 때까지 남은 시간. n 은 burst 를 넘을 수 없음.
+     */
+    public long nanosUntilAvailable(long n) {
+        long now = now();
+        long base = Math.max(tat.get(), now);
+        long permits = Math.min(n, burst);
+        return Math.max(0L, base + permits * intervalNanos - toleranceNanos - now);
+    }
+
+    /**
+     * 이 token bucket 을 사용하는 rate limit Operator.
+     */
+    public <T> Function<Flux<T>, Flux<T>> limit() {
+        return source -> source.transform(Operators.<T, T>lift((scannable, actual) -> new LimitSubscriber<>(actual, this)));
+    }
+
+    public long granted() {
+        return granted.sum();
+    }
+
+    /**
+     * token 이 모자라서 Upstream 요청을 미루고 타이머를 예약한 횟수.
+     */
+    public long throttled() {
+        return throttled.sum();
+    }
+
+    /**
+     * 이미 emit 된 데이터 하나만큼 token 을 가져감. 다른 체인과 동시에 가져가 token 이 모자라면 빚으로 남겨 다음 token 이 그만큼 늦게 생김.
+     */
+    private void consume() {
+        long now = now();
+        tat.getAndUpdate(current -> Math.max(current, now) + intervalNanos);
+        granted.increment();
+    }
+
+    private long now() {
+        return scheduler.now(TimeUnit.NANOSECONDS);
+    }
+
+    static final class LimitSubscriber<T> implements CoreSubscriber<T>, Subscription {
+        private final CoreSubscriber<? super T> actual;
+        private final TokenBucket bucket;
+        /** Downstream 이 요청했지만 아직 Upstream 에 전달하지 못한 개수 */
+        private final AtomicLong unrequested = new AtomicLong();
+        /** Upstream 에 요청했지만 아직 도착하지 않은 개수 */
+        private final AtomicLong inFlight = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicBoolean timerPending = new AtomicBoolean();
+
+        private Subscription upstream;
+        private volatile boolean cancelled;
+        private volatile boolean done;
+        private volatile Disposable timer;
+
+        LimitSubscriber(CoreSubscriber<? super T> actual, TokenBucket bucket) {
+            this.actual = actual;
+            this.bucket = bucket;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.validate(upstream, s)) {
+                upstream = s;
+                actual.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onNext(T t) {
+            bucket.consume();
+            inFlight.decrementAndGet();
+            actual.onNext(t); // Upstream 에는 남은 token 수만큼만 요청했으므로 그대로 전달함.
+            if (unrequested.get() > 0) {
+                drain();
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            done = true;
+            disposeTimer();
+            actual.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            disposeTimer();
+            actual.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                unrequested.getAndUpdate(r -> Operators.addCap(r, n));
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            disposeTimer();
+            upstream.cancel();
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                long pending = unrequested.get();
+                while (pending > 0 && !cancelled && !done) {
+                    long outstanding = inFlight.get();
+                    long permits = Math.min(pending, bucket.availablePermits() - outstanding);
+                    if (permits <= 0) {
+                        // 도착할 데이터가 남아 있으면 onNext 에서 다시 drain 하므로, 모두 도착했을 때만 타이머를 예약함.
+                        if (outstanding == 0) {
+                            scheduleRetry(pending);
+                        }
+                        break;
+                    }
+                    if (pending != Long.MAX_VALUE) {
+                        pending = unrequested.addAndGet(-permits);
+                    }
+                    inFlight.addAndGet(permits);
+                    upstream.request(permits);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        private void scheduleRetry(long pending) {
+            if (!timerPending.compareAndSet(false, true)) {
+                return;
+            }
+            bucket.throttled.increment();
+            // token 하나가 생길 때마다 깨어나지 않도록, 남은 요청과 burst 의 절반 중 작은 개수가 모일 때까지 기다림.
+            long batch = Math.max(1L, Math.min(pending, bucket.burst / 2));
+            long delayNanos = Math.max(1L, bucket.nanosUntilAvailable(batch));
+            timer = bucket.scheduler.schedule(() -> {
+                timerPending.set(false);
+                drain();
+            }, delayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private void disposeTimer() {
+            Disposable current = timer;
+            if (current != null) {
+                current.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.webflux.study.backpressure.strategy;
+
+import com.webflux.study.backpressure.AdaptiveOverflow;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+/**
+ * <h2>Adaptive 전략</h2>
+ * Unbounded request 일 경우, Downstream 에 {@link AdaptiveOverflow} 전략을 적용하는 예제
+ * <br>
+ *  - Downstream 이 잠깐 밀릴 때는 {@link BufferDropOldest} 처럼 버퍼에 담고, 계속 밀리면 샘플링하다가 {@link Drop} 처럼 버림.
+ */
+@Slf4j
+public class Adaptive {
+    /**
+     * <h3>실행 결과</h3>
+     * 1ms 마다 데이터가 emit 되고, Subscriber 는 200 ~ 1200번째 데이터를 처리하는 동안만 데이터 하나에 5ms 가 걸림.<br>
+     * Subscriber 가 느려지면 버퍼(64개)가 차면서 BUFFER -> SAMPLE -> DROP 으로 단계가 올라가고,
+     * DROP 단계에서 버퍼가 비면 다시 내려왔다가 여전히 밀리면 또 올라가므로, 느린 구간 동안 단계가 몇 번 오르내리고,
+     * Subscriber 가 다시 빨라진 뒤에는 BUFFER 단계로 유지됨.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        AdaptiveOverflow<Long> adaptiveOverflow = new AdaptiveOverflow<Long>(64, Duration.ofMillis(100L), 4)
+                .doOnTransition((from, to) -> log.info("** {} -> {} **", from, to));
+
+        Flux
+                .interval(Duration.ofMillis(1L), Schedulers.single()) // Subscriber 와 다른 스레드에서 emit 하도록 함.
+                .transform(adaptiveOverflow)
+                .publishOn(Schedulers.parallel(), 1)
+                .subscribe(data -> {
+                            if (data >= 200 && data < 1200) {
+                                try {
+                                    Thread.sleep(5L);
+                                } catch (InterruptedException e) {}
+                            }
+                            if (data % 250 == 0) {
+                                log.info("# onNext: {}", data);
+                            }
+                        },
+                        error -> log.error("# onError", error));
+
+        Thread.sleep(3000L);
+        log.info("# mode: {}, escalations: {}, deescalations: {}, shed by sample: {}, by drop: {}, by overflow: {}",
+                adaptiveOverflow.mode(), adaptiveOverflow.escalations(), adaptiveOverflow.deescalations(),
+                adaptiveOverflow.sampled(), adaptiveOverflow.dropped(), adaptiveOverflow.overflowed());
+    }
+}
@@ -0,0 +1,47 @@
+package com.webflux.study.backpressure.strategy;
+
+import com.webflux.study.backpressure.LatestByKey;
+import com.webflux.study.operator.CoinPrice;
+import com.webflux.study.operator.SampleData;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+/**
+ * <h2>Conflate 전략</h2>
+ * Unbounded request 일 경우, Downstream 에 {@link LatestByKey} 전략을 적용하는 예제
+ * <br>
+ *  - Downstream 이 데이터를 처리하는 동안 emit 된 가격은 코인별로 가장 최근 가격만 남겨서 하나의 Map 으로 합쳐짐.
+ *  {@link Latest} 전략과 달리 코인 하나의 가격 때문에 다른 코인의 가격이 폐기되지 않음.
+ */
+@Slf4j
+public class Conflate {
+    /**
+     * <h3>실행 결과</h3>
+     * 1ms 마다 코인 하나의 가격이 바뀌고 Subscriber 는 데이터 하나를 처리하는 데 100ms 가 걸리므로,
+     * 6개 코인의 최신 가격이 모두 담긴 Map 이 전달됨.<br>
+     * publishOn() 의 prefetch 가 1이라 Subscriber 가 처리 중일 때 다음 요청 1개가 바로 채워지므로, 크기가 1인 Map 과
+     * 전체 코인의 Map 이 번갈아 전달됨.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        Flux
+                .interval(Duration.ofMillis(1L))
+                .map(tick -> {
+                    String coinName = SampleData.coinNames.get((int) (tick % SampleData.coinNames.size()));
+                    return new CoinPrice(coinName, tick.intValue(), System.currentTimeMillis());
+                })
+                .transform(LatestByKey.conflate(CoinPrice::getCoinName, CoinPrice::getPrice))
+                .publishOn(Schedulers.parallel(), 1)
+                .subscribe(snapshot -> {
+                            try {
+                                Thread.sleep(100L);
+                            } catch (InterruptedException e) {}
+                            log.info("# onNext: {}", snapshot);
+                        },
+                        error -> log.error("# onError", error));
+
+        Thread.sleep(1000L);
+    }
+}
@@ -0,0 +1,119 @@
+package com.webflux.study.backpressure.strategy;
+
+import com.webflux.study.backpressure.OffHeapBuffer;
+import com.webflux.study.operator.CoinPrice;
+import com.webflux.study.sinks.CoinPriceCodec;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * <h2>heap 버퍼와 {@link OffHeapBuffer} 비교</h2>
+ * <p>
+ *     500만 개의 시세를 빠르게 emit 하고 Downstream 은 조금 느리게 처리해서, 버퍼(시세 100만 개 분량)가 가득 찬 상태로 DROP_OLDEST 가 계속 일어나게 함.<br>
+ *     처리 시간, 전달된 데이터 수, 최대 heap 사용량, GC 횟수와 시간을 비교함.
+ * </p>
+ */
+@Slf4j
+public class OffHeapBufferBenchmark {
+    private static final int TICKS = 5_000_000;
+    private static final int BUFFERED_TICKS = 1_000_000;
+    /** "BTC" 시세 하나는 길이 4 byte + 데이터 16 byte */
+    private static final int RECORD_BYTES = 20;
+
+    /**
+     * <h3>실행 결과</h3>
+     * <p>
+     *     heap 버퍼는 버퍼에 담긴 100만 개의 CoinPrice 객체가 오래 살아남아서 old 영역으로 옮겨지므로 최대 heap 사용량과 GC 시간이 커짐.<br>
+     *     OffHeapBuffer 는 같은 양을 20MB 의 direct buffer 에 담으므로 heap 에는 잠깐 쓰고 버리는 객체만 생김.
+     *     대신 데이터마다 직렬화/역직렬화 비용이 듦.
+     * </p>
+     */
+    public static void main(String[] args) {
+        Scheduler consumer = Schedulers.newSingle("consumer");
+        CoinPriceCodec codec = new CoinPriceCodec();
+
+        for (int round = 0; round < 2; round++) { // 첫 번째 round 는 JIT warm-up
+            measure("heap", round, consumer, flux -> flux.onBackpressureBuffer(BUFFERED_TICKS,
+                    dropped -> {}, BufferOverflowStrategy.DROP_OLDEST));
+            measure("off-heap", round, consumer, OffHeapBuffer.onBackpressureBuffer(BUFFERED_TICKS * RECORD_BYTES,
+                    codec, BufferOverflowStrategy.DROP_OLDEST));
+        }
+        consumer.dispose();
+    }
+
+    private static void measure(String name, int round, Scheduler consumer,
+                                Function<Flux<CoinPrice>, Flux<CoinPrice>> buffer) {
+        System.gc();
+        resetPeakHeap();
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTimeMillis();
+        LongAdder received = new LongAdder();
+        long start = System.nanoTime();
+
+        Flux.range(0, TICKS)
+                .map(i -> new CoinPrice("BTC", 100_000_000 + i, i))
+                .transform(buffer)
+                .publishOn(consumer)
+                .doOnNext(price -> {
+                    received.increment();
+                    spin(500);
+                })
+                .blockLast();
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("# round {} {}: {} ms, received: {}, peak heap: {} MB, gc: {} times / {} ms",
+                round, name, elapsedMillis, received.sum(), peakHeap() / (1024 * 1024),
+                gcCount() - gcCountBefore, gcTimeMillis() - gcTimeBefore);
+    }
+
+    private static void spin(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(gc.getCollectionCount(), 0);
+        }
+        return count;
+    }
+
+    private static long gcTimeMillis() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(gc.getCollectionTime(), 0);
+        }
+        return time;
+    }
+}
@@ -0,0 +1,72 @@
+package com.webflux.study.backpressure.strategy;
+
+import com.webflux.study.backpressure.TokenBucket;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <h2>Rate Limit 전략</h2>
+ * 버리는 것만으로 속도 차이를 해결하는 {@link Drop}, {@link BufferDropOldest} 와 달리,
+ * {@link TokenBucket} 으로 Upstream 에 요청하는 속도 자체를 제한하는 예제
+ * <br>
+ *  - 하나의 TokenBucket 을 여러 체인이 함께 쓰면, 체인들을 합친 속도가 제한됨.
+ */
+@Slf4j
+public class RateLimit {
+    public static void main(String[] args) throws InterruptedException {
+        example1();
+        log.info("==========================================");
+        example2();
+    }
+
+    /**
+     * <h3>실행 결과</h3>
+     * Flux.range() 는 요청한 만큼만 emit 하므로, 처음 burst(5개)는 바로 전달되고 이후에는 초당 10개 속도로 전달됨.
+     */
+    private static void example1() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(10, 5);
+
+        Flux
+                .range(1, 20)
+                .transform(bucket.limit())
+                .subscribe(data -> log.info("# onNext: {}", data));
+
+        Thread.sleep(2000L);
+        log.info("# granted: {}, throttled: {}", bucket.granted(), bucket.throttled());
+    }
+
+    /**
+     * <h3>실행 결과</h3>
+     * 1ms 마다 emit 하는 두 개의 Flux.interval() 이 하나의 TokenBucket(초당 50개) 을 함께 씀.<br>
+     * interval 은 요청이 없어도 emit 하므로 onBackpressureDrop() 으로 요청하지 않은 데이터를 버리고,
+     * 두 체인이 3초 동안 전달한 데이터를 합치면 burst 10개에 초당 50개씩 더한 약 160개로 제한됨.
+     */
+    private static void example2() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(50, 10);
+        AtomicLong droppedA = new AtomicLong();
+        AtomicLong droppedB = new AtomicLong();
+        AtomicLong receivedA = new AtomicLong();
+        AtomicLong receivedB = new AtomicLong();
+
+        Flux
+                .interval(Duration.ofMillis(1L), Schedulers.single())
+                .onBackpressureDrop(dropped -> droppedA.incrementAndGet())
+                .transform(bucket.limit())
+                .subscribe(data -> receivedA.incrementAndGet());
+
+        Flux
+                .interval(Duration.ofMillis(1L), Schedulers.single())
+                .onBackpressureDrop(dropped -> droppedB.incrementAndGet())
+                .transform(bucket.limit())
+                .subscribe(data -> receivedB.incrementAndGet());
+
+        Thread.sleep(3000L);
+        log.info("# A received: {}, dropped: {}", receivedA.get(), droppedA.get());
+        log.info("# B received: {}, dropped: {}", receivedB.get(), droppedB.get());
+        log.info("# granted: {}, throttled: {}", bucket.granted(), bucket.throttled());
+    }
+}
@@ -0,0 +1,14 @@
+package com.webflux.study.operator;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class CoinPrice {
+    private String coinName;
+    private int price;
+    private long timestamp;
+}
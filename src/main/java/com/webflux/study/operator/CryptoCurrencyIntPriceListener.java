@@ -0,0 +1,13 @@
+package com.webflux.study.operator;
+
+/**
+ * {@link CryptoCurrencyPriceListener}의 primitive int 버전.
+ * <p>
+ *     가격 데이터를 List&lt;Integer&gt; 로 boxing 하지 않고 int[] 배열의 연속된 구간(offset, length)으로 전달받음.<br>
+ *     전달된 배열은 Emitter가 재사용할 수 있으므로 onPrice() 호출이 끝난 뒤에도 값이 필요하다면 복사해서 사용해야 함.
+ * </p>
+ */
+public interface CryptoCurrencyIntPriceListener {
+    void onPrice(int[] prices, int offset, int length);
+    void onComplete();
+}
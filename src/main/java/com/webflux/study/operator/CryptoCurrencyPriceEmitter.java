@@ -1,17 +1,213 @@
 package com.webflux.study.operator;
 
+import reactor.core.Disposable;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <h2>암호 화폐 가격 변동을 Listener 에게 전달하는 Emitter</h2>
+ * <p>
+ *     Listener 는 CopyOnWriteArrayList 로 관리되므로 emit 중에도 여러 스레드에서 안전하게 등록/해제할 수 있음.
+ * </p>
+ * <p>
+ *     Listener 마다 전용 전달 큐(Lane)가 있고, 각 Lane 은 생성자로 전달받은 Scheduler 의 Worker 에서 순서대로 비워짐.<br>
+ *     따라서 하나의 Listener 안에서는 전달 순서가 보장되고, emit 하는 스레드는 느린 Listener 를 기다리지 않음.<br>
+ *     다만 Listener 끼리 서로 막지 않는 것은 Lane 들이 서로 다른 스레드의 Worker 를 받았을 때뿐임.
+ *     Schedulers.parallel() 처럼 스레드 수가 정해진 Scheduler 에 Listener 를 스레드 수보다 많이 등록하면 여러 Lane 이 한 스레드를 나눠 쓰므로,
+ *     느린 Listener 가 같은 스레드의 다른 Listener 전달을 늦춤. Listener 끼리도 완전히 분리하려면 Schedulers.boundedElastic() 처럼
+ *     Worker 마다 스레드를 따로 주는 Scheduler 를 사용해야 함.<br>
+ *     느린 Listener 의 Lane 은 따라잡을 때까지 계속 쌓이므로 Listener 쪽에서 적절한 Backpressure 전략을 사용해야 함.
+ * </p>
+ * <p>
+ *     Listener 가 예외를 던지면 Hooks.onErrorDropped 로 넘기고, 그 Listener 와 다른 Listener 에게 계속 전달함.
+ * </p>
+ * <p>
+ *     기본 생성자는 Schedulers.immediate()를 사용하므로 기존처럼 flowInto()를 호출한 스레드에서 바로 전달됨.
+ * </p>
+ */
 public class CryptoCurrencyPriceEmitter {
-    private CryptoCurrencyPriceListener listener;
+    private final Scheduler scheduler;
+    private final boolean async;
+    private final CopyOnWriteArrayList<Lane> lanes = new CopyOnWriteArrayList<>();
+
+    private volatile Disposable listenerRegistration;
+    private volatile Disposable intListenerRegistration;
+
+    public CryptoCurrencyPriceEmitter() {
+        this(Schedulers.immediate());
+    }
+
+    public CryptoCurrencyPriceEmitter(Scheduler scheduler) {
+        this.scheduler = scheduler;
+        this.async = scheduler != Schedulers.immediate();
+    }
+
+    /**
+     * setListener()로 등록했던 이전 Listener 를 해제하고 새 Listener 로 교체함.
+     */
+    public synchronized void setListener(CryptoCurrencyPriceListener listener) {
+        if (listenerRegistration != null) {
+            listenerRegistration.dispose();
+        }
+        listenerRegistration = addListener(listener);
+    }
+
+    /**
+     * setIntListener()로 등록했던 이전 Listener 를 해제하고 새 Listener 로 교체함.
+     */
+    public synchronized void setIntListener(CryptoCurrencyIntPriceListener intListener) {
+        if (intListenerRegistration != null) {
+            intListenerRegistration.dispose();
+        }
+        intListenerRegistration = addIntListener(intListener);
+    }
+
+    /**
+     * @return dispose()를 호출하면 Listener 가 해제됨.
+     */
+    public Disposable addListener(CryptoCurrencyPriceListener listener) {
+        return register(new Lane(listener, null, scheduler.createWorker()));
+    }
+
+    public Disposable addIntListener(CryptoCurrencyIntPriceListener intListener) {
+        return register(new Lane(null, intListener, scheduler.createWorker()));
+    }
 
-    public void setListener(CryptoCurrencyPriceListener listener) {
-        this.listener = listener;
+    public int listenerCount() {
+        return lanes.size();
     }
 
     public void flowInto() {
-        listener.onPrice(SampleData.btcPrices);
+        flowInto(SampleData.btcPrices);
+        flowInto(SampleData.btcPriceArray, 0, SampleData.btcPriceArray.length);
+    }
+
+    public void flowInto(List<Integer> priceList) {
+        for (Lane lane : lanes) {
+            if (lane.listener != null) {
+                lane.enqueue(() -> lane.listener.onPrice(priceList));
+            }
+        }
+    }
+
+    /**
+     * 외부 시세 피드에서 받은 int[] 가격 배열의 일부 구간을 boxing 없이 그대로 흘려보냄.
+     * <p>
+     *     비동기로 전달하는 경우, 호출한 쪽이 배열을 재사용할 수 있으므로 구간을 한 번만 복사해서 모든 Listener 가 공유함.
+     *     Listener 는 전달받은 배열을 수정하면 안 됨.
+     * </p>
+     */
+    public void flowInto(int[] prices, int offset, int length) {
+        int[] shared = prices;
+        int sharedOffset = offset;
+        if (async) {
+            shared = Arrays.copyOfRange(prices, offset, offset + length);
+            sharedOffset = 0;
+        }
+        final int[] chunk = shared;
+        final int chunkOffset = sharedOffset;
+        for (Lane lane : lanes) {
+            if (lane.intListener != null) {
+                lane.enqueue(() -> lane.intListener.onPrice(chunk, chunkOffset, length));
+            }
+        }
     }
 
     public void complete() {
-        listener.onComplete();
+        for (Lane lane : lanes) {
+            lane.enqueue(() -> {
+                if (lane.listener != null) {
+                    lane.listener.onComplete();
+                } else {
+                    lane.intListener.onComplete();
+                }
+            });
+        }
+    }
+
+    private Disposable register(Lane lane) {
+        lanes.add(lane);
+        return () -> {
+            if (lanes.remove(lane)) {
+                lane.cancel();
+            }
+        };
+    }
+
+    /**
+     * Listener 하나에 대한 전달 큐. 여러 스레드가 enqueue 해도 drain 은 한 번에 하나의 Worker 작업에서만 실행됨.
+     */
+    private static class Lane {
+        private final CryptoCurrencyPriceListener listener;
+        private final CryptoCurrencyIntPriceListener intListener;
+        private final Scheduler.Worker worker;
+        private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+
+        private Lane(CryptoCurrencyPriceListener listener,
+                     CryptoCurrencyIntPriceListener intListener,
+                     Scheduler.Worker worker) {
+            this.listener = listener;
+            this.intListener = intListener;
+            this.worker = worker;
+        }
+
+        private void enqueue(Runnable event) {
+            if (cancelled) {
+                return;
+            }
+            queue.offer(event);
+            schedule();
+        }
+
+        /**
+         * flowInto() 가 아직 이전 Lane 목록으로 enqueue 하고 있을 수 있으므로 Worker 를 여기서 바로 dispose 하지 않고,
+         * drain 에서 dispose 함. drain 은 wip 를 0 으로 되돌리지 않으므로 이후의 enqueue 는 Worker 에 작업을 예약하지 않음.
+         */
+        private void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                worker.schedule(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                Runnable event;
+                while ((event = queue.poll()) != null) {
+                    if (cancelled) {
+                        break;
+                    }
+                    try {
+                        event.run();
+                    } catch (Throwable e) {
+                        // 예외가 drain 밖으로 나가면 wip 가 줄지 않아서 이 Lane 이 멈추고,
+                        // immediate 에서는 다른 Listener 에게 전달하던 flowInto() 루프까지 끊기므로 알리기만 하고 계속 전달함.
+                        Operators.onErrorDropped(e, Context.empty());
+                    }
+                }
+                if (cancelled) {
+                    queue.clear();
+                    worker.dispose();
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
     }
 }
@@ -0,0 +1,43 @@
+package com.webflux.study.operator;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.Arrays;
+
+/**
+ * <h2>CryptoCurrencyIntPriceListener 를 Flux 로 연결하는 어댑터</h2>
+ * <p>
+ *     가격 하나마다 sink.next() 를 호출하는 대신, Listener 로 전달된 int[] 구간을 하나의 chunk 로 복사해서 한 번에 emit 함.<br>
+ *     가격마다 Integer 객체를 만들지 않으므로 할당은 chunk 당 배열 하나로 줄어들고, onNext Signal 횟수도 chunk 수만큼으로 줄어듦.
+ * </p>
+ */
+public class CryptoCurrencyPriceFlux {
+
+    private CryptoCurrencyPriceFlux() {
+    }
+
+    public static Flux<int[]> chunks(CryptoCurrencyPriceEmitter priceEmitter) {
+        return chunks(priceEmitter, FluxSink.OverflowStrategy.BUFFER);
+    }
+
+    public static Flux<int[]> chunks(CryptoCurrencyPriceEmitter priceEmitter,
+                                     FluxSink.OverflowStrategy overflowStrategy) {
+        return Flux.create((FluxSink<int[]> sink) -> {
+            Disposable registration = priceEmitter.addIntListener(new CryptoCurrencyIntPriceListener() {
+                @Override
+                public void onPrice(int[] prices, int offset, int length) {
+                    // Emitter 가 배열을 재사용할 수 있으므로 chunk 단위로 한 번만 복사함.
+                    sink.next(Arrays.copyOfRange(prices, offset, offset + length));
+                }
+
+                @Override
+                public void onComplete() {
+                    sink.complete();
+                }
+            });
+            sink.onDispose(registration); // 구독이 끝나면 Emitter 에서 Listener 를 해제함.
+        }, overflowStrategy);
+    }
+}
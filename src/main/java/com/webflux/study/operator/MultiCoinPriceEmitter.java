@@ -0,0 +1,172 @@
+package com.webflux.study.operator;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.function.Tuple2;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <h2>여러 코인의 가격을 Shard 단위 Sinks.Many 로 나눠서 emit 하는 Emitter</h2>
+ * <p>
+ *     {@link CryptoCurrencyPriceEmitter} 는 Listener 하나와 BTC 가격만 다루지만, 이 Emitter 는 {@link SampleData#coinNames}의
+ *     모든 코인을 다룸.<br>
+ *     코인마다 Shard 를 정하고 Shard 마다 별도의 multicast Sinks.Many 를 두기 때문에, multicast 가 가장 느린 Subscriber 의
+ *     속도에 맞춰 emit 되더라도 그 영향은 같은 Shard 안에서만 전파됨.
+ * </p>
+ * <p>
+ *     코인은 등록된 순서대로 Shard 에 round robin 으로 배정됨. 기본 Shard 개수는 CPU 코어 수와 코인 개수 중 큰 값이므로 코인마다
+ *     Shard 가 하나씩 할당됨. Sinks 는 스레드를 점유하지 않기 때문에 Shard 가 코어 수보다 많아도 비용이 거의 없음.<br>
+ *     각 Shard 는 자신만의 버퍼(onBackpressureBuffer)를 가지며, 버퍼가 가득 차면 emit 을 기다리지 않고 해당 가격을 drop 한 뒤 카운트함.
+ * </p>
+ */
+public class MultiCoinPriceEmitter {
+    private static final int DEFAULT_BUFFER_SIZE = 256;
+
+    private final List<String> coinNames;
+    private final Shard[] shards;
+    private final Map<String, Shard> shardByCoin = new HashMap<>();
+
+    public MultiCoinPriceEmitter() {
+        this(SampleData.coinNames,
+                Math.max(Runtime.getRuntime().availableProcessors(), SampleData.coinNames.size()),
+                DEFAULT_BUFFER_SIZE);
+    }
+
+    public MultiCoinPriceEmitter(List<String> coinNames, int shardCount, int bufferSize) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shardCount must be positive: " + shardCount);
+        }
+        this.coinNames = Collections.unmodifiableList(new ArrayList<>(coinNames));
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, bufferSize);
+        }
+        for (int i = 0; i < this.coinNames.size(); i++) {
+            Shard shard = shards[i % shardCount];
+            shard.coinNames.add(this.coinNames.get(i));
+            shardByCoin.put(this.coinNames.get(i), shard);
+        }
+    }
+
+    /**
+     * 해당 코인의 가격만 emit 하는 Flux. 같은 Shard 의 다른 코인은 filter 로 걸러짐.
+     */
+    public Flux<CoinPrice> prices(String coinName) {
+        return shardOf(coinName).sink.asFlux()
+                .filter(coinPrice -> coinPrice.getCoinName().equals(coinName));
+    }
+
+    /**
+     * 모든 Shard 의 가격을 merge 한 Flux.
+     */
+    public Flux<CoinPrice> prices() {
+        List<Flux<CoinPrice>> sources = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            sources.add(shard.sink.asFlux());
+        }
+        return Flux.merge(sources);
+    }
+
+    /**
+     * @return Shard 버퍼가 가득 차서 drop 되었다면 false
+     */
+    public boolean emit(String coinName, int price) {
+        return emit(new CoinPrice(coinName, price, System.currentTimeMillis()));
+    }
+
+    /**
+     * @return Shard 버퍼가 가득 차서 drop 되었다면 false
+     */
+    public boolean emit(CoinPrice coinPrice) {
+        Shard shard = shardOf(coinPrice.getCoinName());
+        Sinks.EmitResult result;
+        synchronized (shard) { // 여러 Producer 가 같은 Shard 로 emit 하면 FAIL_NON_SERIALIZED 가 발생하므로 Shard 단위로 직렬화함.
+            result = shard.sink.tryEmitNext(coinPrice);
+        }
+        if (result.isSuccess()) {
+            shard.emitted.increment();
+            return true;
+        }
+        shard.dropped.increment();
+        return false;
+    }
+
+    /**
+     * 가격 변동 시뮬레이션. {@link SampleData#coins} 의 코인별 가격을 emit 함.
+     */
+    public void flowInto() {
+        for (Tuple2<String, Integer> coin : SampleData.coins) {
+            emit(coin.getT1(), coin.getT2());
+        }
+    }
+
+    public void complete() {
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                shard.sink.tryEmitComplete();
+            }
+        }
+    }
+
+    public List<String> getCoinNames() {
+        return coinNames;
+    }
+
+    public List<ShardStats> stats() {
+        List<ShardStats> stats = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            stats.add(shard.stats());
+        }
+        return stats;
+    }
+
+    private Shard shardOf(String coinName) {
+        Shard shard = shardByCoin.get(coinName);
+        if (shard == null) {
+            throw new IllegalArgumentException("unknown coin: " + coinName);
+        }
+        return shard;
+    }
+
+    private static class Shard {
+        private final int index;
+        private final List<String> coinNames = new ArrayList<>();
+        private final Sinks.Many<CoinPrice> sink;
+        private final LongAdder emitted = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final long startNanos = System.nanoTime();
+
+        private Shard(int index, int bufferSize) {
+            this.index = index;
+            this.sink = Sinks.many().multicast().onBackpressureBuffer(bufferSize, false);
+        }
+
+        private ShardStats stats() {
+            long emittedCount = emitted.sum();
+            double elapsedSeconds = Math.max(System.nanoTime() - startNanos, 1L) / 1_000_000_000.0;
+            return new ShardStats(index, List.copyOf(coinNames), emittedCount, dropped.sum(),
+                    emittedCount / elapsedSeconds, sink.currentSubscriberCount());
+        }
+    }
+
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static class ShardStats {
+        private final int shard;
+        private final List<String> coinNames;
+        private final long emitted;
+        private final long dropped;
+        private final double emittedPerSecond;
+        private final int subscribers;
+    }
+}
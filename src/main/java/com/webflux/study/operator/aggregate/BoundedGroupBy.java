@@ -0,0 +1,304 @@
+package com.webflux.study.operator.aggregate;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.GroupedFlux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * <h2>그룹 개수가 제한되는 groupBy()</h2>
+ * <p>
+ *     groupBy() 는 Upstream 이 끝날 때까지 GroupedFlux 를 모두 살려두기 때문에 무한 스트림에서는 그룹이 계속 늘어나고,
+ *     그룹 수가 flatMap() 의 concurrency 를 넘으면 새 그룹을 구독하지 못해 멈춤.
+ * </p>
+ * <ul>
+ *     <li>그룹이 maxGroups 개에 도달하면 가장 오래 사용되지 않은 그룹(LRU)을 complete 시키고 새 그룹을 만듦.</li>
+ *     <li>idleTimeout 동안 데이터가 없었던 그룹은 주기적으로 complete 시킴.</li>
+ *     <li>complete 된 그룹의 key 로 데이터가 다시 들어오면 같은 key 의 새 GroupedFlux 가 emit 됨.</li>
+ * </ul>
+ * <p>
+ *     그룹이 항상 maxGroups 개 이하로 유지되므로 flatMap(..., maxGroups) 로 모든 그룹을 동시에 구독할 수 있음.<br>
+ *     liveGroups(), evictions(), evictionRate() 로 현재 그룹 수와 제거 빈도를 확인할 수 있음.
+ * </p>
+ * <p>
+ *     Upstream 에는 prefetch 개만 요청하고, 그룹의 Subscriber 에게 데이터가 전달될 때마다 전달된 만큼 다시 요청함.
+ *     따라서 아직 전달되지 않은 데이터는 모든 그룹을 합쳐 prefetch 개를 넘지 않고, 그룹의 큐도 prefetch 크기로 제한됨.<br>
+ *     느린 그룹이 있으면 그 그룹이 따라잡을 때까지 Upstream 전체가 기다리므로, 구독하지 않고 버려 두는 그룹이 있으면 안 됨.
+ *     (groupBy() 와 같은 제약임.)
+ * </p>
+ * <p>
+ *     바깥 Flux 를 취소하면 살아 있는 그룹은 이미 받은 데이터를 마저 전달한 뒤 complete 됨.
+ * </p>
+ */
+public class BoundedGroupBy<T, K> {
+    private final Function<? super T, ? extends K> keyMapper;
+    private final int maxGroups;
+    private final int prefetch;
+    private final long idleTimeoutMillis;
+    private final Scheduler scheduler;
+
+    private final AtomicInteger liveGroups = new AtomicInteger();
+    private final LongAdder lruEvictions = new LongAdder();
+    private final LongAdder idleEvictions = new LongAdder();
+    private final long createdAt;
+
+    public BoundedGroupBy(Function<? super T, ? extends K> keyMapper, int maxGroups, Duration idleTimeout) {
+        this(keyMapper, maxGroups, idleTimeout, Schedulers.parallel());
+    }
+
+    public BoundedGroupBy(Function<? super T, ? extends K> keyMapper, int maxGroups, Duration idleTimeout,
+                          Scheduler scheduler) {
+        this(keyMapper, maxGroups, Queues.SMALL_BUFFER_SIZE, idleTimeout, scheduler);
+    }
+
+    /**
+     * @param prefetch Upstream 에 미리 요청해 두는 개수. 아직 그룹의 Subscriber 에게 전달되지 않은 데이터는 이 개수를 넘지 않음.
+     */
+    public BoundedGroupBy(Function<? super T, ? extends K> keyMapper, int maxGroups, int prefetch, Duration idleTimeout,
+                          Scheduler scheduler) {
+        if (maxGroups <= 0) {
+            throw new IllegalArgumentException("maxGroups must be positive: " + maxGroups);
+        }
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("prefetch must be positive: " + prefetch);
+        }
+        this.keyMapper = keyMapper;
+        this.maxGroups = maxGroups;
+        this.prefetch = prefetch;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        this.scheduler = scheduler;
+        this.createdAt = scheduler.now(TimeUnit.MILLISECONDS);
+    }
+
+    public Flux<GroupedFlux<K, T>> apply(Flux<T> source) {
+        return Flux.create(sink -> {
+            Groups groups = new Groups(sink);
+            Disposable sweeper = Flux.interval(Duration.ofMillis(Math.max(idleTimeoutMillis / 2, 1L)), scheduler)
+                    .subscribe(tick -> groups.evictIdle());
+            source.subscribe(groups);
+            sink.onDispose(() -> {
+                sweeper.dispose();
+                groups.dispose();
+                groups.completeAll(); // 바깥 Flux 가 취소되면 그룹의 Subscriber 가 기다리지 않도록 complete 시킴.
+            });
+        });
+    }
+
+    public int liveGroups() {
+        return liveGroups.get();
+    }
+
+    public long evictions() {
+        return lruEvictions.sum() + idleEvictions.sum();
+    }
+
+    public long lruEvictions() {
+        return lruEvictions.sum();
+    }
+
+    public long idleEvictions() {
+        return idleEvictions.sum();
+    }
+
+    /**
+     * 생성 이후 초당 그룹 제거 횟수.
+     */
+    public double evictionRate() {
+        long elapsed = Math.max(scheduler.now(TimeUnit.MILLISECONDS) - createdAt, 1L);
+        return evictions() * 1000.0 / elapsed;
+    }
+
+    /**
+     * 구독 하나의 그룹 상태. Upstream 의 onNext 와 idle sweep 이 서로 다른 스레드에서 실행되므로 모든 변경은 this 로 동기화함.
+     * <p>
+     *     그룹에 데이터를 emit 하면 그 자리에서 그룹의 Subscriber 가 실행되고, replenish() 로 Upstream 에 다시 요청하면서
+     *     onNext() 가 재진입할 수 있음. 그래서 groups 를 순회하는 중에는 그룹을 complete 하지 않고, 먼저 꺼낸 뒤에 complete 함.
+     * </p>
+     */
+    private final class Groups extends BaseSubscriber<T> {
+        private final FluxSink<GroupedFlux<K, T>> sink;
+        private final LinkedHashMap<K, Group> groups = new LinkedHashMap<>(16, 0.75f, true); // access order = LRU 순서
+        private final int limit = prefetch - (prefetch >> 2);
+        /** 그룹의 Subscriber 에게 전달됐지만 아직 Upstream 에 다시 요청하지 않은 개수 */
+        private final AtomicLong delivered = new AtomicLong();
+        private boolean done;
+
+        private Groups(FluxSink<GroupedFlux<K, T>> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            subscription.request(prefetch);
+        }
+
+        @Override
+        protected synchronized void hookOnNext(T t) {
+            if (done) {
+                return;
+            }
+            K key = keyMapper.apply(t);
+            long now = scheduler.now(TimeUnit.MILLISECONDS);
+            Group group = groups.get(key);
+            if (group == null) {
+                if (groups.size() >= maxGroups) {
+                    evictEldest();
+                }
+                group = new Group(key, this);
+                groups.put(key, group);
+                liveGroups.incrementAndGet();
+                sink.next(group);
+            }
+            group.lastAccess = now;
+            Sinks.EmitResult result = group.emit(t);
+            if (result == Sinks.EmitResult.FAIL_CANCELLED) {
+                // 그룹을 구독하던 쪽이 취소했다면 그룹을 버리고, 다음 데이터에서 새 그룹을 만듦.
+                if (groups.remove(key) == group) {
+                    liveGroups.decrementAndGet();
+                }
+                replenish(1);
+            } else if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                // 전달되지 않은 데이터는 prefetch 개를 넘지 않으므로 Upstream 이 요청보다 많이 emit 했을 때만 발생함.
+                cancel();
+                hookOnError(Exceptions.failWithOverflow());
+            }
+        }
+
+        private void replenish(long n) {
+            if (delivered.addAndGet(n) >= limit) {
+                request(delivered.getAndSet(0));
+            }
+        }
+
+        private void evictIdle() {
+            List<Group> evicted = new ArrayList<>();
+            synchronized (this) {
+                long deadline = scheduler.now(TimeUnit.MILLISECONDS) - idleTimeoutMillis;
+                Iterator<Group> iterator = groups.values().iterator();
+                while (iterator.hasNext()) {
+                    Group group = iterator.next();
+                    if (group.lastAccess > deadline) {
+                        break; // access order 이므로 이후의 그룹은 모두 더 최근에 사용됨.
+                    }
+                    iterator.remove();
+                    evicted.add(group);
+                    idleEvictions.increment();
+                }
+                for (Group group : evicted) {
+                    complete(group);
+                }
+            }
+        }
+
+        private void evictEldest() {
+            Iterator<Map.Entry<K, Group>> iterator = groups.entrySet().iterator();
+            Group eldest = iterator.next().getValue();
+            iterator.remove();
+            complete(eldest);
+            lruEvictions.increment();
+        }
+
+        private void complete(Group group) {
+            liveGroups.decrementAndGet();
+            group.sink.tryEmitComplete();
+        }
+
+        private List<Group> removeAll() {
+            done = true;
+            List<Group> removed = new ArrayList<>(groups.values());
+            groups.clear();
+            return removed;
+        }
+
+        @Override
+        protected synchronized void hookOnError(Throwable e) {
+            if (done) {
+                return;
+            }
+            for (Group group : removeAll()) {
+                liveGroups.decrementAndGet();
+                group.sink.tryEmitError(e);
+            }
+            sink.error(e);
+        }
+
+        @Override
+        protected synchronized void hookOnComplete() {
+            if (done) {
+                return;
+            }
+            for (Group group : removeAll()) {
+                complete(group);
+            }
+            sink.complete();
+        }
+
+        private synchronized void completeAll() {
+            for (Group group : removeAll()) {
+                complete(group);
+            }
+        }
+    }
+
+    /**
+     * prefetch 크기의 큐를 가진 그룹. 그룹의 Subscriber 에게 데이터가 전달되면 그만큼 Upstream 에 다시 요청함.
+     */
+    private final class Group extends GroupedFlux<K, T> {
+        private final K key;
+        private final Groups parent;
+        private final Sinks.Many<T> sink = Sinks.many().unicast().onBackpressureBuffer(Queues.<T>get(prefetch).get());
+        /** 그룹 큐에 들어 있어 아직 전달되지 않은 개수. 취소되면 이만큼 Upstream 에 다시 요청함. */
+        private final AtomicLong queued = new AtomicLong();
+        private long lastAccess;
+
+        private Group(K key, Groups parent) {
+            this.key = key;
+            this.parent = parent;
+        }
+
+        private Sinks.EmitResult emit(T t) {
+            queued.incrementAndGet();
+            Sinks.EmitResult result = sink.tryEmitNext(t);
+            if (result.isFailure()) {
+                queued.decrementAndGet();
+            }
+            return result;
+        }
+
+        @Override
+        public K key() {
+            return key;
+        }
+
+        @Override
+        public void subscribe(CoreSubscriber<? super T> actual) {
+            sink.asFlux()
+                    .doOnNext(t -> {
+                        queued.decrementAndGet();
+                        parent.replenish(1);
+                    })
+                    .doOnCancel(() -> parent.replenish(queued.getAndSet(0)))
+                    .subscribe(actual);
+        }
+    }
+}
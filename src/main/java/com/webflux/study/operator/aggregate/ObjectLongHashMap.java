@@ -0,0 +1,120 @@
+package com.webflux.study.operator.aggregate;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * 값을 primitive long 으로 보관하는 open addressing(linear probing) 해시 맵.
+ * <p>
+ *     HashMap&lt;K, Long&gt; 처럼 항목마다 Entry 와 Long 객체를 만들지 않고 key 배열과 long 배열 두 개만 사용함.<br>
+ *     삭제는 지원하지 않으며 thread-safe 하지 않음.
+ * </p>
+ */
+public class ObjectLongHashMap<K> {
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private Object[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    public ObjectLongHashMap() {
+        this(16);
+    }
+
+    public ObjectLongHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max((int) (expectedSize / LOAD_FACTOR), 2) - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * key 의 값에 delta 를 더함. key 가 없으면 0 에서 시작함.
+     *
+     * @return 더한 뒤의 값
+     */
+    public long addTo(K key, long delta) {
+        int index = indexOf(key);
+        if (keys[index] == null) {
+            keys[index] = key;
+            values[index] = delta;
+            if (++size > resizeThreshold) {
+                rehash(keys.length << 1);
+            }
+            return delta;
+        }
+        return values[index] += delta;
+    }
+
+    public long get(K key) {
+        int index = indexOf(key);
+        return keys[index] == null ? 0L : values[index];
+    }
+
+    public boolean containsKey(K key) {
+        return keys[indexOf(key)] != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(ObjLongConsumer<? super K> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept((K) keys[i], values[i]);
+            }
+        }
+    }
+
+    public Map<K, Long> toMap() {
+        Map<K, Long> map = new LinkedHashMap<>(size * 2);
+        forEach(map::put);
+        return map;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, null);
+        size = 0;
+    }
+
+    private int indexOf(Object key) {
+        if (key == null) {
+            throw new NullPointerException("key");
+        }
+        int index = mix(key.hashCode()) & mask;
+        Object candidate;
+        while ((candidate = keys[index]) != null && !candidate.equals(key)) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void rehash(int newCapacity) {
+        Object[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9; // hashCode 의 하위 비트가 고르지 않아도 골고루 퍼지도록 섞음.
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,85 @@
+package com.webflux.study.operator.aggregate;
+
+import com.webflux.study.operator.Book;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <h2>저자별 인세 합계를 한 번의 순회로 집계</h2>
+ * <p>
+ *     groupBy() 는 저자마다 GroupedFlux 와 내부 Operator 체인을 만들기 때문에 저자가 수십만 명이면 구독과 큐가 그만큼 생김.<br>
+ *     이 집계기는 도서 하나가 들어올 때마다 {@link ObjectLongHashMap} 의 해당 저자 값에 인세(가격 x 재고 수량 x 0.1)를 더하기만 함.
+ * </p>
+ */
+public class RoyaltyAggregator {
+    private static final double ROYALTY_RATE = 0.1;
+
+    private final ObjectLongHashMap<String> royalties;
+
+    public RoyaltyAggregator() {
+        this(16);
+    }
+
+    public RoyaltyAggregator(int expectedAuthors) {
+        this.royalties = new ObjectLongHashMap<>(expectedAuthors);
+    }
+
+    /**
+     * Upstream 이 완료되면 저자별 총 인세를 emit 함.
+     */
+    public static Flux<Tuple2<String, Long>> totals(Flux<Book> books) {
+        return books
+                .collect(RoyaltyAggregator::new, RoyaltyAggregator::add)
+                .flatMapIterable(RoyaltyAggregator::toTuples);
+    }
+
+    /**
+     * period 마다 지금까지의 저자별 인세 스냅샷을 emit 하고, Upstream 이 완료되면 최종 스냅샷을 emit 함.
+     */
+    public static Flux<Map<String, Long>> snapshots(Flux<Book> books, Duration period) {
+        return Flux.defer(() -> {
+            RoyaltyAggregator aggregator = new RoyaltyAggregator();
+            Mono<Map<String, Long>> completion = books
+                    .doOnNext(aggregator::add)
+                    .then(Mono.fromCallable(aggregator::snapshot))
+                    .cache();
+            return Flux.interval(period)
+                    .map(tick -> aggregator.snapshot())
+                    .takeUntilOther(completion)
+                    .concatWith(completion);
+        });
+    }
+
+    public static long royalty(Book book) {
+        return royalty(book.getPrice(), book.getStockQuantity());
+    }
+
+    public static long royalty(int price, int stockQuantity) {
+        return (long) (price * (long) stockQuantity * ROYALTY_RATE);
+    }
+
+    public synchronized void add(Book book) {
+        royalties.addTo(book.getAuthorName(), royalty(book));
+    }
+
+    public synchronized long royaltyOf(String authorName) {
+        return royalties.get(authorName);
+    }
+
+    public synchronized Map<String, Long> snapshot() {
+        return royalties.toMap();
+    }
+
+    private synchronized List<Tuple2<String, Long>> toTuples() {
+        List<Tuple2<String, Long>> tuples = new ArrayList<>(royalties.size());
+        royalties.forEach((authorName, royalty) -> tuples.add(Tuples.of(authorName, royalty)));
+        return tuples;
+    }
+}
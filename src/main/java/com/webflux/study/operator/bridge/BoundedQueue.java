@@ -0,0 +1,30 @@
+package com.webflux.study.operator.bridge;
+
+/**
+ * 고정 크기 배열 기반의 lock-free 큐.
+ * <p>
+ *     offer() 는 큐가 가득 차면 기다리지 않고 false 를 리턴하며, poll() 은 Consumer 스레드 하나에서만 호출해야 함.
+ * </p>
+ */
+public interface BoundedQueue<T> {
+    boolean offer(T value);
+
+    T poll();
+
+    boolean isEmpty();
+
+    /**
+     * 현재 큐에 쌓여 있는 데이터 개수. Producer 와 Consumer 가 동시에 움직이는 중이면 근삿값임.
+     */
+    int size();
+
+    int capacity();
+
+    static <T> BoundedQueue<T> spsc(int capacity) {
+        return new SpscArrayQueue<>(capacity);
+    }
+
+    static <T> BoundedQueue<T> mpsc(int capacity) {
+        return new MpscArrayQueue<>(capacity);
+    }
+}
@@ -0,0 +1,174 @@
+package com.webflux.study.operator.bridge;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <h2>Downstream 의 요청 개수에 맞춰 Producer 를 호출하는 Flux</h2>
+ * <p>
+ *     create() 의 onRequest() 에서 데이터를 하나씩 꺼내 emit 하면 데이터마다 Producer 호출과 onNext Signal 이 발생함.<br>
+ *     이 Flux 는 request(n) 이 들어오면 {@link IntSliceSource#read(int[], int)} 를 한 번만 호출해서 요청 개수만큼의 연속된 구간을 받아옴.
+ * </p>
+ * <ul>
+ *     <li>{@link #items(IntSliceSource, int)}: 구간을 한 번에 받아오지만 emit 은 가격 하나씩 함. Producer 호출 횟수만 줄어듦.</li>
+ *     <li>{@link #slices(IntSliceSource, int)}: 요청 1개당 maxSliceSize 개의 구간을 int[] 하나로 emit 함.
+ *     onNext Signal 과 요청 처리 비용이 구간 단위로 줄어듦.</li>
+ * </ul>
+ * <p>
+ *     구독마다 source 를 새로 읽지 않으므로 Subscriber 는 하나만 사용해야 함.
+ * </p>
+ */
+public class DemandSlicedFlux {
+
+    private DemandSlicedFlux() {
+    }
+
+    /**
+     * @throws IllegalArgumentException maxSliceSize 가 0 이하이면 구독하기 전에 바로 던짐.
+     */
+    public static Flux<Integer> items(IntSliceSource source, int maxSliceSize) {
+        validate(maxSliceSize);
+        return Flux.from((Publisher<Integer>) subscriber ->
+                subscriber.onSubscribe(new ItemSubscription(subscriber, source, maxSliceSize)));
+    }
+
+    /**
+     * @throws IllegalArgumentException maxSliceSize 가 0 이하이면 구독하기 전에 바로 던짐.
+     */
+    public static Flux<int[]> slices(IntSliceSource source, int maxSliceSize) {
+        validate(maxSliceSize);
+        return Flux.from((Publisher<int[]>) subscriber ->
+                subscriber.onSubscribe(new SliceSubscription(subscriber, source, maxSliceSize)));
+    }
+
+    private static void validate(int maxSliceSize) {
+        if (maxSliceSize <= 0) {
+            throw new IllegalArgumentException("maxSliceSize must be positive: " + maxSliceSize);
+        }
+    }
+
+    private abstract static class SlicedSubscription<T> implements Subscription {
+        protected final Subscriber<? super T> actual;
+        protected final IntSliceSource source;
+        protected final int[] buffer;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+
+        SlicedSubscription(Subscriber<? super T> actual, IntSliceSource source, int maxSliceSize) {
+            this.actual = actual;
+            this.source = source;
+            this.buffer = new int[maxSliceSize];
+        }
+
+        /**
+         * source 에서 최대 maxLength 개를 읽음. maxLength 가 1 이상인데 0 을 리턴하면 IntSliceSource 의 규약 위반이므로 에러로 처리함.
+         */
+        protected int read(int maxLength) {
+            int length = source.read(buffer, maxLength);
+            if (length == 0 && maxLength > 0) {
+                throw new IllegalStateException("IntSliceSource.read() must fill at least one item or return -1");
+            }
+            return length;
+        }
+
+        /**
+         * 최대 demand 개를 emit 함.
+         *
+         * @return emit 한 개수. source 가 끝났으면 -1
+         */
+        abstract long emit(long demand);
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                requested.getAndUpdate(r -> Operators.addCap(r, n));
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        protected boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return; // onNext 안에서 다시 request() 가 호출된 경우, 바깥의 drain loop 가 이어서 처리함.
+            }
+            int missed = 1;
+            for (;;) {
+                long r = requested.get();
+                while (!cancelled) {
+                    long emitted;
+                    try {
+                        // 요청을 모두 채웠으면 0 개를 읽어서 source 가 끝났는지만 확인함. 끝났으면 다음 요청을 기다리지 않고 완료함.
+                        emitted = r != 0L ? emit(r) : (read(0) < 0 ? -1 : 0);
+                    } catch (Throwable e) {
+                        cancelled = true;
+                        actual.onError(e);
+                        return;
+                    }
+                    if (emitted < 0) {
+                        cancelled = true;
+                        actual.onComplete();
+                        return;
+                    }
+                    if (r == 0L) {
+                        break;
+                    }
+                    r = requested.addAndGet(-emitted);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private static final class ItemSubscription extends SlicedSubscription<Integer> {
+        ItemSubscription(Subscriber<? super Integer> actual, IntSliceSource source, int maxSliceSize) {
+            super(actual, source, maxSliceSize);
+        }
+
+        @Override
+        long emit(long demand) {
+            int length = read((int) Math.min(demand, buffer.length)); // 요청 개수만큼의 구간을 한 번에 받아옴.
+            if (length < 0) {
+                return -1;
+            }
+            for (int i = 0; i < length && !isCancelled(); i++) {
+                actual.onNext(buffer[i]);
+            }
+            return length;
+        }
+    }
+
+    private static final class SliceSubscription extends SlicedSubscription<int[]> {
+        SliceSubscription(Subscriber<? super int[]> actual, IntSliceSource source, int maxSliceSize) {
+            super(actual, source, maxSliceSize);
+        }
+
+        @Override
+        long emit(long demand) {
+            int length = read(buffer.length);
+            if (length < 0) {
+                return -1;
+            }
+            actual.onNext(Arrays.copyOf(buffer, length));
+            return 1;
+        }
+    }
+}
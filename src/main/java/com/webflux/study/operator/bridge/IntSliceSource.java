@@ -0,0 +1,32 @@
+package com.webflux.study.operator.bridge;
+
+/**
+ * 요청받은 개수만큼의 가격을 연속된 int[] 구간으로 한 번에 채워주는 Producer.
+ */
+@FunctionalInterface
+public interface IntSliceSource {
+    /**
+     * buffer[0] 부터 최대 maxLength 개를 채움. pull 방식이므로 최소 1개 이상을 채우거나 -1 을 리턴해야 함.
+     * <p>
+     *     maxLength 가 0 이면 아무것도 채우지 않고 바로 리턴함. 이때 데이터가 끝났으면 -1, 아니면 0 을 리턴함.
+     *     Downstream 의 요청을 모두 채운 뒤에 onComplete 를 보낼지 확인하는 데 사용함.
+     * </p>
+     *
+     * @return 채운 개수. 더 이상 데이터가 없으면 -1
+     */
+    int read(int[] buffer, int maxLength);
+
+    static IntSliceSource of(int[] prices) {
+        int[] position = new int[1];
+        return (buffer, maxLength) -> {
+            int remaining = prices.length - position[0];
+            if (remaining <= 0) {
+                return -1;
+            }
+            int length = Math.min(remaining, maxLength);
+            System.arraycopy(prices, position[0], buffer, 0, length);
+            position[0] += length;
+            return length;
+        };
+    }
+}
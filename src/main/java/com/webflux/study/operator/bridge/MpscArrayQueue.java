@@ -0,0 +1,80 @@
+package com.webflux.study.operator.bridge;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 여러 Producer 스레드, Consumer 스레드 하나를 위한 bounded 큐.
+ * <p>
+ *     Producer 들은 producerIndex 를 CAS 로 선점한 뒤 해당 칸에 값을 씀. 선점과 쓰기 사이에 Consumer 가 도착하면
+ *     칸이 채워질 때까지 잠시 기다리지만, Producer 끼리는 lock 없이 CAS 재시도만 함.
+ * </p>
+ */
+final class MpscArrayQueue<T> implements BoundedQueue<T> {
+    private final AtomicReferenceArray<T> buffer;
+    private final int mask;
+    private final PaddedSequence producerIndex = new PaddedSequence(0L);
+    private final PaddedSequence producerLimit;
+    private final PaddedSequence consumerIndex = new PaddedSequence(0L);
+
+    MpscArrayQueue(int capacity) {
+        int actualCapacity = SpscArrayQueue.ceilingPowerOfTwo(capacity);
+        this.buffer = new AtomicReferenceArray<>(actualCapacity);
+        this.mask = actualCapacity - 1;
+        this.producerLimit = new PaddedSequence(actualCapacity);
+    }
+
+    @Override
+    public boolean offer(T value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        long index;
+        do {
+            index = producerIndex.get();
+            long limit = producerLimit.get();
+            if (index >= limit) {
+                limit = consumerIndex.get() + buffer.length();
+                if (index >= limit) {
+                    return false;
+                }
+                producerLimit.setRelease(limit);
+            }
+        } while (!producerIndex.compareAndSet(index, index + 1));
+        buffer.lazySet((int) index & mask, value);
+        return true;
+    }
+
+    @Override
+    public T poll() {
+        long index = consumerIndex.get();
+        int offset = (int) index & mask;
+        T value = buffer.get(offset);
+        if (value == null) {
+            if (index >= producerIndex.get()) {
+                return null;
+            }
+            do { // 칸을 선점한 Producer 가 아직 값을 쓰지 않은 상태임.
+                Thread.onSpinWait();
+                value = buffer.get(offset);
+            } while (value == null);
+        }
+        buffer.lazySet(offset, null);
+        consumerIndex.setRelease(index + 1);
+        return value;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return consumerIndex.get() >= producerIndex.get();
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.max(producerIndex.get() - consumerIndex.get(), 0L);
+    }
+
+    @Override
+    public int capacity() {
+        return buffer.length();
+    }
+}
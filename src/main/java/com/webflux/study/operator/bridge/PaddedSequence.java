@@ -0,0 +1,59 @@
+package com.webflux.study.operator.bridge;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * 앞뒤로 cache line 크기 이상의 padding 을 둔 long 카운터.
+ * <p>
+ *     Producer 의 index 와 Consumer 의 index 가 같은 cache line 에 놓이면, 서로 다른 코어에서 각자 자기 index 만 수정해도
+ *     cache line 이 계속 무효화되는 false sharing 이 발생함.<br>
+ *     JVM 은 한 클래스 안의 필드 순서를 바꿀 수 있지만 상위 클래스의 필드를 먼저 배치하므로, 상속 계층으로 padding 을 배치함.
+ * </p>
+ */
+public final class PaddedSequence extends PaddedSequenceRhsPadding {
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(PaddedSequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public PaddedSequence(long initialValue) {
+        VALUE.setRelease(this, initialValue);
+    }
+
+    public long get() {
+        return (long) VALUE.getAcquire(this);
+    }
+
+    /**
+     * 다른 스레드에 순서만 보장하면 되는 경우의 쓰기. (volatile 쓰기보다 저렴함)
+     */
+    public void setRelease(long newValue) {
+        VALUE.setRelease(this, newValue);
+    }
+
+    public boolean compareAndSet(long expected, long newValue) {
+        return VALUE.compareAndSet(this, expected, newValue);
+    }
+}
+
+@SuppressWarnings("unused")
+class PaddedSequenceLhsPadding {
+    protected long p01, p02, p03, p04, p05, p06, p07, p08;
+    protected long p09, p10, p11, p12, p13, p14, p15;
+}
+
+class PaddedSequenceValue extends PaddedSequenceLhsPadding {
+    protected volatile long value;
+}
+
+@SuppressWarnings("unused")
+class PaddedSequenceRhsPadding extends PaddedSequenceValue {
+    protected long p16, p17, p18, p19, p20, p21, p22, p23;
+    protected long p24, p25, p26, p27, p28, p29, p30;
+}
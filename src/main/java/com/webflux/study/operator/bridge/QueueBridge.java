@@ -0,0 +1,194 @@
+package com.webflux.study.operator.bridge;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <h2>외부 Listener 를 Flux 로 연결하는 bounded 큐 기반 브리지</h2>
+ * <p>
+ *     create() Operator 의 BUFFER 전략은 크기 제한이 없는 큐를 사용하므로 Subscriber 가 느리면 메모리가 계속 늘어남.<br>
+ *     이 브리지는 {@link BoundedQueue} 를 직접 선택하게 해서 큐 크기를 제한하고, 큐가 가득 차면 emit() 이 false 를 리턴하며
+ *     rejected 개수를 기록함.
+ * </p>
+ * <ul>
+ *     <li>{@link BoundedQueue#spsc(int)}: Listener 를 호출하는 스레드가 하나일 때</li>
+ *     <li>{@link BoundedQueue#mpsc(int)}: 여러 스레드에서 동시에 emit() 할 때</li>
+ * </ul>
+ * <p>
+ *     depth(), maxDepth() 로 큐 사용량을 확인해서 피드 핸들러에 맞는 큐 크기를 정할 수 있음. Subscriber 는 하나만 허용됨.
+ * </p>
+ */
+public class QueueBridge<T> implements Subscription {
+    private final BoundedQueue<T> queue;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final LongAdder emitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicInteger maxDepth = new AtomicInteger();
+
+    private volatile Subscriber<? super T> actual;
+    private volatile boolean done;
+    private volatile boolean cancelled;
+    private Throwable error;
+
+    public QueueBridge(BoundedQueue<T> queue) {
+        this.queue = queue;
+    }
+
+    public Flux<T> asFlux() {
+        return Flux.from((Publisher<T>) this::subscribe);
+    }
+
+    /**
+     * @return 큐가 가득 차서 데이터를 넣지 못했다면 false
+     */
+    public boolean emit(T value) {
+        if (done || cancelled) {
+            return false;
+        }
+        if (!queue.offer(value)) {
+            rejected.increment();
+            return false;
+        }
+        emitted.increment();
+        int depth = queue.size();
+        int max;
+        while (depth > (max = maxDepth.get()) && !maxDepth.compareAndSet(max, depth)) {
+            // 최대 depth 갱신 경쟁에서 졌다면 다시 시도함.
+        }
+        drain();
+        return true;
+    }
+
+    public void complete() {
+        done = true;
+        drain();
+    }
+
+    public void error(Throwable e) {
+        error = e;
+        done = true;
+        drain();
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    public int maxDepth() {
+        return maxDepth.get();
+    }
+
+    public int capacity() {
+        return queue.capacity();
+    }
+
+    public long emitted() {
+        return emitted.sum();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    private void subscribe(Subscriber<? super T> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            Operators.error(subscriber, new IllegalStateException("QueueBridge allows only one subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(this);
+        actual = subscriber;
+        drain();
+    }
+
+    @Override
+    public void request(long n) {
+        if (Operators.validate(n)) {
+            requested.getAndUpdate(r -> Operators.addCap(r, n));
+            drain();
+        }
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        if (wip.getAndIncrement() == 0) {
+            clear();
+        }
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        for (;;) {
+            Subscriber<? super T> a = actual;
+            if (a != null) {
+                long r = requested.get();
+                long e = 0L;
+                while (e != r) {
+                    if (cancelled) {
+                        clear();
+                        return;
+                    }
+                    boolean d = done;
+                    T v = queue.poll();
+                    if (v == null) {
+                        if (d) {
+                            terminate(a);
+                            return;
+                        }
+                        break;
+                    }
+                    a.onNext(v);
+                    e++;
+                }
+                if (e == r) {
+                    if (cancelled) {
+                        clear();
+                        return;
+                    }
+                    if (done && queue.isEmpty()) {
+                        terminate(a);
+                        return;
+                    }
+                }
+                if (e != 0L && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-e);
+                }
+            } else if (cancelled) {
+                clear();
+                return;
+            }
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                break;
+            }
+        }
+    }
+
+    private void terminate(Subscriber<? super T> a) {
+        cancelled = true; // 종료 이후에 들어오는 emit() 은 무시함.
+        if (error != null) {
+            a.onError(error);
+        } else {
+            a.onComplete();
+        }
+    }
+
+    private void clear() {
+        while (queue.poll() != null) {
+            // 남아 있는 데이터를 비움.
+        }
+    }
+}
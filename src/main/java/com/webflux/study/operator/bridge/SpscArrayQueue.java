@@ -0,0 +1,77 @@
+package com.webflux.study.operator.bridge;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Producer 스레드 하나, Consumer 스레드 하나를 위한 bounded 큐.
+ * <p>
+ *     Producer 는 producerIndex 만, Consumer 는 consumerIndex 만 수정하므로 CAS 없이 release/acquire 순서만으로 동작함.
+ *     Producer 는 상대방 index 를 매번 읽지 않도록 마지막으로 확인한 consumerIndex 를 캐시해 둠.
+ * </p>
+ */
+final class SpscArrayQueue<T> implements BoundedQueue<T> {
+    private final AtomicReferenceArray<T> buffer;
+    private final int mask;
+    private final PaddedSequence producerIndex = new PaddedSequence(0L);
+    private final PaddedSequence consumerIndex = new PaddedSequence(0L);
+    private long producerLimit; // Producer 스레드만 사용함.
+
+    SpscArrayQueue(int capacity) {
+        int actualCapacity = ceilingPowerOfTwo(capacity);
+        this.buffer = new AtomicReferenceArray<>(actualCapacity);
+        this.mask = actualCapacity - 1;
+        this.producerLimit = actualCapacity;
+    }
+
+    @Override
+    public boolean offer(T value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        long index = producerIndex.get();
+        if (index >= producerLimit) {
+            producerLimit = consumerIndex.get() + buffer.length();
+            if (index >= producerLimit) {
+                return false;
+            }
+        }
+        buffer.lazySet((int) index & mask, value);
+        producerIndex.setRelease(index + 1);
+        return true;
+    }
+
+    @Override
+    public T poll() {
+        long index = consumerIndex.get();
+        if (index >= producerIndex.get()) {
+            return null;
+        }
+        int offset = (int) index & mask;
+        T value = buffer.get(offset);
+        buffer.lazySet(offset, null);
+        consumerIndex.setRelease(index + 1);
+        return value;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return consumerIndex.get() >= producerIndex.get();
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.max(producerIndex.get() - consumerIndex.get(), 0L);
+    }
+
+    @Override
+    public int capacity() {
+        return buffer.length();
+    }
+
+    static int ceilingPowerOfTwo(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be in (0, 2^30]: " + capacity);
+        }
+        return 1 << (32 - Integer.numberOfLeadingZeros(capacity - 1));
+    }
+}
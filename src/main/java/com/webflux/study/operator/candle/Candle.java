@@ -0,0 +1,25 @@
+package com.webflux.study.operator.candle;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 하나의 시간 윈도우에 대한 시가(open), 고가(high), 저가(low), 종가(close), 거래량(volume).
+ * <p>
+ *     가격 tick 에는 체결 수량이 없으므로 volume 은 윈도우 안에서 발생한 tick 개수임.
+ * </p>
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class Candle {
+    private String coinName;
+    private long windowStart;
+    private long windowEnd;
+    private int open;
+    private int high;
+    private int low;
+    private int close;
+    private long volume;
+}
@@ -0,0 +1,166 @@
+package com.webflux.study.operator.candle;
+
+import com.webflux.study.operator.CoinPrice;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <h2>가격 tick 으로 OHLCV Candle 을 만드는 집계기</h2>
+ * <p>
+ *     window 길이를 slide 간격의 bucket 으로 나눈 ring 을 유지함. tick 하나는 현재 bucket 의 시가/고가/저가/종가/개수만 갱신하므로
+ *     O(1) 이며, window() 나 buffer() 처럼 윈도우마다 List 나 Flux 를 만들지 않음.
+ * </p>
+ * <ul>
+ *     <li>tumbling window: slide == window 인 경우로 bucket 이 하나뿐임. (예: 1초, 1분, 5분 Candle)</li>
+ *     <li>sliding window: slide 마다 최근 window 길이만큼의 bucket 을 합쳐서 Candle 을 emit 함. (예: 1분 간격으로 갱신되는 5분 Candle)</li>
+ * </ul>
+ * <p>
+ *     윈도우는 tick 의 timestamp 기준(event time)으로 나뉘며, 다음 slide 구간의 tick 이 들어오거나 Upstream 이 완료될 때 닫힘.<br>
+ *     이미 지나간 bucket 보다 이전 timestamp 를 가진 tick 은 현재 bucket 에 포함됨.
+ * </p>
+ */
+public class CandleAggregator {
+    private final String coinName;
+    private final long windowMillis;
+    private final long slideMillis;
+    private final Bucket[] buckets;
+    private long currentBucketStart;
+    private boolean started;
+
+    public CandleAggregator(String coinName, Duration window, Duration slide) {
+        this.coinName = coinName;
+        this.windowMillis = window.toMillis();
+        this.slideMillis = slide.toMillis();
+        if (slideMillis <= 0 || windowMillis < slideMillis || windowMillis % slideMillis != 0) {
+            throw new IllegalArgumentException(
+                    "window must be a positive multiple of slide: window=" + window + ", slide=" + slide);
+        }
+        this.buckets = new Bucket[(int) (windowMillis / slideMillis)];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    /**
+     * 해당 코인의 tumbling window Candle 을 emit 하는 Flux.
+     */
+    public static Flux<Candle> candles(Flux<CoinPrice> prices, String coinName, Duration window) {
+        return candles(prices, coinName, window, window);
+    }
+
+    /**
+     * 해당 코인의 sliding window Candle 을 emit 하는 Flux. 구독마다 별도의 집계 상태를 가짐.
+     */
+    public static Flux<Candle> candles(Flux<CoinPrice> prices, String coinName, Duration window, Duration slide) {
+        return Flux.defer(() -> {
+            CandleAggregator aggregator = new CandleAggregator(coinName, window, slide);
+            return prices
+                    .filter(coinPrice -> coinPrice.getCoinName().equals(coinName))
+                    .concatMapIterable(coinPrice -> aggregator.onTick(coinPrice.getTimestamp(), coinPrice.getPrice()))
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(aggregator.flush())));
+        });
+    }
+
+    /**
+     * @return 이 tick 으로 인해 닫힌 윈도우의 Candle. 대부분의 tick 에서는 빈 List 이며 새로 할당하지 않음.
+     */
+    public List<Candle> onTick(long timestamp, int price) {
+        long bucketStart = Math.floorDiv(timestamp, slideMillis) * slideMillis;
+        List<Candle> closed = Collections.emptyList();
+        if (!started) {
+            started = true;
+            currentBucketStart = bucketStart;
+        } else if (bucketStart > currentBucketStart) {
+            closed = advance((bucketStart - currentBucketStart) / slideMillis);
+        }
+        bucketOf(currentBucketStart).add(price);
+        return closed;
+    }
+
+    /**
+     * Upstream 이 완료되었을 때 아직 데이터가 남아 있는 윈도우를 모두 닫음.
+     */
+    public List<Candle> flush() {
+        if (!started) {
+            return Collections.emptyList();
+        }
+        return advance(buckets.length);
+    }
+
+    private List<Candle> advance(long steps) {
+        List<Candle> closed = null;
+        long emitSteps = Math.min(steps, buckets.length); // bucket 개수보다 더 건너뛰면 그 사이의 윈도우는 모두 비어 있음.
+        for (long i = 0; i < emitSteps; i++) {
+            long windowEnd = currentBucketStart + slideMillis;
+            Candle candle = combine(windowEnd);
+            if (candle != null) {
+                if (closed == null) {
+                    closed = new ArrayList<>(2);
+                }
+                closed.add(candle);
+            }
+            currentBucketStart = windowEnd;
+            bucketOf(currentBucketStart).reset(); // 윈도우 밖으로 밀려난 가장 오래된 bucket 을 재사용함.
+        }
+        if (steps > emitSteps) {
+            currentBucketStart += (steps - emitSteps) * slideMillis;
+        }
+        return closed == null ? Collections.emptyList() : closed;
+    }
+
+    private Candle combine(long windowEnd) {
+        long windowStart = windowEnd - windowMillis;
+        int open = 0, high = Integer.MIN_VALUE, low = Integer.MAX_VALUE, close = 0;
+        long volume = 0;
+        for (long start = windowStart; start < windowEnd; start += slideMillis) {
+            Bucket bucket = bucketOf(start);
+            if (bucket.volume == 0) {
+                continue;
+            }
+            if (volume == 0) {
+                open = bucket.open;
+            }
+            high = Math.max(high, bucket.high);
+            low = Math.min(low, bucket.low);
+            close = bucket.close;
+            volume += bucket.volume;
+        }
+        if (volume == 0) {
+            return null;
+        }
+        return new Candle(coinName, windowStart, windowEnd, open, high, low, close, volume);
+    }
+
+    private Bucket bucketOf(long bucketStart) {
+        return buckets[(int) Math.floorMod(bucketStart / slideMillis, (long) buckets.length)];
+    }
+
+    private static class Bucket {
+        private int open;
+        private int high;
+        private int low;
+        private int close;
+        private long volume;
+
+        private void add(int price) {
+            if (volume == 0) {
+                open = price;
+                high = price;
+                low = price;
+            } else {
+                high = Math.max(high, price);
+                low = Math.min(low, price);
+            }
+            close = price;
+            volume++;
+        }
+
+        private void reset() {
+            volume = 0;
+        }
+    }
+}
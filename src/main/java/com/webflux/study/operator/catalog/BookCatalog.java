@@ -0,0 +1,215 @@
+package com.webflux.study.operator.catalog;
+
+import com.webflux.study.operator.Book;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <h2>컬럼 단위로 저장하는 도서 카탈로그</h2>
+ * <p>
+ *     도서 한 권을 Book 객체 하나로 보관하지 않고, 필드별 배열(컬럼)에 row 번호로 나눠서 보관함.
+ * </p>
+ * <ul>
+ *     <li>price, stockQuantity: primitive int 배열</li>
+ *     <li>authorName, penName: 중복되는 문자열을 사전(dictionary)에 한 번만 저장하고, row 에는 사전 id(int)만 저장함. penName 이 null 이면 -1.</li>
+ *     <li>저자/필명 인덱스: 사전 id 별 row 목록을 offsets + rows 두 개의 int 배열로 저장함(CSR 형식). 조회 시 전체를 스캔하지 않음.</li>
+ * </ul>
+ * <p>
+ *     생성 이후에는 변경되지 않으므로 여러 스레드에서 동시에 읽어도 안전함.
+ * </p>
+ */
+public final class BookCatalog {
+    static final int NO_PEN_NAME = -1;
+
+    final String[] bookNames;
+    final int[] prices;
+    final int[] stockQuantities;
+    final int[] authorIds;
+    final int[] penNameIds;
+    final String[] authorDictionary;
+    final String[] penNameDictionary;
+
+    private final Map<String, Integer> authorIdByName;
+    private final Map<String, Integer> penNameIdByName;
+    private final RowIndex authorIndex;
+    private final RowIndex penNameIndex;
+
+    private BookCatalog(Builder builder) {
+        int size = builder.size;
+        this.bookNames = Arrays.copyOf(builder.bookNames, size);
+        this.prices = Arrays.copyOf(builder.prices, size);
+        this.stockQuantities = Arrays.copyOf(builder.stockQuantities, size);
+        this.authorIds = Arrays.copyOf(builder.authorIds, size);
+        this.penNameIds = Arrays.copyOf(builder.penNameIds, size);
+        this.authorDictionary = builder.authorDictionary.toArray(new String[0]);
+        this.penNameDictionary = builder.penNameDictionary.toArray(new String[0]);
+        this.authorIdByName = Map.copyOf(builder.authorIdByName);
+        this.penNameIdByName = Map.copyOf(builder.penNameIdByName);
+        this.authorIndex = RowIndex.of(authorIds, authorDictionary.length);
+        this.penNameIndex = RowIndex.of(penNameIds, penNameDictionary.length);
+    }
+
+    public static BookCatalog of(List<Book> books) {
+        Builder builder = builder(books.size());
+        for (Book book : books) {
+            builder.add(book.getBookName(), book.getAuthorName(), book.getPenName(),
+                    book.getPrice(), book.getStockQuantity());
+        }
+        return builder.build();
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    public int size() {
+        return prices.length;
+    }
+
+    public int authorCount() {
+        return authorDictionary.length;
+    }
+
+    public int penNameCount() {
+        return penNameDictionary.length;
+    }
+
+    /**
+     * 해당 row 의 Book 객체. 조회 결과를 돌려줄 때만 만들어짐.
+     */
+    public Book book(int row) {
+        int penNameId = penNameIds[row];
+        return new Book(bookNames[row], authorDictionary[authorIds[row]],
+                penNameId == NO_PEN_NAME ? null : penNameDictionary[penNameId],
+                prices[row], stockQuantities[row]);
+    }
+
+    public int[] rowsByAuthor(String authorName) {
+        Integer authorId = authorIdByName.get(authorName);
+        return authorId == null ? new int[0] : authorIndex.rows(authorId);
+    }
+
+    public int[] rowsByPenName(String penName) {
+        Integer penNameId = penNameIdByName.get(penName);
+        return penNameId == null ? new int[0] : penNameIndex.rows(penNameId);
+    }
+
+    public long stockValue(int row) {
+        return prices[row] * (long) stockQuantities[row];
+    }
+
+    /**
+     * 전체 재고 가치(가격 x 재고 수량의 합). 두 개의 int 배열만 순차적으로 읽음.
+     */
+    public long totalStockValue() {
+        long total = 0L;
+        for (int row = 0; row < prices.length; row++) {
+            total += prices[row] * (long) stockQuantities[row];
+        }
+        return total;
+    }
+
+    public long stockValueByAuthor(String authorName) {
+        long total = 0L;
+        for (int row : rowsByAuthor(authorName)) {
+            total += stockValue(row);
+        }
+        return total;
+    }
+
+    /**
+     * 사전 id 별 row 목록. offsets[id] ~ offsets[id + 1] 구간의 rows 가 해당 id 의 row 임.
+     */
+    private static final class RowIndex {
+        private final int[] offsets;
+        private final int[] rows;
+
+        private RowIndex(int[] offsets, int[] rows) {
+            this.offsets = offsets;
+            this.rows = rows;
+        }
+
+        private static RowIndex of(int[] ids, int idCount) {
+            int[] offsets = new int[idCount + 1];
+            for (int id : ids) {
+                if (id != NO_PEN_NAME) {
+                    offsets[id + 1]++;
+                }
+            }
+            for (int i = 0; i < idCount; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+            int[] cursor = Arrays.copyOf(offsets, idCount);
+            int[] rows = new int[offsets[idCount]];
+            for (int row = 0; row < ids.length; row++) {
+                if (ids[row] != NO_PEN_NAME) {
+                    rows[cursor[ids[row]]++] = row;
+                }
+            }
+            return new RowIndex(offsets, rows);
+        }
+
+        private int[] rows(int id) {
+            return Arrays.copyOfRange(rows, offsets[id], offsets[id + 1]);
+        }
+    }
+
+    public static final class Builder {
+        private String[] bookNames;
+        private int[] prices;
+        private int[] stockQuantities;
+        private int[] authorIds;
+        private int[] penNameIds;
+        private int size;
+        private final List<String> authorDictionary = new ArrayList<>();
+        private final List<String> penNameDictionary = new ArrayList<>();
+        private final Map<String, Integer> authorIdByName = new HashMap<>();
+        private final Map<String, Integer> penNameIdByName = new HashMap<>();
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 16);
+            bookNames = new String[capacity];
+            prices = new int[capacity];
+            stockQuantities = new int[capacity];
+            authorIds = new int[capacity];
+            penNameIds = new int[capacity];
+        }
+
+        public Builder add(String bookName, String authorName, String penName, int price, int stockQuantity) {
+            if (size == prices.length) {
+                grow();
+            }
+            bookNames[size] = bookName;
+            prices[size] = price;
+            stockQuantities[size] = stockQuantity;
+            authorIds[size] = encode(authorName, authorIdByName, authorDictionary);
+            penNameIds[size] = penName == null ? NO_PEN_NAME : encode(penName, penNameIdByName, penNameDictionary);
+            size++;
+            return this;
+        }
+
+        public BookCatalog build() {
+            return new BookCatalog(this);
+        }
+
+        private static int encode(String value, Map<String, Integer> idByName, List<String> dictionary) {
+            return idByName.computeIfAbsent(value, key -> {
+                dictionary.add(key);
+                return dictionary.size() - 1;
+            });
+        }
+
+        private void grow() {
+            int capacity = prices.length << 1;
+            bookNames = Arrays.copyOf(bookNames, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            stockQuantities = Arrays.copyOf(stockQuantities, capacity);
+            authorIds = Arrays.copyOf(authorIds, capacity);
+            penNameIds = Arrays.copyOf(penNameIds, capacity);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.webflux.study.operator.catalog;
+
+import com.webflux.study.operator.Book;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * <h2>{@link BookCatalog} 를 조회하는 Reactive Repository</h2>
+ * <p>
+ *     조회는 인덱스로 찾은 row 만 Book 으로 만들어서 emit 하고, 합계 계산은 Book 객체를 만들지 않고 컬럼 배열에서 바로 계산함.<br>
+ *     모든 메서드는 구독 시점에 실행되는 Cold Publisher 임.
+ * </p>
+ */
+public class BookCatalogRepository {
+    private final BookCatalog catalog;
+
+    public BookCatalogRepository(BookCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    public Flux<Book> findAll() {
+        return Flux.range(0, catalog.size()).map(catalog::book);
+    }
+
+    public Flux<Book> findByAuthorName(String authorName) {
+        return Flux.defer(() -> rowsToBooks(catalog.rowsByAuthor(authorName)));
+    }
+
+    public Flux<Book> findByPenName(String penName) {
+        return Flux.defer(() -> rowsToBooks(catalog.rowsByPenName(penName)));
+    }
+
+    public Mono<Long> totalStockValue() {
+        return Mono.fromSupplier(catalog::totalStockValue);
+    }
+
+    public Mono<Long> stockValueByAuthorName(String authorName) {
+        return Mono.fromSupplier(() -> catalog.stockValueByAuthor(authorName));
+    }
+
+    public Mono<Integer> count() {
+        return Mono.just(catalog.size());
+    }
+
+    private Flux<Book> rowsToBooks(int[] rows) {
+        return Flux.range(0, rows.length).map(i -> catalog.book(rows[i]));
+    }
+}
@@ -0,0 +1,36 @@
+package com.webflux.study.operator.catalog;
+
+import com.webflux.study.operator.SampleData;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * <h2>컬럼 기반 카탈로그 조회</h2>
+ * {@link SampleData#books} 를 {@link BookCatalog} 로 변환한 뒤 {@link BookCatalogRepository} 로 조회함.<br>
+ * Flux.fromIterable() 로 모든 도서를 filter() 하는 방식과 달리 인덱스로 해당 row 만 찾아서 emit 함.
+ */
+@Slf4j
+public class CatalogQuery {
+    public static void main(String[] args) {
+        BookCatalogRepository repository = new BookCatalogRepository(BookCatalog.of(SampleData.books));
+
+        repository.findByAuthorName("Tom")
+                .subscribe(book -> log.info("# book by Tom: {}", book.getBookName()));
+
+        repository.findByPenName("Tom-boy")
+                .subscribe(book -> log.info("# book by Tom-boy: {}({})", book.getBookName(), book.getAuthorName()));
+
+        repository.totalStockValue()
+                .subscribe(total -> log.info("# total stock value: {}", total));
+
+        // 기존 방식: 모든 도서를 스캔하면서 Book 마다 filter() 를 실행함.
+        Flux.fromIterable(SampleData.books)
+                .filter(book -> "Tom".equals(book.getAuthorName()))
+                .map(book -> book.getPrice() * (long) book.getStockQuantity())
+                .reduce(Long::sum)
+                .subscribe(total -> log.info("# stock value by Tom (scan): {}", total));
+
+        repository.stockValueByAuthorName("Tom")
+                .subscribe(total -> log.info("# stock value by Tom (index): {}", total));
+    }
+}
@@ -0,0 +1,84 @@
+package com.webflux.study.operator.catalog;
+
+import com.webflux.study.operator.SampleData;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * <h2>ParallelFlux 카탈로그 분석의 코어 수별 확장성</h2>
+ * {@link ParallelBookAnalytics} 를 rail 개수 1 ~ CPU 코어 수로 바꿔가며 실행하고 소요 시간을 비교함.
+ */
+@Slf4j
+public class CatalogScaling {
+    private static final int BOOKS = 10_000_000;
+    private static final int AUTHORS = 200_000;
+    private static final int PEN_NAMES = 5_000;
+
+    public static void main(String[] args) {
+        example1();
+        log.info("--------------------------------------------");
+        example2(args.length > 0 ? Integer.parseInt(args[0]) : BOOKS);
+    }
+
+    /**
+     * <h3>실행 결과</h3>
+     * {@link SampleData#books} 의 저자별 인세, 필명별 재고 가치, 10,000원 단위 가격 히스토그램을 출력함.
+     */
+    private static void example1() {
+        ParallelBookAnalytics analytics = new ParallelBookAnalytics(BookCatalog.of(SampleData.books), 10_000, 5);
+        ParallelBookAnalytics.CatalogStats stats = analytics.analyze(4, Schedulers.parallel()).block();
+
+        log.info("# royalties by author: {}", stats.royaltiesByAuthor());
+        log.info("# stock value by pen name: {}", stats.stockValueByPenName());
+        log.info("# price histogram: {}", Arrays.toString(stats.getPriceHistogram()));
+    }
+
+    /**
+     * <h3>rail 개수별 소요 시간</h3>
+     * 1,000만 권의 합성 카탈로그를 만든 뒤 rail 개수를 1, 2, 4, ... CPU 코어 수까지 늘려가며 분석함.
+     * 처음 한 번은 JIT warm up 용도로 실행함.
+     */
+    private static void example2(int books) {
+        BookCatalog catalog = syntheticCatalog(books);
+        ParallelBookAnalytics analytics = new ParallelBookAnalytics(catalog, 1_000, 100);
+        int cores = Runtime.getRuntime().availableProcessors();
+        Scheduler scheduler = Schedulers.newParallel("catalog", cores);
+
+        analytics.analyze(cores, scheduler).block();
+        for (int rails = 1; ; rails = Math.min(rails * 2, cores)) {
+            long start = System.nanoTime();
+            analytics.analyze(rails, scheduler).block();
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            log.info("# rails: {}, elapsed: {} ms, {} books/s", rails, elapsedMillis,
+                    catalog.size() * 1000L / Math.max(elapsedMillis, 1L));
+            if (rails == cores) {
+                break;
+            }
+        }
+        scheduler.dispose();
+    }
+
+    private static BookCatalog syntheticCatalog(int books) {
+        SplittableRandom random = new SplittableRandom(42L);
+        String[] authors = new String[AUTHORS];
+        for (int i = 0; i < AUTHORS; i++) {
+            authors[i] = "author-" + i;
+        }
+        String[] penNames = new String[PEN_NAMES];
+        for (int i = 0; i < PEN_NAMES; i++) {
+            penNames[i] = "pen-" + i;
+        }
+
+        BookCatalog.Builder builder = BookCatalog.builder(books);
+        for (int i = 0; i < books; i++) {
+            builder.add("book", authors[random.nextInt(AUTHORS)],
+                    random.nextInt(10) == 0 ? null : penNames[random.nextInt(PEN_NAMES)],
+                    5_000 + random.nextInt(95_000), random.nextInt(1_000));
+        }
+        return builder.build();
+    }
+}
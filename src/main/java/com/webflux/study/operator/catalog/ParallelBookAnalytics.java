@@ -0,0 +1,133 @@
+package com.webflux.study.operator.catalog;
+
+import com.webflux.study.operator.aggregate.RoyaltyAggregator;
+import lombok.Getter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <h2>ParallelFlux 로 카탈로그 통계를 계산</h2>
+ * <p>
+ *     카탈로그의 row 를 CHUNK_SIZE 단위 구간으로 나누고, parallel() + runOn() 으로 구간을 각 rail 에 분배함.<br>
+ *     rail 마다 reduce() 의 초깃값으로 만든 {@link Accumulator} 하나를 자신의 스레드에서만 사용하므로 동기화가 필요 없고,
+ *     sequential() 이후에 rail 개수만큼의 Accumulator 를 한 번만 합침.
+ * </p>
+ * <ul>
+ *     <li>저자별 인세 합계: 저자 사전 id 로 인덱싱되는 long 배열</li>
+ *     <li>필명별 재고 가치: 필명 사전 id 로 인덱싱되는 long 배열</li>
+ *     <li>가격 히스토그램: priceBucketWidth 단위의 구간별 도서 수. 첫 구간은 음수 가격을, 마지막 구간은 그 이상의 가격을 모두 포함함.</li>
+ * </ul>
+ */
+public class ParallelBookAnalytics {
+    static final int CHUNK_SIZE = 1 << 16;
+
+    private final BookCatalog catalog;
+    private final int priceBucketWidth;
+    private final int priceBuckets;
+
+    public ParallelBookAnalytics(BookCatalog catalog, int priceBucketWidth, int priceBuckets) {
+        if (priceBucketWidth < 1) {
+            throw new IllegalArgumentException("priceBucketWidth must be positive: " + priceBucketWidth);
+        }
+        if (priceBuckets < 1) {
+            throw new IllegalArgumentException("priceBuckets must be positive: " + priceBuckets);
+        }
+        this.catalog = catalog;
+        this.priceBucketWidth = priceBucketWidth;
+        this.priceBuckets = priceBuckets;
+    }
+
+    public Mono<CatalogStats> analyze(int parallelism, Scheduler scheduler) {
+        int chunks = (catalog.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        return Flux.range(0, chunks)
+                .parallel(parallelism)
+                .runOn(scheduler)
+                .reduce(Accumulator::new, Accumulator::accumulate) // rail 마다 Accumulator 하나
+                .sequential()
+                .reduce(Accumulator::merge)
+                .map(Accumulator::toStats)
+                .defaultIfEmpty(new Accumulator().toStats());
+    }
+
+    private final class Accumulator {
+        private final long[] royaltiesByAuthor = new long[catalog.authorCount()];
+        private final long[] stockValueByPenName = new long[catalog.penNameCount()];
+        private final long[] priceHistogram = new long[priceBuckets];
+
+        private Accumulator accumulate(int chunk) {
+            int from = chunk * CHUNK_SIZE;
+            int to = Math.min(from + CHUNK_SIZE, catalog.size());
+            int[] prices = catalog.prices;
+            int[] stockQuantities = catalog.stockQuantities;
+            int[] authorIds = catalog.authorIds;
+            int[] penNameIds = catalog.penNameIds;
+            for (int row = from; row < to; row++) {
+                int price = prices[row];
+                int stockQuantity = stockQuantities[row];
+                royaltiesByAuthor[authorIds[row]] += RoyaltyAggregator.royalty(price, stockQuantity);
+                int penNameId = penNameIds[row];
+                if (penNameId != BookCatalog.NO_PEN_NAME) {
+                    stockValueByPenName[penNameId] += price * (long) stockQuantity;
+                }
+                priceHistogram[Math.max(0, Math.min(price / priceBucketWidth, priceBuckets - 1))]++;
+            }
+            return this;
+        }
+
+        private Accumulator merge(Accumulator other) {
+            add(royaltiesByAuthor, other.royaltiesByAuthor);
+            add(stockValueByPenName, other.stockValueByPenName);
+            add(priceHistogram, other.priceHistogram);
+            return this;
+        }
+
+        private CatalogStats toStats() {
+            return new CatalogStats(catalog, royaltiesByAuthor, stockValueByPenName, priceHistogram, priceBucketWidth);
+        }
+
+        private void add(long[] target, long[] source) {
+            for (int i = 0; i < target.length; i++) {
+                target[i] += source[i];
+            }
+        }
+    }
+
+    public static final class CatalogStats {
+        private final BookCatalog catalog;
+        private final long[] royaltiesByAuthor;
+        private final long[] stockValueByPenName;
+        @Getter
+        private final long[] priceHistogram;
+        @Getter
+        private final int priceBucketWidth;
+
+        private CatalogStats(BookCatalog catalog, long[] royaltiesByAuthor, long[] stockValueByPenName,
+                             long[] priceHistogram, int priceBucketWidth) {
+            this.catalog = catalog;
+            this.royaltiesByAuthor = royaltiesByAuthor;
+            this.stockValueByPenName = stockValueByPenName;
+            this.priceHistogram = priceHistogram;
+            this.priceBucketWidth = priceBucketWidth;
+        }
+
+        public Map<String, Long> royaltiesByAuthor() {
+            return toMap(catalog.authorDictionary, royaltiesByAuthor);
+        }
+
+        public Map<String, Long> stockValueByPenName() {
+            return toMap(catalog.penNameDictionary, stockValueByPenName);
+        }
+
+        private static Map<String, Long> toMap(String[] dictionary, long[] values) {
+            Map<String, Long> map = new LinkedHashMap<>(dictionary.length * 2);
+            for (int id = 0; id < dictionary.length; id++) {
+                map.put(dictionary[id], values[id]);
+            }
+            return map;
+        }
+    }
+}
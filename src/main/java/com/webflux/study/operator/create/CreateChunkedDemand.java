@@ -0,0 +1,136 @@
+package com.webflux.study.operator.create;
+
+import com.webflux.study.operator.bridge.DemandSlicedFlux;
+import com.webflux.study.operator.bridge.IntSliceSource;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * <h2>요청 개수 단위로 구간을 넘겨주는 emit 방식</h2>
+ * {@link Create} 의 example1 은 sink.onRequest() 안에서 요청 개수 n 만큼 데이터를 하나씩 꺼내 emit 함.<br>
+ * {@link DemandSlicedFlux} 는 요청이 들어올 때 Producer 에게서 연속된 구간을 한 번에 받아오며, slices() 는 그 구간을 int[] 하나로 emit 함.
+ */
+@Slf4j
+public class CreateChunkedDemand {
+    private static final int TICKS = 10_000_000;
+    private static final int[] PRICES = IntStream.range(0, TICKS).map(i -> 50_000_000 + (i & 0xFFFF)).toArray();
+
+    public static void main(String[] args) {
+        example1();
+        log.info("--------------------------------------------");
+        example2();
+    }
+
+    /**
+     * <h3>실행 결과</h3>
+     * Subscriber 가 request(1) 을 호출할 때마다 maxSliceSize(2) 개의 가격이 들어있는 구간 하나가 int[] 로 전달됨.
+     */
+    private static void example1() {
+        DemandSlicedFlux.slices(IntSliceSource.of(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10}), 2)
+                .subscribe(new BaseSubscriber<int[]>() {
+                    @Override
+                    protected void hookOnSubscribe(Subscription subscription) {
+                        request(1);
+                    }
+
+                    @Override
+                    protected void hookOnNext(int[] value) {
+                        log.info("# onNext : {}", Arrays.toString(value));
+                        request(1);
+                    }
+
+                    @Override
+                    protected void hookOnComplete() {
+                        log.info("# onComplete");
+                    }
+                });
+    }
+
+    /**
+     * <h3>요청 크기별 초당 처리 개수</h3>
+     * 요청 크기 1 ~ 1024 마다 세 가지 방식으로 1,000만 개의 가격을 전달하고 초당 처리 개수를 출력함.
+     * <ul>
+     *     <li>create: Create.example1 처럼 onRequest() 에서 하나씩 emit. Subscriber 는 demand 개를 받으면 다시 demand 개를 요청함.</li>
+     *     <li>items: 요청마다 구간을 한 번에 받아오지만 emit 은 하나씩.</li>
+     *     <li>slices: demand 크기의 구간을 int[] 하나로 emit. Subscriber 는 구간 하나를 받을 때마다 1개를 요청함.</li>
+     * </ul>
+     */
+    private static void example2() {
+        for (int demand = 1; demand <= 1024; demand *= 2) {
+            int sliceSize = demand;
+            long create = measure(demand, d -> createPath());
+            long items = measure(demand, d -> DemandSlicedFlux.items(IntSliceSource.of(PRICES), sliceSize));
+            long slices = measureSlices(sliceSize);
+            log.info("# demand {}: create {} items/s, items {} items/s, slices {} items/s",
+                    demand, create, items, slices);
+        }
+    }
+
+    private static Flux<Integer> createPath() {
+        int[] position = new int[1];
+        return Flux.create((FluxSink<Integer> sink) -> sink.onRequest(n -> {
+            for (long i = 0; i < n; i++) {
+                if (position[0] >= TICKS) {
+                    sink.complete();
+                    return;
+                }
+                sink.next(PRICES[position[0]++]);
+            }
+        }));
+    }
+
+    private static long measure(int demand, Function<Integer, Flux<Integer>> source) {
+        long[] sum = new long[1];
+        long start = System.nanoTime();
+        source.apply(demand).subscribe(new BaseSubscriber<Integer>() {
+            int received;
+
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(demand);
+            }
+
+            @Override
+            protected void hookOnNext(Integer value) {
+                sum[0] += value;
+                if (++received == demand) {
+                    received = 0;
+                    request(demand);
+                }
+            }
+        });
+        return itemsPerSecond(start);
+    }
+
+    private static long measureSlices(int sliceSize) {
+        long[] sum = new long[1];
+        long start = System.nanoTime();
+        DemandSlicedFlux.slices(IntSliceSource.of(PRICES), sliceSize).subscribe(new BaseSubscriber<int[]>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(int[] slice) {
+                for (int price : slice) {
+                    sum[0] += price;
+                }
+                request(1);
+            }
+        });
+        return itemsPerSecond(start);
+    }
+
+    private static long itemsPerSecond(long startNanos) {
+        long elapsed = Math.max(System.nanoTime() - startNanos, 1L);
+        return TICKS * 1_000_000_000L / elapsed;
+    }
+}
@@ -0,0 +1,136 @@
+package com.webflux.study.operator.create;
+
+import com.webflux.study.operator.CryptoCurrencyPriceEmitter;
+import com.webflux.study.operator.CryptoCurrencyPriceFlux;
+import com.webflux.study.operator.CryptoCurrencyPriceListener;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * <h2>create() Operator 와 int[] chunk</h2>
+ * {@link Create} 의 example2 는 List&lt;Integer&gt; 로 전달된 가격을 하나씩 sink.next() 로 emit 함.<br>
+ * 이 예제는 {@link com.webflux.study.operator.CryptoCurrencyIntPriceListener} 와 {@link CryptoCurrencyPriceFlux} 를 사용해
+ * 가격 배열을 boxing 없이 chunk 단위로 emit 하는 방식을 보여주고, 두 방식의 처리 속도와 GC 횟수를 비교함.
+ */
+@Slf4j
+public class CreateIntChunk {
+    private static final int TICKS = 20_000_000;
+    private static final int BATCH_SIZE = 1024;
+
+    public static void main(String[] args) throws InterruptedException {
+        example1();
+        log.info("--------------------------------------------");
+        example2();
+    }
+
+    /**
+     * <h3>실행 결과</h3>
+     * flowInto() 한 번에 가격 5개가 하나의 int[] chunk 로 전달됨.
+     */
+    private static void example1() throws InterruptedException {
+        CryptoCurrencyPriceEmitter priceEmitter = new CryptoCurrencyPriceEmitter();
+
+        CryptoCurrencyPriceFlux.chunks(priceEmitter)
+                .subscribe(
+                        chunk -> log.info("# onNext: {}", Arrays.toString(chunk)),
+                        error -> {},
+                        () -> log.info("# onComplete")
+                );
+
+        priceEmitter.flowInto();
+        Thread.sleep(100L);
+        priceEmitter.complete();
+    }
+
+    /**
+     * <h3>List&lt;Integer&gt; 경로와 int[] chunk 경로 비교</h3>
+     * 같은 개수의 가격을 BATCH_SIZE 단위로 흘려보내고, Subscriber 에서 합계를 구할 때까지 걸린 시간과 GC 횟수를 측정함.
+     */
+    private static void example2() {
+        for (int round = 0; round < 3; round++) { // 앞의 round 는 JIT warm up 용도임.
+            measure("List<Integer>", CreateIntChunk::boxedPath);
+            measure("int[] chunk", CreateIntChunk::chunkPath);
+        }
+    }
+
+    private static long boxedPath() {
+        CryptoCurrencyPriceEmitter priceEmitter = new CryptoCurrencyPriceEmitter();
+        AtomicLong sum = new AtomicLong();
+
+        Flux.create((FluxSink<Integer> sink) ->
+                        priceEmitter.setListener(new CryptoCurrencyPriceListener() {
+                            @Override
+                            public void onPrice(List<Integer> priceList) {
+                                priceList.stream().forEach(sink::next);
+                            }
+
+                            @Override
+                            public void onComplete() {
+                                sink.complete();
+                            }
+                        }))
+                .subscribe(price -> sum.addAndGet(price));
+
+        List<Integer> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < TICKS; i++) {
+            batch.add(50_000_000 + (i & 0xFFFF)); // 피드에서 받은 가격을 List 에 담으면서 boxing 이 발생함.
+            if (batch.size() == BATCH_SIZE) {
+                priceEmitter.flowInto(batch);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+        priceEmitter.complete();
+        return sum.get();
+    }
+
+    private static long chunkPath() {
+        CryptoCurrencyPriceEmitter priceEmitter = new CryptoCurrencyPriceEmitter();
+        AtomicLong sum = new AtomicLong();
+
+        CryptoCurrencyPriceFlux.chunks(priceEmitter)
+                .subscribe(chunk -> {
+                    long local = 0;
+                    for (int price : chunk) {
+                        local += price;
+                    }
+                    sum.addAndGet(local);
+                });
+
+        int[] batch = new int[BATCH_SIZE]; // 피드 쪽 버퍼는 재사용함.
+        int size = 0;
+        for (int i = 0; i < TICKS; i++) {
+            batch[size++] = 50_000_000 + (i & 0xFFFF);
+            if (size == BATCH_SIZE) {
+                priceEmitter.flowInto(batch, 0, size);
+                size = 0;
+            }
+        }
+        priceEmitter.complete();
+        return sum.get();
+    }
+
+    private static void measure(String name, LongSupplier path) {
+        long gcBefore = gcCount();
+        long start = System.nanoTime();
+        long sum = path.getAsLong();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("# {}: {} ms, gc: {}, sum: {}", name, elapsedMillis, gcCount() - gcBefore, sum);
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(gc.getCollectionCount(), 0);
+        }
+        return count;
+    }
+}
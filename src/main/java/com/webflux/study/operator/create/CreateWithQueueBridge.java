@@ -0,0 +1,126 @@
+package com.webflux.study.operator.create;
+
+import com.webflux.study.operator.CryptoCurrencyPriceEmitter;
+import com.webflux.study.operator.CryptoCurrencyPriceListener;
+import com.webflux.study.operator.bridge.BoundedQueue;
+import com.webflux.study.operator.bridge.QueueBridge;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+/**
+ * <h2>create() 대신 bounded 큐 브리지 사용하기</h2>
+ * {@link Create} 의 example2 처럼 Listener 를 Flux 로 연결하지만, create() 의 크기 제한 없는 BUFFER 큐 대신
+ * {@link QueueBridge} 와 lock-free SPSC/MPSC 큐를 사용함.
+ */
+@Slf4j
+public class CreateWithQueueBridge {
+    private static final int TICKS = 5_000_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        example1();
+        log.info("--------------------------------------------");
+        example2();
+        log.info("--------------------------------------------");
+        example3();
+    }
+
+    /**
+     * <h3>실행 결과</h3>
+     * Listener 로 들어온 가격이 SPSC 큐를 거쳐 Subscriber 에게 전달되고, 구독 종료 후 큐의 최대 depth 를 출력함.
+     */
+    private static void example1() throws InterruptedException {
+        CryptoCurrencyPriceEmitter priceEmitter = new CryptoCurrencyPriceEmitter();
+        QueueBridge<Integer> bridge = new QueueBridge<>(BoundedQueue.spsc(16));
+
+        priceEmitter.setListener(new CryptoCurrencyPriceListener() {
+            @Override
+            public void onPrice(List<Integer> priceList) {
+                priceList.forEach(bridge::emit);
+            }
+
+            @Override
+            public void onComplete() {
+                bridge.complete();
+            }
+        });
+
+        bridge.asFlux()
+                .publishOn(Schedulers.parallel())
+                .subscribe(
+                        data -> log.info("# onNext: {}", data),
+                        error -> {},
+                        () -> log.info("# onComplete, maxDepth: {}", bridge.maxDepth())
+                );
+
+        priceEmitter.flowInto();
+        priceEmitter.complete();
+        Thread.sleep(200L);
+    }
+
+    /**
+     * <h3>producer 4개가 MPSC 큐 하나로 emit</h3>
+     * 큐가 가득 차면 emit() 이 false 를 리턴하므로 Producer 는 잠시 양보한 뒤 다시 시도함. 마지막에 rejected 횟수와 최대 depth 를 출력함.
+     */
+    private static void example2() throws InterruptedException {
+        int producers = 4;
+        QueueBridge<Integer> bridge = new QueueBridge<>(BoundedQueue.mpsc(1024));
+        CountDownLatch finished = new CountDownLatch(1);
+        long[] received = new long[1];
+
+        bridge.asFlux()
+                .publishOn(Schedulers.parallel())
+                .subscribe(data -> received[0]++, error -> {}, finished::countDown);
+
+        long start = System.nanoTime();
+        Thread[] threads = IntStream.range(0, producers)
+                .mapToObj(p -> new Thread(() -> {
+                    for (int i = 0; i < TICKS / producers; i++) {
+                        while (!bridge.emit(i)) {
+                            Thread.yield();
+                        }
+                    }
+                }))
+                .toArray(Thread[]::new);
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        bridge.complete();
+        finished.await();
+
+        log.info("# mpsc: received {} in {} ms, rejected: {}, maxDepth: {}/{}",
+                received[0], (System.nanoTime() - start) / 1_000_000,
+                bridge.rejected(), bridge.maxDepth(), bridge.capacity());
+    }
+
+    /**
+     * <h3>create() BUFFER 전략과 비교</h3>
+     * 같은 양의 데이터를 create() 로 emit 하면 큐 크기 제한이 없으므로 Subscriber 가 밀리는 만큼 큐가 커짐.
+     */
+    private static void example3() throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(1);
+        long[] received = new long[1];
+
+        long start = System.nanoTime();
+        Flux.create((FluxSink<Integer> sink) -> {
+                    for (int i = 0; i < TICKS; i++) {
+                        sink.next(i);
+                    }
+                    sink.complete();
+                })
+                .subscribeOn(Schedulers.single())
+                .publishOn(Schedulers.parallel())
+                .subscribe(data -> received[0]++, error -> {}, finished::countDown);
+        finished.await();
+
+        log.info("# create(BUFFER): received {} in {} ms", received[0], (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,50 @@
+package com.webflux.study.operator.multicast;
+
+import com.webflux.study.operator.MultiCoinPriceEmitter;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * <h2>코인별 Shard 로 나뉜 multicast Sinks</h2>
+ * <p>
+ *     {@link MultiCoinPriceEmitter} 는 코인마다 Shard 를 정하고 Shard 마다 별도의 multicast Sinks.Many 를 사용함.<br>
+ *     multicast Sinks 는 가장 느린 Subscriber 의 속도에 맞춰 데이터를 전달하므로, 느린 Subscriber 가 있는 Shard 만 버퍼가 차고
+ *     다른 Shard 의 Subscriber 는 영향을 받지 않음.
+ * </p>
+ */
+@Slf4j
+public class MultiCoinShard {
+    /**
+     * <h3>실행 결과</h3>
+     * <ul>
+     *     <li>ETH Subscriber 는 데이터 하나당 100ms 씩 지연되어 ETH Shard 의 버퍼가 가득 차고, 초과분은 drop 으로 카운트됨.</li>
+     *     <li>BTC Subscriber 는 ETH 와 다른 Shard 에 있으므로 지연 없이 모든 가격을 전달받음.</li>
+     *     <li>마지막에 Shard 별 emit 개수, drop 개수, 초당 처리량을 로그로 출력함.</li>
+     * </ul>
+     */
+    public static void main(String[] args) throws InterruptedException {
+        MultiCoinPriceEmitter priceEmitter = new MultiCoinPriceEmitter();
+
+        priceEmitter.prices("BTC")
+                .publishOn(Schedulers.parallel())
+                .subscribe(data -> log.info("# BTC onNext: {}", data.getPrice()));
+
+        priceEmitter.prices("ETH")
+                .publishOn(Schedulers.parallel(), 1)
+                .subscribe(data -> {
+                    try {
+                        Thread.sleep(100L);
+                    } catch (InterruptedException e) {}
+                });
+
+        for (int i = 0; i < 500; i++) { // 1ms 마다 가격 변동이 발생함.
+            priceEmitter.emit("BTC", 52_000_000 + i);
+            priceEmitter.emit("ETH", 1_720_000 + i);
+            Thread.sleep(1L);
+        }
+
+        Thread.sleep(500L);
+        priceEmitter.stats().forEach(stats -> log.info("# {}", stats));
+        priceEmitter.complete();
+    }
+}
@@ -0,0 +1,65 @@
+package com.webflux.study.operator.split;
+
+import com.webflux.study.operator.CoinPrice;
+import com.webflux.study.operator.MultiCoinPriceEmitter;
+import com.webflux.study.operator.candle.CandleAggregator;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+
+/**
+ * <h2>가격 Flux 를 OHLCV Candle 로 분할</h2>
+ * <p>
+ *     window() 나 bufferTimeout() 은 윈도우마다 Flux 나 List 를 만들어서 데이터를 모아야 하지만,
+ *     {@link CandleAggregator} 는 tick 이 들어올 때마다 현재 윈도우의 시가/고가/저가/종가/거래량만 갱신하고 윈도우가 닫힐 때 Candle 하나를 emit 함.
+ * </p>
+ */
+@Slf4j
+public class Candles {
+    public static void main(String[] args) throws InterruptedException {
+        example1();
+        log.info("---------------------------------------");
+        example2();
+    }
+
+    /**
+     * <h3>실행 결과</h3>
+     * <p>
+     *     100ms 간격의 tick 10분 치를 1분 tumbling window 와 1분마다 갱신되는 5분 sliding window 로 집계함.<br>
+     *     tumbling window 는 Candle 10개, sliding window 는 데이터가 포함된 윈도우 14개(10 + 마지막 4개의 부분 윈도우)가 emit 됨.
+     * </p>
+     */
+    private static void example1() {
+        Flux<CoinPrice> ticks = Flux.range(0, 6_000)
+                .map(i -> new CoinPrice("BTC", 52_000_000 + (i % 600) * 1_000, i * 100L));
+
+        CandleAggregator.candles(ticks, "BTC", Duration.ofMinutes(1))
+                .subscribe(candle -> log.info("# 1m candle: {}", candle));
+
+        CandleAggregator.candles(ticks, "BTC", Duration.ofMinutes(5), Duration.ofMinutes(1))
+                .subscribe(candle -> log.info("# 5m/1m candle: {}", candle));
+    }
+
+    /**
+     * <h3>실행 결과</h3>
+     * <p>
+     *     {@link MultiCoinPriceEmitter} 의 코인별 Flux 에 1초 Candle 을 적용함. emit 시점의 시각이 timestamp 로 사용되므로
+     *     1초 구간마다 하나의 Candle 이 만들어지고, complete() 호출 시 마지막 윈도우가 닫힘.
+     * </p>
+     */
+    private static void example2() throws InterruptedException {
+        MultiCoinPriceEmitter priceEmitter = new MultiCoinPriceEmitter();
+
+        for (String coinName : priceEmitter.getCoinNames()) {
+            CandleAggregator.candles(priceEmitter.prices(coinName), coinName, Duration.ofSeconds(1))
+                    .subscribe(candle -> log.info("# 1s candle: {}", candle));
+        }
+
+        for (int i = 0; i < 30; i++) {
+            priceEmitter.flowInto();
+            Thread.sleep(100L);
+        }
+        priceEmitter.complete();
+    }
+}
@@ -1,6 +1,7 @@
 package com.webflux.study.operator.split;
 
 import com.webflux.study.operator.SampleData;
+import com.webflux.study.operator.aggregate.RoyaltyAggregator;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -23,6 +24,8 @@ public class GroupBy {
      example2();
      log.info("==========================================");
      example3();
+     log.info("==========================================");
+     example4();
     }
 
     /**
@@ -89,4 +92,17 @@ public class GroupBy {
                 )
                 .subscribe(log::info);
     }
+
+    /**
+     * <h3>실행 결과</h3>
+     * <p>
+     *     example3() 과 같은 저자별 인세 합계를 groupBy() 없이 계산함. {@link RoyaltyAggregator} 가 한 번의 순회로
+     *     저자별 합계를 primitive long 맵에 누적하고, Upstream 이 완료되면 합계를 emit 함.
+     * </p>
+     */
+    private static void example4() {
+        RoyaltyAggregator.totals(Flux.fromIterable(SampleData.books))
+                .map(royalty -> royalty.getT1() + "'s royalty: " + royalty.getT2())
+                .subscribe(log::info);
+    }
 }
@@ -0,0 +1,55 @@
+package com.webflux.study.operator.split;
+
+import com.webflux.study.operator.SampleData;
+import com.webflux.study.operator.aggregate.BoundedGroupBy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+
+/**
+ * <h2>그룹 제거(eviction)가 있는 groupBy()</h2>
+ * <p>
+ *     {@link GroupBy} 의 예제는 유한한 데이터를 그룹화하지만, 끝나지 않는 스트림을 groupBy() 하면 GroupedFlux 가 계속 살아 있음.<br>
+ *     {@link BoundedGroupBy} 는 그룹 수를 제한하고, 오래 쓰이지 않은 그룹과 idle 상태의 그룹을 complete 시켜서 메모리를 일정하게 유지함.
+ * </p>
+ */
+@Slf4j
+public class GroupByEviction {
+    /**
+     * <h3>실행 결과</h3>
+     * <ul>
+     *     <li>1ms 마다 코인 가격이 emit 되며, 70%는 BTC 이고 나머지는 100ms 마다 바뀌는 다른 코인 하나와 10ms 마다 바뀌는 코인임.</li>
+     *     <li>동시에 유지되는 그룹은 최대 3개이므로 새 코인이 들어올 때마다 가장 오래 쓰이지 않은 그룹이 LRU 로 제거되고,
+     *     50ms 동안 데이터가 없던 그룹은 idle 로 제거됨.</li>
+     *     <li>그룹이 complete 될 때마다 그 그룹이 받은 가격 개수가 출력되고, 같은 코인의 데이터가 다시 들어오면 새 그룹이 만들어짐.</li>
+     *     <li>마지막에 살아 있는 그룹 수와 LRU/idle 제거 횟수, 초당 제거 횟수를 출력함.</li>
+     * </ul>
+     */
+    public static void main(String[] args) throws InterruptedException {
+        BoundedGroupBy<Long, String> groupBy =
+                new BoundedGroupBy<>(GroupByEviction::coinOf, 3, Duration.ofMillis(50L));
+
+        Flux.interval(Duration.ofMillis(1L))
+                .transform(groupBy::apply)
+                .flatMap(groupedFlux -> groupedFlux
+                        .count()
+                        .map(count -> groupedFlux.key() + ": " + count), 3)
+                .subscribe(data -> log.info("# group completed: {}", data));
+
+        Thread.sleep(1000L);
+        log.info("# live groups: {}, lru evictions: {}, idle evictions: {}, eviction rate: {}/s",
+                groupBy.liveGroups(), groupBy.lruEvictions(), groupBy.idleEvictions(),
+                String.format("%.1f", groupBy.evictionRate()));
+    }
+
+    private static String coinOf(long tick) {
+        if (tick % 10 < 7) {
+            return "BTC";
+        }
+        if (tick % 10 < 9) {
+            return SampleData.coinNames.get(1 + (int) (tick / 100 % 5));
+        }
+        return SampleData.coinNames.get(1 + (int) (tick / 10 % 5));
+    }
+}
@@ -0,0 +1,318 @@
+package com.webflux.study.sinks;
+
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * <h2>바이트 크기와 보관 시간으로 제한되는 replay Sinks</h2>
+ * <p>
+ *     Sinks.many().replay().limit(n) 은 데이터 개수로만 history 를 제한함.<br>
+ *     이 Sinks 는 history 전체의 바이트 크기(sizer 로 계산)가 maxBytes 를 넘거나, emit 된 지 maxAge 가 지난 데이터를 오래된 것부터 버림.
+ * </p>
+ * <p>
+ *     history 는 Linked Node 가 아닌 배열 기반 ring buffer(데이터, emit 시각, 크기를 각각 배열로 보관)에 저장함.<br>
+ *     늦게 구독한 Subscriber 에게는 ring buffer 를 REPLAY_BATCH 개씩 배열로 복사(ring 이 한 바퀴 돈 경우 두 구간)해서 요청받은 만큼 replay 하고,
+ *     history 를 모두 따라잡은 뒤에야 Subscriber 별 unicast Sinks 에 등록해서 이후에 emit 된 데이터를 이어서 전달함.<br>
+ *     replay 하는 동안 emit 된 데이터는 live 큐가 아니라 history 에서 읽으므로, history 가 길어도 replay 도중에 live 큐가 넘치지 않음.
+ *     replay 가 느려서 아직 전달하지 못한 데이터가 history 에서 버려지면 그 데이터는 건너뜀.
+ * </p>
+ * <p>
+ *     Subscriber 별 unicast Sinks 의 큐는 liveBufferSize 개로 제한되므로, 느린 Subscriber 가 있어도 heap 사용량은
+ *     maxBytes 와 (Subscriber 수 * liveBufferSize) 를 넘지 않음. 큐가 가득 찼을 때의 동작은 {@link Overflow} 로 정함.
+ * </p>
+ * <p>
+ *     Subscriber 에게 전달하는 것은 lock 밖에서 하므로 느린 Subscriber 가 구독이나 조회를 막지 않음.
+ *     대신 tryEmitNext() 는 Sinks.Many 와 마찬가지로 한 번에 한 스레드에서만 호출해야 함.
+ * </p>
+ */
+public class BoundedReplaySink<T> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int REPLAY_BATCH = 256;
+
+    /**
+     * Subscriber 의 실시간 데이터 큐가 가득 찼을 때의 동작.
+     */
+    public enum Overflow {
+        /** 새로 emit 된 데이터를 그 Subscriber 에게만 전달하지 않음. Subscriber 는 큐에 남아 있는 데이터를 이어서 받음. */
+        DROP_LATEST,
+        /** 그 Subscriber 를 해제하고 큐에 남은 데이터를 전달한 뒤 overflow 에러를 전달함. */
+        ERROR
+    }
+
+    private final long maxBytes;
+    private final long maxAgeMillis;
+    private final ToLongFunction<? super T> sizer;
+    private final Scheduler clock;
+    private final int liveBufferSize;
+    private final Overflow overflow;
+    private final LongAdder dropped = new LongAdder();
+    // lock 안에서 복사해서 바꾸고, emit 할 때는 lock 안에서 읽은 배열을 lock 밖에서 사용함.
+    @SuppressWarnings("unchecked")
+    private volatile Sinks.Many<T>[] subscribers = new Sinks.Many[0];
+
+    // 아래 필드는 모두 this 를 lock 으로 접근함.
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private long[] sizes = new long[INITIAL_CAPACITY];
+    private int head;
+    private int count;
+    /** 지금까지 append 된 데이터 수. history 의 첫 데이터 순번은 tail - count 임. */
+    private long tail;
+    private long bytes;
+    private long evictedByBytes;
+    private long evictedByAge;
+    private boolean done;
+    private Throwable error;
+
+    public BoundedReplaySink(long maxBytes, Duration maxAge, ToLongFunction<? super T> sizer) {
+        this(maxBytes, maxAge, sizer, Schedulers.parallel());
+    }
+
+    /**
+     * @param clock emit 시각을 구할 때 사용함. 테스트에서는 VirtualTimeScheduler 를 넘길 수 있음.
+     */
+    public BoundedReplaySink(long maxBytes, Duration maxAge, ToLongFunction<? super T> sizer, Scheduler clock) {
+        this(maxBytes, maxAge, sizer, clock, Queues.SMALL_BUFFER_SIZE, Overflow.ERROR);
+    }
+
+    /**
+     * @param liveBufferSize Subscriber 마다 아직 전달하지 못한 실시간 데이터를 보관하는 최대 개수. Queues.get() 을 사용하므로 8 이상의 2의 거듭제곱으로 올림됨.
+     * @param overflow liveBufferSize 를 넘었을 때의 동작
+     */
+    public BoundedReplaySink(long maxBytes, Duration maxAge, ToLongFunction<? super T> sizer, Scheduler clock,
+                             int liveBufferSize, Overflow overflow) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        }
+        if (liveBufferSize <= 0) {
+            throw new IllegalArgumentException("liveBufferSize must be positive: " + liveBufferSize);
+        }
+        this.maxBytes = maxBytes;
+        this.maxAgeMillis = maxAge.toMillis();
+        this.sizer = sizer;
+        this.clock = clock;
+        this.liveBufferSize = liveBufferSize;
+        this.overflow = overflow;
+    }
+
+    public Sinks.EmitResult tryEmitNext(T value) {
+        Sinks.Many<T>[] targets;
+        synchronized (this) {
+            if (done) {
+                return Sinks.EmitResult.FAIL_TERMINATED;
+            }
+            long now = clock.now(TimeUnit.MILLISECONDS);
+            append(value, now, sizer.applyAsLong(value));
+            evict(now);
+            // append 와 같은 lock 안에서 읽어야 history 와 live 로 중복되거나 빠지는 데이터가 없음.
+            targets = subscribers;
+        }
+        for (Sinks.Many<T> subscriber : targets) {
+            if (subscriber.tryEmitNext(value) == Sinks.EmitResult.FAIL_OVERFLOW) {
+                dropped.increment();
+                if (overflow == Overflow.ERROR) {
+                    remove(subscriber);
+                    subscriber.tryEmitError(Exceptions.failWithOverflow(
+                            "live buffer of " + liveBufferSize + " elements is full"));
+                }
+            }
+        }
+        return Sinks.EmitResult.OK;
+    }
+
+    public Sinks.EmitResult tryEmitComplete() {
+        return terminate(null);
+    }
+
+    public Sinks.EmitResult tryEmitError(Throwable e) {
+        return terminate(e);
+    }
+
+    /**
+     * 구독 시점에 남아 있는 history 를 먼저 전달한 뒤, 이후에 emit 되는 데이터를 이어서 전달함.
+     */
+    public Flux<T> asFlux() {
+        return Flux.defer(() -> {
+            Sinks.Many<T> live = Sinks.many().unicast().onBackpressureBuffer(Queues.<T>get(liveBufferSize).get());
+            long start;
+            synchronized (this) {
+                evict(clock.now(TimeUnit.MILLISECONDS));
+                start = tail - count;
+            }
+            return Flux.<Object[], Long>generate(() -> start, (next, batch) -> {
+                        synchronized (this) {
+                            evict(clock.now(TimeUnit.MILLISECONDS));
+                            long from = Math.max(next, tail - count);
+                            if (from == tail) {
+                                // history 를 모두 따라잡았으므로 이후 데이터는 live 로 받음.
+                                if (done) {
+                                    if (error != null) {
+                                        live.tryEmitError(error);
+                                    } else {
+                                        live.tryEmitComplete();
+                                    }
+                                } else {
+                                    add(live);
+                                }
+                                batch.complete();
+                                return from;
+                            }
+                            Object[] page = copy(from, (int) Math.min(REPLAY_BATCH, tail - from));
+                            batch.next(page);
+                            return from + page.length;
+                        }
+                    })
+                    // fusion 을 막아서 Subscriber 의 요청과 상관없이 다음 구간을 하나 미리 읽음.
+                    // history 가 비어 있으면 구독하자마자 live 에 등록되어 그 뒤의 데이터부터 live 버퍼 제한을 받음.
+                    .hide()
+                    .concatMapIterable(BoundedReplaySink::<T>asList, 1)
+                    .concatWith(live.asFlux())
+                    .doFinally(signal -> remove(live));
+        });
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    public synchronized long evictedByBytes() {
+        return evictedByBytes;
+    }
+
+    public synchronized long evictedByAge() {
+        return evictedByAge;
+    }
+
+    /**
+     * 실시간 데이터 큐가 가득 차서 Subscriber 에게 전달하지 못한 횟수.
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    public int subscriberCount() {
+        return subscribers.length;
+    }
+
+    private Sinks.EmitResult terminate(Throwable e) {
+        Sinks.Many<T>[] targets;
+        synchronized (this) {
+            if (done) {
+                return Sinks.EmitResult.FAIL_TERMINATED;
+            }
+            done = true;
+            error = e;
+            targets = subscribers;
+            subscribers = Arrays.copyOf(targets, 0);
+        }
+        for (Sinks.Many<T> subscriber : targets) {
+            if (e != null) {
+                subscriber.tryEmitError(e);
+            } else {
+                subscriber.tryEmitComplete();
+            }
+        }
+        return Sinks.EmitResult.OK;
+    }
+
+    private synchronized void add(Sinks.Many<T> subscriber) {
+        Sinks.Many<T>[] current = subscribers;
+        Sinks.Many<T>[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = subscriber;
+        subscribers = next;
+    }
+
+    private synchronized void remove(Sinks.Many<T> subscriber) {
+        Sinks.Many<T>[] current = subscribers;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == subscriber) {
+                Sinks.Many<T>[] next = Arrays.copyOf(current, current.length - 1);
+                System.arraycopy(current, i + 1, next, i, current.length - i - 1);
+                subscribers = next;
+                return;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> asList(Object[] values) {
+        return Arrays.asList((T[]) values);
+    }
+
+    private void append(T value, long now, long size) {
+        if (count == values.length) {
+            grow();
+        }
+        int index = (head + count) & (values.length - 1);
+        values[index] = value;
+        timestamps[index] = now;
+        sizes[index] = size;
+        count++;
+        tail++;
+        bytes += size;
+    }
+
+    private void evict(long now) {
+        // 방금 넣은 데이터 하나가 maxBytes 보다 크더라도 최소 한 개는 남겨둠.
+        while (count > 1 && bytes > maxBytes) {
+            removeHead();
+            evictedByBytes++;
+        }
+        while (count > 0 && now - timestamps[head] > maxAgeMillis) {
+            removeHead();
+            evictedByAge++;
+        }
+    }
+
+    private void removeHead() {
+        bytes -= sizes[head];
+        values[head] = null;
+        head = (head + 1) & (values.length - 1);
+        count--;
+    }
+
+    /**
+     * 순번이 from 인 데이터부터 length 개를 복사함.
+     */
+    private Object[] copy(long from, int length) {
+        Object[] copy = new Object[length];
+        int start = (head + (int) (from - (tail - count))) & (values.length - 1);
+        int firstPart = Math.min(length, values.length - start);
+        System.arraycopy(values, start, copy, 0, firstPart);
+        System.arraycopy(values, 0, copy, firstPart, length - firstPart);
+        return copy;
+    }
+
+    private void grow() {
+        int capacity = values.length << 1;
+        Object[] newValues = new Object[capacity];
+        long[] newTimestamps = new long[capacity];
+        long[] newSizes = new long[capacity];
+        int firstPart = values.length - head;
+        System.arraycopy(values, head, newValues, 0, firstPart);
+        System.arraycopy(values, 0, newValues, firstPart, head);
+        System.arraycopy(timestamps, head, newTimestamps, 0, firstPart);
+        System.arraycopy(timestamps, 0, newTimestamps, firstPart, head);
+        System.arraycopy(sizes, head, newSizes, 0, firstPart);
+        System.arraycopy(sizes, 0, newSizes, firstPart, head);
+        values = newValues;
+        timestamps = newTimestamps;
+        sizes = newSizes;
+        head = 0;
+    }
+}
@@ -0,0 +1,56 @@
+package com.webflux.study.sinks;
+
+import com.webflux.study.operator.CoinPrice;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link CoinPrice} 를 [이름 길이(byte)][이름(UTF-8)][가격(int)][시각(long)] 형태로 쓰고 읽는 codec.
+ */
+public class CoinPriceCodec implements ElementCodec<CoinPrice> {
+    private static final int MAX_NAME_BYTES = 0xFF;
+
+    @Override
+    public int encodedSize(CoinPrice value) {
+        int nameBytes = utf8Length(value.getCoinName());
+        if (nameBytes > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("coin name is longer than " + MAX_NAME_BYTES + " bytes: " + value.getCoinName());
+        }
+        return 1 + nameBytes + Integer.BYTES + Long.BYTES;
+    }
+
+    @Override
+    public void encode(CoinPrice value, ByteBuffer buffer) {
+        byte[] name = value.getCoinName().getBytes(StandardCharsets.UTF_8);
+        buffer.put((byte) name.length).put(name).putInt(value.getPrice()).putLong(value.getTimestamp());
+    }
+
+    @Override
+    public CoinPrice decode(ByteBuffer buffer) {
+        byte[] name = new byte[buffer.get() & 0xFF];
+        buffer.get(name);
+        return new CoinPrice(new String(name, StandardCharsets.UTF_8), buffer.getInt(), buffer.getLong());
+    }
+
+    /**
+     * encode() 가 쓰는 UTF-8 바이트 수를 byte[] 를 만들지 않고 셈.
+     */
+    static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3; // 짝이 없는 surrogate 는 getBytes() 가 '?' 로 바꾸지만, 크게 잡아도 문제없음.
+            }
+        }
+        return length;
+    }
+}
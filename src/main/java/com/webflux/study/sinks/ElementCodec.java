@@ -0,0 +1,35 @@
+package com.webflux.study.sinks;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <h2>데이터를 ByteBuffer 에 쓰고 읽는 codec</h2>
+ * <p>
+ *     heap 밖(파일, direct buffer)에 데이터를 보관할 때 사용함.<br>
+ *     encode() 는 buffer 의 현재 position 부터 정확히 encodedSize() 만큼 쓰고, decode() 는 같은 만큼 읽어야 함.
+ * </p>
+ */
+public interface ElementCodec<T> {
+    ElementCodec<Integer> INT = new ElementCodec<>() {
+        @Override
+        public int encodedSize(Integer value) {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void encode(Integer value, ByteBuffer buffer) {
+            buffer.putInt(value);
+        }
+
+        @Override
+        public Integer decode(ByteBuffer buffer) {
+            return buffer.getInt();
+        }
+    };
+
+    int encodedSize(T value);
+
+    void encode(T value, ByteBuffer buffer);
+
+    T decode(ByteBuffer buffer);
+}
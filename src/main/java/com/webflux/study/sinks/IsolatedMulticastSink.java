@@ -0,0 +1,313 @@
+package com.webflux.study.sinks;
+
+import com.webflux.study.operator.bridge.BoundedQueue;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <h2>Subscriber 마다 버퍼를 따로 두는 multicast Sinks</h2>
+ * <p>
+ *     Sinks.many().multicast() 는 모든 Subscriber 에게 같은 속도로 emit 하기 때문에 느린 Subscriber 하나가 나머지 Subscriber 까지 느리게 만듦.
+ * </p>
+ * <p>
+ *     이 Sinks 는 Subscriber 마다 크기가 bufferSize 인 버퍼와 전용 Worker 를 두고, emit 은 각 버퍼에 넣기만 함.<br>
+ *     어떤 Subscriber 의 버퍼가 가득 차면 그 Subscriber 에게만 {@link Overflow} 정책을 적용하므로 다른 Subscriber 는 영향을 받지 않음.
+ * </p>
+ * <ul>
+ *     <li>DROP: 새 데이터를 버림.</li>
+ *     <li>CONFLATE: 버퍼가 빌 때까지 넘친 데이터 중 가장 최근 것 하나만 남김.</li>
+ *     <li>DISCONNECT: 버퍼를 비우고 overflow 에러로 구독을 끊음.</li>
+ * </ul>
+ * <p>
+ *     tryEmitNext() 는 Sinks.Many 와 마찬가지로 한 번에 한 스레드에서만 호출해야 함.
+ * </p>
+ */
+public class IsolatedMulticastSink<T> {
+    public enum Overflow {
+        DROP, CONFLATE, DISCONNECT
+    }
+
+    private final int bufferSize;
+    private final Overflow overflow;
+    private final Scheduler scheduler;
+    private final List<Inner<T>> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+    private volatile boolean done;
+    private volatile Throwable error;
+
+    public IsolatedMulticastSink(int bufferSize, Overflow overflow) {
+        this(bufferSize, overflow, Schedulers.boundedElastic());
+    }
+
+    public IsolatedMulticastSink(int bufferSize, Overflow overflow, Scheduler scheduler) {
+        this.bufferSize = bufferSize;
+        this.overflow = overflow;
+        this.scheduler = scheduler;
+    }
+
+    public Sinks.EmitResult tryEmitNext(T value) {
+        if (done) {
+            return Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        if (subscribers.isEmpty()) {
+            return Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER;
+        }
+        for (Inner<T> inner : subscribers) {
+            inner.offer(value);
+        }
+        return Sinks.EmitResult.OK;
+    }
+
+    public Sinks.EmitResult tryEmitComplete() {
+        return terminate(null);
+    }
+
+    public Sinks.EmitResult tryEmitError(Throwable e) {
+        return terminate(e);
+    }
+
+    public Flux<T> asFlux() {
+        return Flux.from((Publisher<T>) this::subscribe);
+    }
+
+    public int currentSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * 현재 구독 중인 Subscriber 별 지연(lag)과 overflow 처리 현황.
+     */
+    public List<SubscriberStats> stats() {
+        List<SubscriberStats> stats = new ArrayList<>(subscribers.size());
+        for (Inner<T> inner : subscribers) {
+            stats.add(inner.stats());
+        }
+        return stats;
+    }
+
+    private void subscribe(org.reactivestreams.Subscriber<? super T> subscriber) {
+        CoreSubscriber<? super T> actual = Operators.toCoreSubscriber(subscriber);
+        Inner<T> inner = new Inner<>(this, actual, ids.incrementAndGet());
+        actual.onSubscribe(inner);
+        subscribers.add(inner);
+        if (done) {
+            // 구독 도중에 종료된 경우에도 종료 Signal 을 놓치지 않도록 다시 확인함.
+            subscribers.remove(inner);
+            inner.terminate(error);
+        }
+    }
+
+    private Sinks.EmitResult terminate(Throwable e) {
+        if (done) {
+            return Sinks.EmitResult.FAIL_TERMINATED;
+        }
+        error = e;
+        done = true;
+        for (Inner<T> inner : subscribers) {
+            inner.terminate(e);
+        }
+        subscribers.clear();
+        return Sinks.EmitResult.OK;
+    }
+
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static class SubscriberStats {
+        private final long id;
+        /** 버퍼에 쌓여서 아직 전달되지 않은 데이터 수 */
+        private final long lag;
+        private final long maxLag;
+        private final long delivered;
+        private final long dropped;
+        private final long conflated;
+        private final boolean disconnected;
+    }
+
+    private static class Inner<T> implements Subscription {
+        private final IsolatedMulticastSink<T> parent;
+        private final CoreSubscriber<? super T> actual;
+        private final long id;
+        private final BoundedQueue<T> queue;
+        private final AtomicReference<T> latest = new AtomicReference<>();
+        private final Scheduler.Worker worker;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private volatile boolean cancelled;
+        private volatile boolean done;
+        private volatile boolean disconnected;
+        private Throwable error;
+
+        // Producer(emit 하는 스레드)만 쓰는 값
+        private volatile long maxLag;
+        private volatile long dropped;
+        private volatile long conflated;
+        // Worker 만 쓰는 값
+        private volatile long delivered;
+
+        private Inner(IsolatedMulticastSink<T> parent, CoreSubscriber<? super T> actual, long id) {
+            this.parent = parent;
+            this.actual = actual;
+            this.id = id;
+            this.queue = BoundedQueue.spsc(parent.bufferSize);
+            this.worker = parent.scheduler.createWorker();
+        }
+
+        private void offer(T value) {
+            if (cancelled || done) {
+                return;
+            }
+            // CONFLATE 중에는 순서를 지키기 위해 latest 가 비워질 때까지 버퍼에 넣지 않음.
+            if (latest.get() == null && queue.offer(value)) {
+                recordLag(queue.size());
+                schedule();
+                return;
+            }
+            switch (parent.overflow) {
+                case DROP:
+                    dropped++;
+                    break;
+                case CONFLATE:
+                    if (latest.getAndSet(value) != null) {
+                        conflated++;
+                    }
+                    recordLag(queue.size() + 1L);
+                    schedule();
+                    break;
+                case DISCONNECT:
+                    parent.subscribers.remove(this);
+                    disconnected = true;
+                    schedule();
+                    break;
+            }
+        }
+
+        private void recordLag(long lag) {
+            if (lag > maxLag) {
+                maxLag = lag;
+            }
+        }
+
+        private void terminate(Throwable e) {
+            error = e;
+            done = true;
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                requested.getAndUpdate(r -> Operators.addCap(r, n));
+                schedule();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            parent.subscribers.remove(this);
+            schedule();
+        }
+
+        private SubscriberStats stats() {
+            long lag = queue.size() + (latest.get() != null ? 1 : 0);
+            return new SubscriberStats(id, lag, maxLag, delivered, dropped, conflated, disconnected);
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                worker.schedule(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            for (;;) {
+                long r = requested.get();
+                long e = 0;
+                while (e != r) {
+                    if (checkTerminated(done, false)) {
+                        return;
+                    }
+                    boolean d = done;
+                    T value = poll();
+                    if (checkTerminated(d, value == null)) {
+                        return;
+                    }
+                    if (value == null) {
+                        break;
+                    }
+                    actual.onNext(value);
+                    delivered++;
+                    e++;
+                }
+                if (e == r && checkTerminated(done, queue.isEmpty() && latest.get() == null)) {
+                    return;
+                }
+                if (e != 0 && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-e);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        private T poll() {
+            T value = queue.poll();
+            return value != null ? value : latest.getAndSet(null);
+        }
+
+        private boolean checkTerminated(boolean d, boolean empty) {
+            if (cancelled) {
+                clear();
+                return true;
+            }
+            if (disconnected) {
+                clear();
+                cancelled = true;
+                actual.onError(Exceptions.failWithOverflow(
+                        "subscriber " + id + " could not keep up with " + parent.bufferSize + " buffered elements"));
+                return true;
+            }
+            if (d && empty) {
+                cancelled = true;
+                worker.dispose();
+                if (error != null) {
+                    actual.onError(error);
+                } else {
+                    actual.onComplete();
+                }
+                return true;
+            }
+            return false;
+        }
+
+        private void clear() {
+            while (queue.poll() != null) {
+                // 버퍼를 비움.
+            }
+            latest.set(null);
+            worker.dispose();
+        }
+    }
+}
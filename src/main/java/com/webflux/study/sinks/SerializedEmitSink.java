@@ -0,0 +1,152 @@
+package com.webflux.study.sinks;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <h2>여러 스레드에서 동시에 emit 할 수 있는 Sinks.Many 래퍼</h2>
+ * <p>
+ *     Sinks.Many 에 여러 스레드가 동시에 emitNext() 를 호출하면 하나만 성공하고 나머지는 FAIL_NON_SERIALIZED 로 실패하기 때문에
+ *     보통 EmitFailureHandler 에서 성공할 때까지 재시도(busy loop)함.
+ * </p>
+ * <p>
+ *     이 래퍼는 emit 할 데이터를 lock-free MPSC 큐에 넣고, 큐를 비우는 drain loop 는 wip 카운터를 먼저 올린 스레드 하나만 실행함.<br>
+ *     다른 스레드가 drain 중이면 데이터를 큐에 넣기만 하고 바로 리턴하므로(contended), 기다리거나 재시도하지 않음.
+ *     drain 을 맡은 스레드는 그 사이에 들어온 다른 스레드의 데이터까지 함께 emit 함.
+ * </p>
+ * <p>
+ *     종료 Signal 은 먼저 호출된 emitComplete()/emitError() 하나만 받아들이고, 원본 Sinks 에는 한 번만 보냄.<br>
+ *     종료 Signal 을 보낸 뒤에 큐에 들어온 데이터는 emit 하지 않고 failed 로 셈.
+ * </p>
+ */
+public class SerializedEmitSink<T> {
+    private final Sinks.Many<T> delegate;
+    private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final LongAdder offered = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicLong maxDrainBatch = new AtomicLong();
+    private final AtomicBoolean terminating = new AtomicBoolean();
+    private volatile boolean done;
+    private volatile Throwable error;
+    private boolean terminated; // drain 중인 스레드만 읽고 씀
+
+    public SerializedEmitSink(Sinks.Many<T> delegate) {
+        this.delegate = delegate;
+    }
+
+    public void emitNext(T value) {
+        if (done) {
+            failed.increment();
+            return;
+        }
+        queue.offer(value);
+        offered.increment();
+        drain();
+    }
+
+    /**
+     * 여러 데이터를 큐에 넣고 drain 은 한 번만 시도함.
+     */
+    public void emitNextAll(Collection<? extends T> values) {
+        if (done) {
+            failed.add(values.size());
+            return;
+        }
+        queue.addAll(values);
+        offered.add(values.size());
+        drain();
+    }
+
+    /**
+     * 이미 큐에 들어간 데이터를 모두 emit 한 뒤에 onComplete Signal 을 보냄.
+     */
+    public void emitComplete() {
+        if (!terminating.compareAndSet(false, true)) {
+            return;
+        }
+        done = true;
+        drain();
+    }
+
+    public void emitError(Throwable e) {
+        if (!terminating.compareAndSet(false, true)) {
+            return;
+        }
+        error = e;
+        done = true;
+        drain();
+    }
+
+    public Flux<T> asFlux() {
+        return delegate.asFlux();
+    }
+
+    public long offered() {
+        return offered.sum();
+    }
+
+    /**
+     * 다른 스레드가 drain 중이어서 데이터만 넘기고 리턴한 emit 횟수.
+     */
+    public long contended() {
+        return contended.sum();
+    }
+
+    /**
+     * 원본 Sinks 가 거부한(예: 버퍼 초과, 구독 취소) 데이터 수.
+     */
+    public long failed() {
+        return failed.sum();
+    }
+
+    /**
+     * drain loop 한 번에 emit 한 최대 데이터 수.
+     */
+    public long maxDrainBatch() {
+        return maxDrainBatch.get();
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            contended.increment();
+            return;
+        }
+        int missed = 1;
+        long batch = 0;
+        for (;;) {
+            T value;
+            while ((value = queue.poll()) != null) {
+                if (terminated || delegate.tryEmitNext(value).isFailure()) {
+                    failed.increment();
+                } else {
+                    batch++;
+                }
+            }
+            if (!terminated && done && queue.isEmpty()) {
+                terminated = true;
+                Throwable e = error;
+                if (e != null) {
+                    delegate.tryEmitError(e);
+                } else {
+                    delegate.tryEmitComplete();
+                }
+            }
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                break;
+            }
+        }
+        // wip 를 내려놓은 뒤에 기록하므로 다음 drain 스레드와 동시에 기록할 수 있음.
+        maxDrainBatch.accumulateAndGet(batch, Math::max);
+    }
+}
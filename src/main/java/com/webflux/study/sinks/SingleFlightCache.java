@@ -0,0 +1,168 @@
+package com.webflux.study.sinks;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * <h2>Sinks.One 으로 같은 key 의 요청을 하나로 합치는(single-flight) 캐시</h2>
+ * <p>
+ *     같은 key 로 동시에 들어온 요청은 먼저 도착한 요청 하나만 loader 를 구독하고, 나머지 요청은 그 요청의 Sinks.One 을 함께 구독함.<br>
+ *     Sinks.One 은 emit 된 값을 나중에 구독한 Subscriber 에게도 전달하므로, 완료된 값은 ttl 동안 그대로 캐시로 사용함.
+ * </p>
+ * <p>
+ *     loader 가 에러나 빈 값으로 끝나면 기다리던 요청에는 그대로 전달하지만 캐시에는 남기지 않음.<br>
+ *     loader 는 요청한 Subscriber 와 별개로 구독되므로, 먼저 요청한 Subscriber 가 취소해도 다른 요청에는 값이 전달됨.
+ * </p>
+ * <p>
+ *     만료된 값은 같은 key 로 다시 요청될 때 교체되지만, 다시 요청되지 않는 key 가 많으면 계속 남게 됨.
+ *     그래서 get() 을 호출할 때 마지막 정리 이후 ttl 이 지났으면 그 호출 하나가 만료된 값을 모두 지움.
+ *     별도의 타이머 없이 ttl 마다 한 번만 전체를 훑으므로, get() 이 계속 호출되는 동안 캐시에는 최근 ttl 의 두 배 동안 적재된 key 만 남음.
+ *     한동안 get() 이 없을 때 바로 정리하려면 evictExpired() 를 호출하면 됨.
+ * </p>
+ */
+public class SingleFlightCache<K, V> {
+    private static final long IN_FLIGHT = Long.MAX_VALUE;
+
+    private final long ttlMillis;
+    private final Scheduler clock;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final AtomicLong nextSweepAt;
+
+    public SingleFlightCache(Duration ttl) {
+        this(ttl, Schedulers.parallel());
+    }
+
+    /**
+     * @param clock 만료 시각을 구할 때 사용함. 테스트에서는 VirtualTimeScheduler 를 넘길 수 있음.
+     */
+    public SingleFlightCache(Duration ttl, Scheduler clock) {
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.nextSweepAt = new AtomicLong(clock.now(TimeUnit.MILLISECONDS) + ttlMillis);
+    }
+
+    public Mono<V> get(K key, Function<? super K, ? extends Mono<? extends V>> loader) {
+        return Mono.defer(() -> {
+            long now = clock.now(TimeUnit.MILLISECONDS);
+            sweepIfDue(now);
+            Entry<V> created = new Entry<>();
+            Entry<V> entry = entries.compute(key, (k, existing) ->
+                    existing != null && existing.expiresAt > now ? existing : created);
+            if (entry == created) {
+                loads.increment();
+                load(key, entry, loader);
+            } else if (entry.expiresAt == IN_FLIGHT) {
+                coalesced.increment();
+            } else {
+                hits.increment();
+            }
+            return entry.sink.asMono();
+        });
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * 만료된 값을 모두 지움. 진행 중인 loader 는 지우지 않음.
+     */
+    public void evictExpired() {
+        long now = clock.now(TimeUnit.MILLISECONDS);
+        nextSweepAt.set(now + ttlMillis);
+        sweep(now);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * loader 를 실제로 구독한 횟수.
+     */
+    public long loads() {
+        return loads.sum();
+    }
+
+    /**
+     * 캐시된 값을 바로 돌려준 횟수.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * 진행 중인 loader 에 합류한 횟수.
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * 만료되어 정리된 값의 개수. 같은 key 로 다시 요청되어 교체된 값은 세지 않음.
+     */
+    public long expired() {
+        return expired.sum();
+    }
+
+    private void sweepIfDue(long now) {
+        long due = nextSweepAt.get();
+        // 여러 스레드가 동시에 due 를 지나도 CAS 에 성공한 하나만 정리함.
+        if (now >= due && nextSweepAt.compareAndSet(due, now + ttlMillis)) {
+            sweep(now);
+        }
+    }
+
+    private void sweep(long now) {
+        entries.forEach((key, entry) -> {
+            if (entry.expiresAt <= now && entries.remove(key, entry)) {
+                expired.increment();
+            }
+        });
+    }
+
+    private void load(K key, Entry<V> entry, Function<? super K, ? extends Mono<? extends V>> loader) {
+        Mono<? extends V> source;
+        try {
+            source = loader.apply(key);
+        } catch (Throwable e) {
+            entries.remove(key, entry);
+            entry.sink.tryEmitError(e);
+            return;
+        }
+        source.subscribe(
+                value -> {
+                    entry.expiresAt = clock.now(TimeUnit.MILLISECONDS) + ttlMillis;
+                    entry.sink.tryEmitValue(value);
+                },
+                error -> {
+                    entries.remove(key, entry);
+                    entry.sink.tryEmitError(error);
+                },
+                () -> {
+                    if (entry.expiresAt == IN_FLIGHT) { // 값 없이 완료된 경우
+                        entries.remove(key, entry);
+                        entry.sink.tryEmitEmpty();
+                    }
+                });
+    }
+
+    private static class Entry<V> {
+        private final Sinks.One<V> sink = Sinks.one();
+        private volatile long expiresAt = IN_FLIGHT;
+    }
+}
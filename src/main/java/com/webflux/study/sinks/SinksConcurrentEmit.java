@@ -0,0 +1,68 @@
+package com.webflux.study.sinks;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * <h2>여러 스레드에서 Sinks 로 emit 하기</h2>
+ * {@link SinksExample2} 처럼 여러 스레드가 같은 unicast Sinks 로 emit 하는 상황을 세 가지 방식으로 비교함.
+ * <ul>
+ *     <li>FAIL_FAST: 동시에 emit 한 스레드 중 하나만 성공하고 나머지는 FAIL_NON_SERIALIZED 로 데이터를 잃어버림.</li>
+ *     <li>busyLooping: 성공할 때까지 재시도하므로 데이터는 잃지 않지만, 경쟁하는 스레드가 CPU 를 소모하며 기다림.</li>
+ *     <li>{@link SerializedEmitSink}: MPSC 큐에 넣고 한 스레드만 drain 하므로 기다리지 않음.</li>
+ * </ul>
+ */
+@Slf4j
+public class SinksConcurrentEmit {
+    private static final int PRODUCERS = 8;
+    private static final int EMITS_PER_PRODUCER = 200_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        for (int round = 0; round < 2; round++) {
+            Sinks.Many<Integer> failFast = Sinks.many().unicast().onBackpressureBuffer();
+            AtomicLong failFastReceived = subscribe(failFast);
+            long elapsed = run(n -> failFast.tryEmitNext(n));
+            log.info("# FAIL_FAST: {} ms, received: {}", elapsed, failFastReceived.get());
+
+            Sinks.Many<Integer> busyLoop = Sinks.many().unicast().onBackpressureBuffer();
+            AtomicLong busyLoopReceived = subscribe(busyLoop);
+            Sinks.EmitFailureHandler retry = Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1));
+            elapsed = run(n -> busyLoop.emitNext(n, retry));
+            log.info("# busyLooping: {} ms, received: {}", elapsed, busyLoopReceived.get());
+
+            SerializedEmitSink<Integer> serialized =
+                    new SerializedEmitSink<>(Sinks.many().unicast().onBackpressureBuffer());
+            AtomicLong serializedReceived = new AtomicLong();
+            serialized.asFlux().subscribe(data -> serializedReceived.incrementAndGet());
+            elapsed = run(serialized::emitNext);
+            log.info("# SerializedEmitSink: {} ms, received: {}, contended: {}, max drain batch: {}",
+                    elapsed, serializedReceived.get(), serialized.contended(), serialized.maxDrainBatch());
+        }
+    }
+
+    private static AtomicLong subscribe(Sinks.Many<Integer> sink) {
+        AtomicLong received = new AtomicLong();
+        sink.asFlux().subscribe(data -> received.incrementAndGet());
+        return received;
+    }
+
+    private static long run(Consumer<Integer> emitter) throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(PRODUCERS);
+        long start = System.nanoTime();
+        for (int p = 0; p < PRODUCERS; p++) {
+            new Thread(() -> {
+                for (int i = 0; i < EMITS_PER_PRODUCER; i++) {
+                    emitter.accept(i);
+                }
+                finished.countDown();
+            }).start();
+        }
+        finished.await();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
@@ -8,7 +8,7 @@ import reactor.core.scheduler.Schedulers;
 import java.util.stream.IntStream;
 
 /**
- * doTask() 메서드가 루프를 돌 때마다 새로운 스레드에서 실행됨.<br>
+ * doTask() 메서드를 {@link TaskEmitter} 에 제출해서 실행함.<br>
  * 그리고 doTask() 메서드의 작업 처리 결과를 Sinks 를 통해서 Downstream 에 emit 함.
  */
 @Slf4j
@@ -16,9 +16,12 @@ public class SinksExample2 {
     /**
      * <h2>실행 결과</h2>
      * <p>
-     *     doTask() 메서드는 새로운 루프를 돌 때마다 새로운 스레드에서 실행되기 때문에 총 5개의 스레드(Thread-0 ~ Thread-2) 에서 실행
-     *     mpa() Operator에서의 가공 처리는 parallel-2 스레드, Subscriber 에서 전달받은 데이터의 처리는 parallel-1 스레드에서 실행되어
-     *     총 7개의 스레드가 실행됨.
+     *     예전에는 doTask() 를 루프를 돌 때마다 new Thread() 로 실행하고 100ms 씩 쉬었기 때문에 작업 수만큼 스레드(Thread-0 ~ Thread-4)가 생성되었음.<br>
+     *     지금은 TaskEmitter 가 JDK 21 이상이면 Virtual Thread 에서, 그 외에는 크기가 2인 스레드 풀(task-emitter-1 ~ task-emitter-2)에서
+     *     doTask() 를 실행하므로 작업 수와 상관없이 스레드 수가 제한됨.
+     * </p>
+     * <p>
+     *     map() Operator에서의 가공 처리와 Subscriber 에서 전달받은 데이터의 처리는 parallel 스레드에서 실행됨.
      * </p>
      *
      */
@@ -26,29 +29,26 @@ public class SinksExample2 {
         int tasks = 6;
 
         Sinks.Many<String> unicastSink = Sinks.many().unicast().onBackpressureBuffer();
-        Flux<String> fluxView = unicastSink.asFlux();
-        IntStream
-                .range(1, tasks)
-                .forEach(n -> {
-                    try {
-                        new Thread(() -> {
-                            unicastSink.emitNext(doTask(n), Sinks.EmitFailureHandler.FAIL_FAST);
-                            log.info("# emitted: {}", n);
-                        }).start();
-                        Thread.sleep(100L);
-                    } catch (InterruptedException e) {
-                        log.error(e.getMessage());
-                    }
-                });
+        try (TaskEmitter<String> taskEmitter = new TaskEmitter<>(unicastSink, 2)) {
+            Flux<String> fluxView = taskEmitter.asFlux();
+            IntStream
+                    .range(1, tasks)
+                    .forEach(n -> taskEmitter.submit(() -> {
+                        String result = doTask(n);
+                        log.info("# emitted: {}", n);
+                        return result;
+                    }));
+            taskEmitter.complete();
 
-        fluxView
-                .publishOn(Schedulers.parallel())
-                .map(result -> result + " success!")
-                .doOnNext(n -> log.info("# map(): {}", n))
-                .publishOn(Schedulers.parallel())
-                .subscribe(data -> log.info("# onNext: {}", data));
+            fluxView
+                    .publishOn(Schedulers.parallel())
+                    .map(result -> result + " success!")
+                    .doOnNext(n -> log.info("# map(): {}", n))
+                    .publishOn(Schedulers.parallel())
+                    .subscribe(data -> log.info("# onNext: {}", data));
 
-        Thread.sleep(200L);
+            Thread.sleep(200L);
+        }
     }
 
     private static String doTask(int taskNumber) {
@@ -0,0 +1,98 @@
+package com.webflux.study.sinks;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+import static reactor.core.publisher.Sinks.EmitFailureHandler.FAIL_FAST;
+
+/**
+ * <h2>느린 Subscriber 격리</h2>
+ * <p>
+ *     1ms 마다 emit 되는 데이터를 처리가 빠른 Subscriber 와 데이터 하나에 10ms 가 걸리는 느린 Subscriber 가 함께 구독함.
+ * </p>
+ */
+@Slf4j
+public class SinksManyMulticastIsolated {
+    private static final int COUNT = 300;
+
+    public static void main(String[] args) throws InterruptedException {
+        example1();
+        log.info("==========================================");
+        for (IsolatedMulticastSink.Overflow overflow : IsolatedMulticastSink.Overflow.values()) {
+            example2(overflow);
+        }
+    }
+
+    /**
+     * <h3>실행 결과</h3>
+     * <p>
+     *     multicast() Sinks 는 느린 Subscriber 의 속도에 맞춰 emit 하므로, 빠른 Subscriber 도 느린 Subscriber 와 거의 같은 시간에 끝남.
+     * </p>
+     */
+    private static void example1() throws InterruptedException {
+        Sinks.Many<Integer> multicastSink = Sinks.many().multicast().onBackpressureBuffer(16);
+        Flux<Integer> fluxView = multicastSink.asFlux();
+        long start = System.currentTimeMillis();
+
+        fluxView.publishOn(Schedulers.boundedElastic(), 16)
+                .subscribe(data -> {}, error -> {},
+                        () -> log.info("# multicast fast Subscriber done in {} ms", System.currentTimeMillis() - start));
+        fluxView.publishOn(Schedulers.boundedElastic(), 16)
+                .doOnNext(data -> sleep(10))
+                .subscribe(data -> {}, error -> {},
+                        () -> log.info("# multicast slow Subscriber done in {} ms", System.currentTimeMillis() - start));
+
+        for (int i = 0; i < COUNT; i++) {
+            multicastSink.emitNext(i, (signalType, emitResult) -> emitResult == Sinks.EmitResult.FAIL_OVERFLOW);
+            sleep(1);
+        }
+        multicastSink.emitComplete(FAIL_FAST);
+        Thread.sleep(4_000L);
+    }
+
+    /**
+     * <h3>실행 결과</h3>
+     * <p>
+     *     {@link IsolatedMulticastSink} 에서는 빠른 Subscriber 가 emit 속도대로 끝나고, 느린 Subscriber 만 overflow 정책의 영향을 받음.
+     * </p>
+     * <ul>
+     *     <li>DROP: 느린 Subscriber 는 버퍼에 들어간 데이터만 받고 나머지는 dropped 로 집계됨.</li>
+     *     <li>CONFLATE: 버퍼가 찬 동안의 데이터는 최신 값 하나로 합쳐져서 마지막 데이터(299)까지 받음.</li>
+     *     <li>DISCONNECT: 느린 Subscriber 만 overflow 에러로 끊기고 빠른 Subscriber 는 계속 받음.</li>
+     * </ul>
+     */
+    private static void example2(IsolatedMulticastSink.Overflow overflow) throws InterruptedException {
+        IsolatedMulticastSink<Integer> isolatedSink = new IsolatedMulticastSink<>(16, overflow);
+        Flux<Integer> fluxView = isolatedSink.asFlux();
+        long start = System.currentTimeMillis();
+
+        fluxView.subscribe(data -> {}, error -> {},
+                () -> log.info("# {} fast Subscriber done in {} ms", overflow, System.currentTimeMillis() - start));
+        fluxView.doOnNext(data -> sleep(10))
+                .subscribe(data -> {},
+                        error -> log.info("# {} slow Subscriber disconnected: {}", overflow, error.getMessage()),
+                        () -> log.info("# {} slow Subscriber done in {} ms", overflow, System.currentTimeMillis() - start));
+
+        for (int i = 0; i < COUNT; i++) {
+            isolatedSink.tryEmitNext(i);
+            if (i == COUNT - 1) {
+                isolatedSink.stats().forEach(stats -> log.info("# {} {}", overflow, stats));
+            }
+            sleep(1);
+        }
+        isolatedSink.tryEmitComplete();
+        Thread.sleep(1_000L);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.webflux.study.sinks;
 
+import com.webflux.study.operator.CoinPrice;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Sinks;
 
+import java.time.Duration;
+
 import static reactor.core.publisher.Sinks.EmitFailureHandler.FAIL_FAST;
 
 
@@ -13,12 +16,18 @@ import static reactor.core.publisher.Sinks.EmitFailureHandler.FAIL_FAST;
  */
 @Slf4j
 public class SinksManyMulticastReplay {
+    public static void main(String[] args) throws InterruptedException {
+        example1();
+        log.info("==========================================");
+        example2();
+    }
+
     /**
      * <h3>실행 결과</h3>
      * 실행 결과를 보면 첫 Subscriber의 입장에서 구독 시점에 이미 세 개의 데이터가 emit 되어 있음. <br>
      * 따라서 마지막 2개를 뒤로 되돌린 숫자가 2이므로 2부터 전달됨.
      */
-    public static void main(String[] args) {
+    private static void example1() {
         // limit : emit 데이어 중에서 파라미터로 입력한 개수만큼 가장 나중에 emit 된 데이터부터 Subscriber에게 전달하는 기능을 함.
         // 즉, emit 된 데이터 중에서 2개만 뒤로 돌려서 전달하겠단 의미.
         // all 메서드도 존재하는데 이 메서드는 처음 emit된 데이터부터 다시 재 emit 한다는 메서드.
@@ -35,4 +44,29 @@ public class SinksManyMulticastReplay {
 
         fluxView.subscribe(data -> log.info("# Subscriber2: {}", data));
     }
+
+    /**
+     * <h3>실행 결과</h3>
+     * <p>
+     *     {@link BoundedReplaySink} 는 개수가 아니라 바이트 크기(maxBytes)와 보관 시간(maxAge)으로 history 를 제한함.<br>
+     *     100ms 마다 시세를 emit 하면서 history 를 1초, 256 byte(시세 하나당 32 byte 로 계산하므로 최대 8개)로 제한했기 때문에,
+     *     1.5초 뒤에 구독한 Subscriber 는 바이트 제한에 걸려 최근 8개의 시세부터 전달받고 이후에는 실시간 시세를 이어서 전달받음.
+     * </p>
+     */
+    private static void example2() throws InterruptedException {
+        BoundedReplaySink<CoinPrice> replaySink =
+                new BoundedReplaySink<>(256, Duration.ofSeconds(1), price -> 32);
+
+        for (int i = 1; i <= 15; i++) {
+            replaySink.tryEmitNext(new CoinPrice("BTC", 100_000_000 + i, System.currentTimeMillis()));
+            Thread.sleep(100L);
+        }
+
+        replaySink.asFlux().subscribe(price -> log.info("# late Subscriber: {}", price.getPrice()));
+
+        replaySink.tryEmitNext(new CoinPrice("BTC", 100_000_016, System.currentTimeMillis()));
+        replaySink.tryEmitComplete();
+        log.info("# history size: {}, evicted by bytes: {}, evicted by age: {}",
+                replaySink.size(), replaySink.evictedByBytes(), replaySink.evictedByAge());
+    }
 }
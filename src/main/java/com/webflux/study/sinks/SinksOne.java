@@ -4,6 +4,9 @@ import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.Sinks;
 
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static reactor.core.publisher.Sinks.EmitFailureHandler.FAIL_FAST;
 
 /**
@@ -13,6 +16,12 @@ import static reactor.core.publisher.Sinks.EmitFailureHandler.FAIL_FAST;
 @Slf4j
 public class SinksOne {
     public static void main(String[] args) throws InterruptedException {
+        example1();
+        log.info("==========================================");
+        example2();
+    }
+
+    private static void example1() {
         Sinks.One<String> sinkOne = Sinks.one();
         Mono<String> mono = sinkOne.asMono(); /** {@link AboutSinks} Mono 의 의미 체계를 가진다는 의미.*/
 
@@ -23,4 +32,32 @@ public class SinksOne {
         mono.subscribe(data -> log.info("# Subscriber1 {}", data));
         mono.subscribe(data -> log.info("# Subscriber2 {}", data));
     }
+
+    /**
+     * <h3>실행 결과</h3>
+     * <p>
+     *     {@link SingleFlightCache} 는 같은 key 의 요청마다 Sinks.One 을 하나만 만들어서 공유함.<br>
+     *     동시에 요청한 100개의 Subscriber 는 같은 loader 구독(backend calls: 1)의 결과를 함께 받고,
+     *     500ms 뒤의 요청은 ttl(1초) 안이므로 캐시된 값을 바로 받음.
+     * </p>
+     */
+    private static void example2() throws InterruptedException {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(Duration.ofSeconds(1));
+        AtomicInteger backendCalls = new AtomicInteger();
+
+        for (int i = 0; i < 100; i++) {
+            cache.get("Asia/Seoul", timezone -> Mono.fromCallable(() -> {
+                        backendCalls.incrementAndGet();
+                        return timezone + " 2023-10-01T12:00:00";
+                    })
+                    .delayElement(Duration.ofMillis(300)))
+                    .subscribe();
+        }
+        Thread.sleep(500L);
+
+        cache.get("Asia/Seoul", timezone -> Mono.just("never called"))
+                .subscribe(data -> log.info("# cached: {}", data));
+        log.info("# backend calls: {}, loads: {}, coalesced: {}, hits: {}",
+                backendCalls.get(), cache.loads(), cache.coalesced(), cache.hits());
+    }
 }
@@ -0,0 +1,56 @@
+package com.webflux.study.sinks;
+
+import com.webflux.study.operator.CoinPrice;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <h2>history 를 파일로 내보내는 replay</h2>
+ * <p>
+ *     {@link SinksManyMulticastReplay} 의 replay() Sinks 는 history 를 heap 에 보관함.<br>
+ *     {@link SpillingReplaySink} 는 history 를 memory-mapped segment 파일에 쓰기 때문에 history 가 커져도 heap 이 늘어나지 않음.
+ * </p>
+ */
+@Slf4j
+public class SinksSpillingReplay {
+    private static final int TICKS = 2_000_000;
+
+    /**
+     * <h3>실행 결과</h3>
+     * <p>
+     *     200만 개의 시세를 emit 한 뒤에도 heap 사용량은 거의 변하지 않고, 시세는 64MB segment 파일에 저장됨.<br>
+     *     늦게 구독한 Subscriber 는 파일에서 200만 개를 읽은 뒤 구독 이후에 emit 된 시세를 이어서 전달받음.
+     * </p>
+     */
+    public static void main(String[] args) {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+
+        try (SpillingReplaySink<CoinPrice> replaySink = new SpillingReplaySink<>(new CoinPriceCodec())) {
+            long start = System.currentTimeMillis();
+            for (int i = 0; i < TICKS; i++) {
+                replaySink.tryEmitNext(new CoinPrice("BTC", 100_000_000 + i % 1_000, start + i));
+            }
+            System.gc();
+            long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+            log.info("# emitted: {}, spilled: {} MB in {} segment(s), heap delta: {} MB",
+                    replaySink.size(), replaySink.spilledBytes() / (1024 * 1024), replaySink.segmentCount(),
+                    (heapAfter - heapBefore) / (1024 * 1024));
+
+            AtomicLong received = new AtomicLong();
+            AtomicLong lastPrice = new AtomicLong();
+            replaySink.asFlux()
+                    .subscribe(price -> {
+                        received.incrementAndGet();
+                        lastPrice.set(price.getPrice());
+                    }, error -> log.error("# onError", error),
+                    () -> log.info("# late Subscriber received: {}, last price: {}", received.get(), lastPrice.get()));
+
+            replaySink.tryEmitNext(new CoinPrice("BTC", 123_456_789, System.currentTimeMillis()));
+            replaySink.tryEmitComplete();
+            log.info("# elapsed: {} ms", System.currentTimeMillis() - start);
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package com.webflux.study.sinks;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.Sinks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <h2>history 를 memory-mapped 파일에 쌓는 replay Sinks</h2>
+ * <p>
+ *     Sinks.many().replay() 와 cache() 는 history 를 모두 heap 에 보관하기 때문에 history 가 heap 보다 커질 수 없음.<br>
+ *     이 Sinks 는 emit 된 데이터를 {@link ElementCodec} 으로 직렬화해서 임시 디렉토리의 append-only segment 파일에 씀.
+ *     segment 파일은 memory-mapped 되어 있으므로 쓰기는 메모리 복사와 같고, 데이터는 OS page cache 에 있다가 필요하면 디스크로 내려감.
+ * </p>
+ * <p>
+ *     Subscriber 마다 segment 파일에서 읽을 다음 순번(sequence)만 기억하고, history 든 실시간 데이터든 모두 파일에서 요청(request)한 만큼씩 읽어서 전달함.
+ *     emit 하는 쪽은 파일에 쓴 뒤 Subscriber 의 drain 을 시도하기만 하고 데이터를 따로 보관하지 않으므로,
+ *     늦게 구독해서 history 를 replay 중이거나 느린 Subscriber 가 있어도 heap 에 데이터가 쌓이지 않음.<br>
+ *     단, 다른 스레드가 drain 중이 아니면 emit 한 스레드에서 Subscriber 의 onNext 를 호출하므로, 느린 Subscriber 는 emit 하는 스레드를 그만큼 붙잡음.
+ *     emit 하는 스레드를 붙잡지 않으려면 Subscriber 쪽에서 publishOn() 으로 스레드를 바꿔야 함.
+ * </p>
+ * <p>
+ *     segment 파일은 최대 maxSegments 개까지 보관하고, 새 segment 를 만들 때 개수를 넘으면 가장 오래된 segment 파일을 삭제함.
+ *     따라서 디스크 사용량은 segmentSize * maxSegments 를 넘지 않음.<br>
+ *     삭제된 segment 를 아직 읽지 못한 Subscriber 는 남아 있는 가장 오래된 데이터로 건너뛰고, 건너뛴 개수는 skipped() 로 확인할 수 있음.
+ *     (읽고 있던 segment 는 map 된 영역이 남아 있으므로 끝까지 읽음.)
+ * </p>
+ * <p>
+ *     record 는 [길이(int)][데이터] 형태이며, 남은 공간에 record 가 들어가지 않으면 길이 자리에 -1 을 쓰고 다음 segment 파일을 만듦.
+ *     close() 를 호출하면 segment 파일을 삭제함.
+ * </p>
+ */
+public class SpillingReplaySink<T> implements AutoCloseable {
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    public static final int DEFAULT_MAX_SEGMENTS = 16;
+    private static final int END_OF_SEGMENT = -1;
+
+    private final ElementCodec<T> codec;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final Path directory;
+    private final List<Tail> subscribers = new CopyOnWriteArrayList<>();
+    private final LongAdder skipped = new LongAdder();
+
+    // 아래 volatile 필드는 this 를 lock 으로 쓰고, Subscriber 는 lock 없이 읽음.
+    // record 를 다 쓴 뒤에 committed 를 올리므로, committed 보다 작은 순번의 record 는 항상 다 쓰여 있음.
+    private volatile Segment[] segments = new Segment[0];
+    private volatile long committed;
+    private volatile boolean done;
+    private volatile Throwable error;
+
+    // 아래 필드는 모두 this 를 lock 으로 접근함.
+    // segment 의 position 은 바꾸지 않고 절대 위치로만 쓰기 때문에, 읽는 쪽은 duplicate() 없이도 안전하게 읽을 수 있음.
+    private long nextSegmentIndex;
+    private int writeOffset;
+    private long spilledBytes;
+    private long evictedSegments;
+
+    public SpillingReplaySink(ElementCodec<T> codec) {
+        this(codec, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public SpillingReplaySink(ElementCodec<T> codec, int segmentSize) {
+        this(codec, segmentSize, DEFAULT_MAX_SEGMENTS);
+    }
+
+    /**
+     * @param segmentSize segment 파일 하나의 바이트 크기. record 의 길이(int)보다 커야 함.
+     * @param maxSegments 보관할 segment 파일의 최대 개수
+     */
+    public SpillingReplaySink(ElementCodec<T> codec, int segmentSize, int maxSegments) {
+        if (segmentSize <= Integer.BYTES) {
+            throw new IllegalArgumentException("segmentSize must be greater than " + Integer.BYTES + ": " + segmentSize);
+        }
+        if (maxSegments < 1) {
+            throw new IllegalArgumentException("maxSegments must be positive: " + maxSegments);
+        }
+        this.codec = codec;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        try {
+            this.directory = Files.createTempDirectory("replay-spill");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Sinks.EmitResult tryEmitNext(T value) {
+        synchronized (this) {
+            if (done) {
+                return Sinks.EmitResult.FAIL_TERMINATED;
+            }
+            int size = codec.encodedSize(value);
+            int recordSize = Integer.BYTES + size;
+            if (recordSize > segmentSize) {
+                throw new IllegalArgumentException("record of " + recordSize + " bytes exceeds segment size " + segmentSize);
+            }
+            Segment[] current = segments;
+            if (current.length == 0 || writeOffset + recordSize > segmentSize) {
+                if (current.length != 0 && writeOffset + Integer.BYTES <= segmentSize) {
+                    current[current.length - 1].buffer.putInt(writeOffset, END_OF_SEGMENT);
+                }
+                rollSegment(current);
+                writeOffset = 0;
+            }
+            MappedByteBuffer buffer = segments[segments.length - 1].buffer;
+            buffer.putInt(writeOffset, size);
+            codec.encode(value, buffer.slice(writeOffset + Integer.BYTES, size));
+            writeOffset += recordSize;
+            spilledBytes += recordSize;
+            committed = committed + 1;
+        }
+        // lock 밖에서 drain 하므로 다른 스레드의 emit 과 구독은 막지 않음.
+        // 하지만 drain 은 이 스레드에서 onNext 를 호출하므로 느린 Subscriber 는 이 스레드를 붙잡음. (다른 스레드가 drain 중이면 바로 리턴)
+        for (Tail tail : subscribers) {
+            tail.drain();
+        }
+        return Sinks.EmitResult.OK;
+    }
+
+    public Sinks.EmitResult tryEmitComplete() {
+        return terminate(null);
+    }
+
+    public Sinks.EmitResult tryEmitError(Throwable e) {
+        return terminate(e);
+    }
+
+    /**
+     * 남아 있는 가장 오래된 데이터부터 segment 파일에서 읽어서 전달하고, 실시간 데이터도 이어서 파일에서 읽어서 전달함.
+     */
+    public Flux<T> asFlux() {
+        return Flux.from((Publisher<T>) this::subscribe);
+    }
+
+    /**
+     * 보관 중인 segment 파일에 남아 있는 데이터 개수.
+     */
+    public long size() {
+        Segment[] current = segments;
+        return current.length == 0 ? 0 : committed - current[0].firstSequence;
+    }
+
+    /**
+     * 지금까지 파일에 쓴 전체 바이트 수. 삭제된 segment 에 쓴 것도 포함함.
+     */
+    public synchronized long spilledBytes() {
+        return spilledBytes;
+    }
+
+    public int segmentCount() {
+        return segments.length;
+    }
+
+    /**
+     * 보관 개수를 넘어서 삭제된 segment 파일 수.
+     */
+    public synchronized long evictedSegments() {
+        return evictedSegments;
+    }
+
+    /**
+     * 삭제된 segment 를 읽지 못해서 Subscriber 들이 건너뛴 데이터 개수의 합.
+     */
+    public long skipped() {
+        return skipped.sum();
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * segment 파일을 삭제함. 이미 map 된 영역은 GC 될 때 해제됨.
+     */
+    @Override
+    public void close() {
+        terminate(null);
+        synchronized (this) {
+            for (Segment segment : segments) {
+                deleteQuietly(segmentPath(segment.index));
+            }
+            segments = new Segment[0];
+            deleteQuietly(directory);
+        }
+    }
+
+    private void subscribe(Subscriber<? super T> subscriber) {
+        CoreSubscriber<? super T> actual = Operators.toCoreSubscriber(subscriber);
+        Tail tail = new Tail(actual);
+        actual.onSubscribe(tail);
+        subscribers.add(tail);
+        tail.drain(); // 구독 전에 terminate 됐다면 여기서 종료 signal 을 전달함.
+    }
+
+    private Sinks.EmitResult terminate(Throwable e) {
+        synchronized (this) {
+            if (done) {
+                return Sinks.EmitResult.FAIL_TERMINATED;
+            }
+            error = e;
+            done = true;
+        }
+        for (Tail tail : subscribers) {
+            tail.drain();
+        }
+        return Sinks.EmitResult.OK;
+    }
+
+    private void rollSegment(Segment[] current) {
+        int keep = Math.min(current.length, maxSegments - 1);
+        for (int i = 0; i < current.length - keep; i++) {
+            deleteQuietly(segmentPath(current[i].index));
+            evictedSegments++;
+        }
+        Segment[] next = Arrays.copyOfRange(current, current.length - keep, current.length + 1);
+        long index = nextSegmentIndex++;
+        next[keep] = new Segment(index, committed, newSegment(index));
+        segments = next;
+    }
+
+    private MappedByteBuffer newSegment(long index) {
+        try (FileChannel channel = FileChannel.open(segmentPath(index),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("segment-%05d.log", index));
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // 임시 디렉토리이므로 지우지 못해도 무시함.
+        }
+    }
+
+    private static final class Segment {
+        private final long index;
+        private final long firstSequence;
+        private final MappedByteBuffer buffer;
+
+        private Segment(long index, long firstSequence, MappedByteBuffer buffer) {
+            this.index = index;
+            this.firstSequence = firstSequence;
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * Subscriber 하나의 읽기 위치. emit, request, terminate 가 서로 다른 스레드에서 drain() 을 호출해도 읽기는 한 번에 하나의 스레드에서만 실행됨.
+     */
+    private final class Tail implements Subscription {
+        private final CoreSubscriber<? super T> actual;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+
+        // 아래 필드는 drain 하는 스레드만 접근함.
+        private Segment segment;
+        private int offset;
+        private long sequence = -1;
+
+        private Tail(CoreSubscriber<? super T> actual) {
+            this.actual = actual;
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                requested.getAndUpdate(r -> Operators.addCap(r, n));
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscribers.remove(this);
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                long r = requested.get();
+                long emitted = 0;
+                while (emitted != r && !cancelled && hasNext()) {
+                    T value;
+                    try {
+                        value = readNext();
+                    } catch (Throwable e) {
+                        cancel();
+                        actual.onError(Operators.onOperatorError(this, e, actual.currentContext()));
+                        return;
+                    }
+                    actual.onNext(value);
+                    emitted++;
+                }
+                if (cancelled) {
+                    return;
+                }
+                // done 을 committed 보다 먼저 읽어야 마지막 데이터를 놓치지 않음.
+                boolean terminated = done;
+                if (terminated && !hasNext()) {
+                    subscribers.remove(this);
+                    Throwable e = error;
+                    if (e != null) {
+                        actual.onError(e);
+                    } else {
+                        actual.onComplete();
+                    }
+                    cancelled = true;
+                    return;
+                }
+                if (emitted != 0 && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        private boolean hasNext() {
+            if (sequence < 0) {
+                Segment[] current = segments;
+                if (current.length == 0) {
+                    return false;
+                }
+                moveTo(current[0]);
+            }
+            return sequence < committed;
+        }
+
+        private T readNext() {
+            MappedByteBuffer buffer = segment.buffer;
+            if (offset + Integer.BYTES > segmentSize || buffer.getInt(offset) == END_OF_SEGMENT) {
+                // 다음 record 가 들어가지 않아서 다음 segment 로 넘어간 자리임.
+                moveTo(nextSegment());
+                buffer = segment.buffer;
+            }
+            int size = buffer.getInt(offset);
+            T value = codec.decode(buffer.slice(offset + Integer.BYTES, size));
+            offset += Integer.BYTES + size;
+            sequence++;
+            return value;
+        }
+
+        private Segment nextSegment() {
+            Segment[] current = segments;
+            if (current.length == 0) {
+                throw new IllegalStateException("segments already closed");
+            }
+            long gap = segment.index + 1 - current[0].index;
+            if (gap >= 0) {
+                return current[(int) gap];
+            }
+            // 다음 segment 가 이미 삭제됐으므로 남아 있는 가장 오래된 segment 로 건너뜀.
+            return current[0];
+        }
+
+        private void moveTo(Segment next) {
+            if (sequence >= 0 && next.firstSequence > sequence) {
+                skipped.add(next.firstSequence - sequence);
+            }
+            segment = next;
+            offset = 0;
+            sequence = next.firstSequence;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.webflux.study.sinks;
+
+import com.webflux.study.Scheduler.VirtualThreads;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <h2>Blocking 작업을 실행하고 결과를 Sinks 로 emit 하는 Task Emitter</h2>
+ * <p>
+ *     {@link SinksExample2} 처럼 작업마다 new Thread() 를 만들면 스레드 생성 비용과 스레드당 스택 메모리가 작업 수만큼 늘어남.
+ * </p>
+ * <ul>
+ *     <li>JDK 21 이상: 작업마다 Virtual Thread 에서 실행함. Blocking 되어도 carrier 스레드를 점유하지 않음.</li>
+ *     <li>그 외: 크기가 정해진 스레드 풀에서 실행함. 대기 큐가 가득 차면 submit() 을 호출한 스레드가 직접 실행해서 제출 속도를 늦춤.</li>
+ * </ul>
+ * <p>
+ *     작업 결과는 바로 emit 하지 않고 batch 에 모았다가, batchSize 만큼 모이거나 첫 결과가 들어온 뒤 maxBatchDelay 가 지나거나
+ *     실행 중인 작업이 없어지면 {@link SerializedEmitSink#emitNextAll} 로 한 번에 넘김.
+ *     SerializedEmitSink 를 거치므로 여러 작업 스레드가 동시에 결과를 내도 재시도 없이 drain 스레드 하나가 emit 함.
+ * </p>
+ * <p>
+ *     작업이 예외를 던졌을 때의 처리는 {@link TaskErrorPolicy} 로 정함. 기본값은 SKIP 임.
+ * </p>
+ */
+public class TaskEmitter<R> implements AutoCloseable {
+    public static final int DEFAULT_BATCH_SIZE = 32;
+    public static final Duration DEFAULT_MAX_BATCH_DELAY = Duration.ofMillis(10);
+
+    public enum TaskErrorPolicy {
+        /** 예외를 Hooks.onErrorDropped 로 넘기고 다른 작업의 결과는 계속 emit 함. */
+        SKIP,
+        /** 그때까지 모은 결과를 emit 한 뒤 onError Signal 을 보냄. 이후에 끝나는 작업의 결과는 버려짐. */
+        TERMINATE
+    }
+
+    private final ExecutorService executor;
+    private final SerializedEmitSink<R> sink;
+    private final int batchSize;
+    private final long maxBatchDelayMillis;
+    private final Scheduler timer;
+    private final Queue<R> batch = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger batched = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicLong pending = new AtomicLong();
+    private final LongAdder failedTasks = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private volatile TaskErrorPolicy errorPolicy = TaskErrorPolicy.SKIP;
+    private volatile boolean completing;
+
+    public TaskEmitter(Sinks.Many<R> sink, int poolSize) {
+        this(sink, VirtualThreads.isAvailable()
+                ? VirtualThreads.newVirtualThreadPerTaskExecutor()
+                : boundedPool(poolSize));
+    }
+
+    public TaskEmitter(Sinks.Many<R> sink, ExecutorService executor) {
+        this(sink, executor, DEFAULT_BATCH_SIZE, DEFAULT_MAX_BATCH_DELAY, Schedulers.parallel());
+    }
+
+    /**
+     * @param timer maxBatchDelay 를 잴 때 사용함. 테스트에서는 VirtualTimeScheduler 를 넘길 수 있음.
+     */
+    public TaskEmitter(Sinks.Many<R> sink, ExecutorService executor, int batchSize, Duration maxBatchDelay, Scheduler timer) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be >= 1: " + batchSize);
+        }
+        this.sink = new SerializedEmitSink<>(sink);
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.maxBatchDelayMillis = maxBatchDelay.toMillis();
+        this.timer = timer;
+    }
+
+    public TaskEmitter<R> errorPolicy(TaskErrorPolicy errorPolicy) {
+        this.errorPolicy = errorPolicy;
+        return this;
+    }
+
+    public static ExecutorService boundedPool(int poolSize) {
+        AtomicInteger sequence = new AtomicInteger();
+        return new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(poolSize * 64),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "task-emitter-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public void submit(Callable<R> task) {
+        pending.incrementAndGet();
+        executor.execute(() -> {
+            try {
+                add(task.call());
+            } catch (Exception e) {
+                failedTasks.increment();
+                if (errorPolicy == TaskErrorPolicy.TERMINATE) {
+                    flush();
+                    sink.emitError(e);
+                } else {
+                    Operators.onErrorDropped(e, Context.empty());
+                }
+            } finally {
+                if (pending.decrementAndGet() == 0) {
+                    flush();
+                    if (completing) {
+                        sink.emitComplete();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * 이미 제출된 작업이 모두 끝나면 남은 batch 를 emit 하고 onComplete Signal 을 보냄.
+     */
+    public void complete() {
+        completing = true;
+        if (pending.get() == 0) {
+            flush();
+            sink.emitComplete();
+        }
+    }
+
+    private void add(R result) {
+        batch.offer(result);
+        if (batched.incrementAndGet() >= batchSize) {
+            flush();
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            timer.schedule(() -> {
+                // flush 전에 풀어야 flush 가 큐를 비운 뒤에 들어온 결과가 다음 타이머를 예약할 수 있음.
+                flushScheduled.set(false);
+                flush();
+            }, maxBatchDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 모인 결과를 한 번에 넘김. emitComplete(), emitError() 보다 먼저 넘긴 결과가 빠지지 않도록 lock 을 잡고 실행함.
+     */
+    private synchronized void flush() {
+        List<R> results = new ArrayList<>();
+        for (R result; (result = batch.poll()) != null; ) {
+            results.add(result);
+        }
+        if (!results.isEmpty()) {
+            batched.addAndGet(-results.size());
+            batches.increment();
+            sink.emitNextAll(results);
+        }
+    }
+
+    public Flux<R> asFlux() {
+        return sink.asFlux();
+    }
+
+    public long pending() {
+        return pending.get();
+    }
+
+    /**
+     * 예외를 던진 작업 수.
+     */
+    public long failedTasks() {
+        return failedTasks.sum();
+    }
+
+    /**
+     * Sinks 로 결과를 넘긴 횟수. 결과 수보다 적을수록 batch 가 큼.
+     */
+    public long batches() {
+        return batches.sum();
+    }
+
+    public SerializedEmitSink<R> sink() {
+        return sink;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,93 @@
+package com.webflux.study.sinks;
+
+import com.webflux.study.Scheduler.VirtualThreads;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Sinks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * <h2>작업 실행 방식별 처리량과 메모리 비교</h2>
+ * 1ms 동안 Blocking 되는 doTask() 를 1만 개, 100만 개 실행하면서 초당 처리 작업 수, 최대 스레드 수, 힙 사용량을 비교함.
+ * <ul>
+ *     <li>thread-per-task: {@link SinksExample2} 의 예전 방식처럼 작업마다 new Thread(). 1만 개에서만 측정함.</li>
+ *     <li>bounded pool: 크기가 200인 스레드 풀</li>
+ *     <li>virtual threads: JDK 21 이상에서만 측정함. (-D{@value VirtualThreads#ENABLED_PROPERTY}=false 로 끌 수 있음)</li>
+ * </ul>
+ */
+@Slf4j
+public class TaskEmitterBenchmark {
+    private static final int POOL_SIZE = 200;
+
+    public static void main(String[] args) throws InterruptedException {
+        for (int tasks : new int[]{10_000, 1_000_000}) {
+            if (tasks <= 10_000) {
+                measure("thread-per-task", tasks, null);
+            }
+            measure("bounded pool", tasks, TaskEmitter.boundedPool(POOL_SIZE));
+            if (VirtualThreads.isAvailable()) {
+                measure("virtual threads", tasks, VirtualThreads.newVirtualThreadPerTaskExecutor());
+            } else {
+                log.info("# virtual threads: not available on JDK {}", Runtime.version().feature());
+            }
+        }
+    }
+
+    private static void measure(String name, int tasks, ExecutorService executor) throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        threads.resetPeakThreadCount();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+
+        CountDownLatch completed = new CountDownLatch(1);
+        long[] received = new long[1];
+        long start = System.nanoTime();
+
+        Sinks.Many<Integer> sink = Sinks.many().unicast().onBackpressureBuffer();
+        if (executor == null) {
+            SerializedEmitSink<Integer> serialized = new SerializedEmitSink<>(sink);
+            serialized.asFlux().subscribe(result -> received[0]++, error -> {}, completed::countDown);
+            Thread[] started = new Thread[tasks];
+            for (int i = 0; i < tasks; i++) {
+                int taskNumber = i;
+                started[i] = new Thread(() -> serialized.emitNext(doTask(taskNumber)));
+                started[i].start();
+            }
+            for (Thread thread : started) {
+                thread.join();
+            }
+            serialized.emitComplete();
+        } else {
+            try (TaskEmitter<Integer> taskEmitter = new TaskEmitter<>(sink, executor)) {
+                taskEmitter.asFlux().subscribe(result -> received[0]++, error -> {}, completed::countDown);
+                for (int i = 0; i < tasks; i++) {
+                    int taskNumber = i;
+                    taskEmitter.submit(() -> doTask(taskNumber));
+                }
+                taskEmitter.complete();
+                completed.await();
+            }
+        }
+        completed.await();
+
+        long elapsedMillis = Math.max((System.nanoTime() - start) / 1_000_000, 1L);
+        long heapAfter = memory.getHeapMemoryUsage().getUsed();
+        log.info("# {} x {}: {} tasks/s, received: {}, peak threads: {}, heap delta: {} MB",
+                name, tasks, tasks * 1000L / elapsedMillis, received[0], threads.getPeakThreadCount(),
+                (heapAfter - heapBefore) / (1024 * 1024));
+    }
+
+    private static int doTask(int taskNumber) {
+        try {
+            Thread.sleep(1L); // Blocking I/O 를 흉내냄.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return taskNumber;
+    }
+}
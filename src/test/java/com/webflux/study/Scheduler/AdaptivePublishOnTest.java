@@ -0,0 +1,141 @@
+package com.webflux.study.Scheduler;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class AdaptivePublishOnTest {
+
+    @Test
+    public void deliversOnlyWhatDownstreamRequested() {
+        Scheduler scheduler = Schedulers.newSingle("adaptive-test");
+        AtomicLong requestedFromSource = new AtomicLong();
+
+        StepVerifier.create(Flux.range(1, 100)
+                                .doOnRequest(requestedFromSource::addAndGet)
+                                .transform(new AdaptivePublishOn<>(scheduler, 4, 8, Duration.ofMillis(10))),
+                        3)
+                .expectNext(1, 2, 3)
+                .expectNoEvent(Duration.ofMillis(50))
+                .then(() -> assertThat(requestedFromSource.get(), lessThanOrEqualTo(3L + 8L))) // 전달한 개수 + 최대 prefetch
+                .thenRequest(2)
+                .expectNext(4, 5)
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(95)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        scheduler.dispose();
+    }
+
+    @Test
+    public void errorIsDeliveredAfterQueuedData() {
+        Scheduler scheduler = Schedulers.newSingle("adaptive-test");
+
+        StepVerifier.create(Flux.range(1, 3)
+                                .concatWith(Flux.error(new IllegalStateException("boom")))
+                                .transform(new AdaptivePublishOn<>(scheduler)),
+                        1)
+                .expectNext(1)
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenRequest(2)
+                .expectNext(2, 3)
+                .expectErrorMessage("boom")
+                .verify(Duration.ofSeconds(5));
+
+        scheduler.dispose();
+    }
+
+    @Test
+    public void cancelStopsUpstream() {
+        Scheduler scheduler = Schedulers.newSingle("adaptive-test");
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AtomicLong requestedFromSource = new AtomicLong();
+
+        StepVerifier.create(Flux.range(1, Integer.MAX_VALUE)
+                                .doOnRequest(requestedFromSource::addAndGet)
+                                .doOnCancel(() -> cancelled.set(true))
+                                .transform(new AdaptivePublishOn<>(scheduler, 4, 64, Duration.ofMillis(10))))
+                .expectNextCount(1_000)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(cancelled.get(), is(true));
+        assertThat(requestedFromSource.get(), lessThanOrEqualTo(1_000L + 64L));
+        scheduler.dispose();
+    }
+
+    @Test
+    public void growsPrefetchWhenDownstreamStarvesAndShrinksWhenItLags() {
+        // drain task 를 테스트 스레드에서 직접 실행해서 Downstream 이 언제 굶는지 정함.
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        Scheduler scheduler = Schedulers.fromExecutor(tasks::add);
+        AdaptivePublishOn<Integer> adaptive = new AdaptivePublishOn<>(scheduler, 2, 16, Duration.ofMillis(10));
+        AtomicReference<FluxSink<Integer>> source = new AtomicReference<>();
+        AtomicLong requestedFromSource = new AtomicLong();
+        AtomicLong emitted = new AtomicLong();
+        AtomicLong maxPending = new AtomicLong();
+        AtomicLong workNanos = new AtomicLong();
+        AtomicLong keepUpBudget = new AtomicLong();
+
+        Flux.<Integer>create(source::set)
+                .doOnRequest(n -> maxPending.accumulateAndGet(
+                        requestedFromSource.addAndGet(n) - emitted.get(), Math::max))
+                .doOnNext(i -> emitted.incrementAndGet())
+                .transform(adaptive)
+                .doOnNext(i -> {
+                    LockSupport.parkNanos(workNanos.get());
+                    // Upstream 이 충분히 빨라서 큐가 비지 않음
+                    for (long n = source.get().requestedFromDownstream(); n > 0 && keepUpBudget.get() > 0; n--) {
+                        keepUpBudget.decrementAndGet();
+                        source.get().next(i);
+                    }
+                })
+                .subscribe();
+
+        // Downstream 이 빠르고, 요청한 데이터가 올 때마다 큐를 모두 비우고 기다림
+        for (int round = 0; round < 10; round++) {
+            emitRequested(source.get());
+            runAll(tasks);
+        }
+        assertThat(adaptive.currentPrefetch(), is(16));
+
+        // Downstream 이 데이터 하나에 2ms 씩 걸려서, prefetch 16 개를 처리하는 데 targetLatency(10ms) 보다 오래 걸림
+        workNanos.set(2_000_000L);
+        keepUpBudget.set(60);
+        emitRequested(source.get());
+        runAll(tasks);
+        assertThat(adaptive.currentPrefetch(), lessThanOrEqualTo(4));
+
+        assertThat(maxPending.get(), lessThanOrEqualTo(16L));
+        source.get().complete();
+        runAll(tasks);
+    }
+
+    private static void emitRequested(FluxSink<Integer> sink) {
+        for (long n = sink.requestedFromDownstream(); n > 0; n--) {
+            sink.next(1);
+        }
+    }
+
+    private static void runAll(Queue<Runnable> tasks) {
+        for (Runnable task; (task = tasks.poll()) != null; ) {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.webflux.study.Scheduler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+public class AffinityPipelineTest {
+    private Scheduler a;
+    private Scheduler b;
+
+    @BeforeEach
+    public void setUp() {
+        a = Schedulers.newSingle("affinity-a");
+        b = Schedulers.newSingle("affinity-b");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        a.dispose();
+        b.dispose();
+    }
+
+    @Test
+    public void eliminatesImmediatePublishOn() {
+        AffinityPipeline<String> pipeline = AffinityPipeline.from(Flux.just(1))
+                .publishOn(Schedulers.immediate())
+                .map(i -> Thread.currentThread().getName());
+
+        assertThat(pipeline.eliminatedHops(), is(1));
+        StepVerifier.create(pipeline.build())
+                .expectNext(Thread.currentThread().getName())
+                .verifyComplete();
+    }
+
+    @Test
+    public void keepsOnlyLastOfBackToBackPublishOn() {
+        AffinityPipeline<String> pipeline = AffinityPipeline.from(Flux.just(1))
+                .publishOn(a)
+                .publishOn(Schedulers.immediate())
+                .publishOn(b)
+                .map(i -> Thread.currentThread().getName());
+
+        assertThat(pipeline.eliminatedHops(), is(2));
+        StepVerifier.create(pipeline.build())
+                .assertNext(thread -> assertThat(thread, startsWith("affinity-b")))
+                .verifyComplete();
+    }
+
+    @Test
+    public void keepsPublishOnFollowedOnlyByImmediate() {
+        AffinityPipeline<String> pipeline = AffinityPipeline.from(Flux.just(1))
+                .publishOn(a)
+                .publishOn(Schedulers.immediate())
+                .map(i -> Thread.currentThread().getName());
+
+        assertThat(pipeline.eliminatedHops(), is(1));
+        StepVerifier.create(pipeline.build())
+                .assertNext(thread -> assertThat(thread, startsWith("affinity-a")))
+                .verifyComplete();
+    }
+
+    @Test
+    public void eliminatesPublishOnToSameScheduler() {
+        AffinityPipeline<Integer> pipeline = AffinityPipeline.from(Flux.just(1))
+                .publishOn(a)
+                .map(i -> i + 1)
+                .publishOn(a)
+                .filter(i -> i > 0)
+                .publishOn(b);
+
+        assertThat(pipeline.eliminatedHops(), is(1));
+        assertThat(pipeline.plan(), is("publishOn(" + a + ") -> map -> publishOn(" + a + ") [eliminated] -> filter -> publishOn(" + b + ")"));
+    }
+
+    @Test
+    public void eliminatesPublishOnToSubscribeOnScheduler() {
+        AffinityPipeline<String> pipeline = AffinityPipeline.from(Flux.just(1))
+                .map(i -> i * 2)
+                .publishOn(a)
+                .subscribeOn(a)
+                .map(i -> Thread.currentThread().getName());
+
+        assertThat(pipeline.eliminatedHops(), is(1));
+        StepVerifier.create(pipeline.build())
+                .assertNext(thread -> assertThat(thread, startsWith("affinity-a")))
+                .verifyComplete();
+    }
+
+    @Test
+    public void branchesFromSharedPrefixIndependently() {
+        AffinityPipeline<Integer> prefix = AffinityPipeline.from(Flux.range(1, 3)).publishOn(a);
+        AffinityPipeline<Integer> doubled = prefix.map(i -> i * 2);
+        AffinityPipeline<Integer> hopped = prefix.publishOn(b).filter(i -> i > 1);
+
+        assertThat(prefix.plan(), is("publishOn(" + a + ")"));
+        assertThat(doubled.plan(), is("publishOn(" + a + ") -> map"));
+        assertThat(hopped.plan(), is("publishOn(" + a + ") [eliminated] -> publishOn(" + b + ") -> filter"));
+        assertThat(prefix.eliminatedHops(), is(0));
+
+        StepVerifier.create(doubled.build()).expectNext(2, 4, 6).verifyComplete();
+        StepVerifier.create(hopped.build()).expectNext(2, 3).verifyComplete();
+        StepVerifier.create(prefix.build()).expectNext(1, 2, 3).verifyComplete();
+    }
+}
@@ -0,0 +1,157 @@
+package com.webflux.study.Scheduler.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SchedulerMetricsTest {
+
+    @BeforeEach
+    public void install() {
+        SchedulerMetrics.reset();
+        SchedulerMetrics.install();
+    }
+
+    @AfterEach
+    public void uninstall() {
+        SchedulerMetrics.uninstall();
+        SchedulerMetrics.reset();
+    }
+
+    @Test
+    public void recordsTasksPerScheduler() {
+        Scheduler single = Schedulers.newSingle("metrics-single");
+        try {
+            Flux.range(1, 20)
+                    .flatMap(i -> Mono.fromCallable(() -> i).subscribeOn(single))
+                    .blockLast();
+
+            // 값은 작업이 끝나기 직전에 전달되므로, completed/active 가 기록될 때까지 기다림.
+            SchedulerStats stats = settled("metrics-single", 20);
+            assertThat(stats.getWorkers(), is(1));
+            assertThat(stats.getCompleted(), is(20L));
+            assertThat(stats.getQueued(), is(0L));
+            assertThat(stats.getActiveWorkers(), is(0));
+            assertThat(stats.getIdleWorkers(), is(1));
+            assertThat(stats.getExecutionHistogram().values().stream().mapToLong(Long::longValue).sum(), is(20L));
+        } finally {
+            single.dispose();
+        }
+        assertThat(stats("metrics-single").getWorkers(), is(0));
+    }
+
+    @Test
+    public void countsRejectedTasks() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Scheduler scheduler = Schedulers.fromExecutorService(executor, "metrics-rejecting");
+        executor.shutdown();
+
+        assertThrows(RejectedExecutionException.class, () -> scheduler.schedule(() -> {}));
+        assertThat(stats("metrics-rejecting").getRejected(), is(1L));
+        assertThat(stats("metrics-rejecting").getQueued(), is(0L));
+    }
+
+    @Test
+    public void exposesSnapshotThroughRoute() {
+        Scheduler parallel = Schedulers.newParallel("metrics-route", 2);
+        try {
+            Mono.fromCallable(() -> "done").subscribeOn(parallel).block();
+            settled("metrics-route", 1);
+
+            WebTestClient.bindToRouterFunction(new SchedulerMetricsConfiguration().schedulerMetricsRoute())
+                    .build()
+                    .get().uri(SchedulerMetricsConfiguration.PATH)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$[?(@.scheduler =~ /.*metrics-route.*/)].workers").isEqualTo(2)
+                    .jsonPath("$[?(@.scheduler =~ /.*metrics-route.*/)].completed").isEqualTo(1);
+        } finally {
+            parallel.dispose();
+        }
+    }
+
+    @Test
+    public void separatesSameNamedSchedulersAndReportsPerWorker() {
+        Scheduler first = Schedulers.newParallel("metrics-same", 2);
+        Scheduler second = Schedulers.newParallel("metrics-same", 2);
+        try {
+            Flux.range(1, 10)
+                    .flatMap(i -> Mono.fromCallable(() -> i).subscribeOn(first)) // 작업 10개가 worker 2개에 나뉨.
+                    .blockLast();
+            Mono.fromCallable(() -> "second").subscribeOn(second).block();
+            settled("metrics-same", 10);
+
+            List<SchedulerStats> stats = SchedulerMetrics.snapshot().stream()
+                    .filter(s -> s.getScheduler().contains("metrics-same"))
+                    .toList();
+            assertThat(stats.size(), is(2));
+
+            SchedulerStats firstStats = stats.get(0);
+            assertThat(firstStats.getCompleted(), is(10L));
+            assertThat(firstStats.getWorkerStats().size(), is(2));
+            assertThat(firstStats.getWorkerStats().stream().mapToLong(WorkerStats::getCompleted).sum(), is(10L));
+            assertThat(firstStats.getWorkerStats().get(0).getCompleted() > 0, is(true));
+            assertThat(firstStats.getWorkerStats().get(1).getCompleted() > 0, is(true));
+            assertThat(firstStats.getWorkerStats().stream().mapToLong(WorkerStats::getQueued).sum(), is(0L));
+
+            awaitUntil(() -> stats("metrics-same", 1).getCompleted() == 1L);
+        } finally {
+            first.dispose();
+            second.dispose();
+        }
+    }
+
+    /**
+     * completed 가 기대한 값이 되고 실행 중인 작업이 없을 때까지 기다린 뒤의 결과.
+     */
+    private static SchedulerStats settled(String scheduler, long completed) {
+        awaitUntil(() -> {
+            SchedulerStats stats = stats(scheduler);
+            return stats.getCompleted() == completed && stats.getActiveWorkers() == 0;
+        });
+        return stats(scheduler);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not met in 5s: " + SchedulerMetrics.snapshot());
+            }
+            LockSupport.parkNanos(1_000_000L);
+        }
+    }
+
+    private static SchedulerStats stats(String scheduler, int index) {
+        return SchedulerMetrics.snapshot().stream()
+                .filter(stats -> stats.getScheduler().contains(scheduler))
+                .skip(index)
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("no stats for " + scheduler + " in " + SchedulerMetrics.snapshot()));
+    }
+
+    private static SchedulerStats stats(String scheduler) {
+        return SchedulerMetrics.snapshot().stream()
+                .filter(stats -> stats.getScheduler().contains(scheduler)) // 예: single("metrics-single")
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("no stats for " + scheduler + " in " + SchedulerMetrics.snapshot()));
+    }
+}
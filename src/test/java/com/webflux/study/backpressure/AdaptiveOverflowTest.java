@@ -0,0 +1,91 @@
+package com.webflux.study.backpressure;
+
+import com.webflux.study.backpressure.AdaptiveOverflow.Mode;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+public class AdaptiveOverflowTest {
+
+    @Test
+    public void escalatesUnderLagAndStepsDownWithoutArrivals() {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        AdaptiveOverflow<Integer> overflow = new AdaptiveOverflow<>(8, Duration.ofMillis(100), 2, scheduler);
+        List<String> transitions = new ArrayList<>();
+        overflow.doOnTransition((from, to) -> transitions.add(from + "->" + to));
+        TestPublisher<Integer> publisher = TestPublisher.create();
+
+        StepVerifier.create(publisher.flux().transform(overflow), 0)
+                .then(() -> publisher.next(1, 2, 3, 4, 5, 6, 7, 8, 9)) // 9번째는 버퍼가 가득 찬 상태
+                .then(() -> assertThat(overflow.mode(), is(Mode.SAMPLE)))
+                .then(() -> scheduler.advanceTimeBy(Duration.ofMillis(100))) // 가득 찬 채로 lagThreshold 가 지남
+                .then(() -> assertThat(overflow.mode(), is(Mode.DROP)))
+                .thenRequest(8)
+                .expectNext(1, 2, 3, 4, 5, 6, 7, 8)
+                // 더 이상 데이터가 들어오지 않아도 타이머가 단계를 내림
+                .then(() -> scheduler.advanceTimeBy(Duration.ofMillis(150)))
+                .then(() -> assertThat(overflow.mode(), is(Mode.SAMPLE)))
+                .then(() -> scheduler.advanceTimeBy(Duration.ofMillis(100)))
+                .then(() -> assertThat(overflow.mode(), is(Mode.BUFFER)))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(transitions, contains("BUFFER->SAMPLE", "SAMPLE->DROP", "DROP->SAMPLE", "SAMPLE->BUFFER"));
+        assertThat(overflow.escalations(), is(2L));
+        assertThat(overflow.deescalations(), is(2L));
+        assertThat(overflow.overflowed(), is(1L));
+    }
+
+    @Test
+    public void fastFillRateEscalatesBeforeLagThreshold() {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        AdaptiveOverflow<Integer> overflow = new AdaptiveOverflow<>(16, Duration.ofMillis(100), 2, scheduler);
+        TestPublisher<Integer> publisher = TestPublisher.create();
+
+        StepVerifier.create(publisher.flux().transform(overflow), 0)
+                .then(() -> publisher.next(1, 2, 3, 4, 5, 6))
+                .then(() -> scheduler.advanceTimeBy(Duration.ofMillis(100)))  // 직전 구간에 100ms 동안 6개가 쌓임
+                .then(() -> assertThat(overflow.fillRate(), is(60.0)))
+                .then(() -> publisher.next(7, 8, 9, 10, 11, 12))
+                .then(() -> assertThat(overflow.mode(), is(Mode.BUFFER))) // highWatermark(12) 바로 아래
+                .then(() -> publisher.next(13))                          // 이 속도면 100ms 안에 가득 참
+                .then(() -> assertThat(overflow.mode(), is(Mode.SAMPLE)))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(overflow.overflowed(), is(0L));
+    }
+
+    @Test
+    public void slowFillWaitsForLagThreshold() {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        AdaptiveOverflow<Integer> overflow = new AdaptiveOverflow<>(16, Duration.ofMillis(100), 2, scheduler);
+        TestPublisher<Integer> publisher = TestPublisher.create();
+
+        StepVerifier.create(publisher.flux().transform(overflow), 0)
+                .then(() -> publisher.next(1, 2, 3))
+                .then(() -> scheduler.advanceTimeBy(Duration.ofMillis(100)))
+                .then(() -> publisher.next(4, 5, 6))
+                .then(() -> scheduler.advanceTimeBy(Duration.ofMillis(100)))
+                .then(() -> publisher.next(7, 8, 9))
+                .then(() -> scheduler.advanceTimeBy(Duration.ofMillis(100)))  // 100ms 에 3개씩 쌓임
+                .then(() -> assertThat(overflow.fillRate(), is(30.0)))
+                .then(() -> publisher.next(10, 11, 12))                       // highWatermark(12) 에 닿았지만 이 속도면 100ms 안에 가득 차지 않음
+                .then(() -> assertThat(overflow.mode(), is(Mode.BUFFER)))
+                .then(() -> scheduler.advanceTimeBy(Duration.ofMillis(100)))
+                .then(() -> assertThat(overflow.mode(), is(Mode.BUFFER)))     // 타이머가 350ms 에 highWatermark 이상임을 확인함
+                .then(() -> scheduler.advanceTimeBy(Duration.ofMillis(50)))   // 그로부터 lagThreshold 가 지남
+                .then(() -> assertThat(overflow.mode(), is(Mode.SAMPLE)))
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,51 @@
+package com.webflux.study.backpressure;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+
+import java.time.Duration;
+import java.util.Map;
+
+public class LatestByKeyTest {
+
+    @Test
+    public void conflatesToLatestValuePerKeyWhileDownstreamLags() {
+        TestPublisher<String> source = TestPublisher.create();
+
+        StepVerifier.create(source.flux().transform(LatestByKey.conflate(s -> s.split("=")[0], s -> s.split("=")[1])), 0)
+                .then(() -> source.next("BTC=1", "ETH=2", "BTC=3"))
+                .thenRequest(1)
+                .expectNext(Map.of("BTC", "3", "ETH", "2"))
+                .then(() -> source.next("ETH=4"))
+                .thenRequest(1)
+                .expectNext(Map.of("ETH", "4"))
+                .then(source::complete)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void mapperErrorCancelsUpstreamAfterPendingSnapshot() {
+        TestPublisher<String> source = TestPublisher.create();
+
+        StepVerifier.create(source.flux().transform(LatestByKey.conflate(s -> s.split("=")[0], s -> s.split("=")[1])), 0)
+                .then(() -> source.next("BTC=1", "broken"))
+                .then(source::assertCancelled)
+                .thenRequest(1)
+                .expectNext(Map.of("BTC", "1"))
+                .expectError(ArrayIndexOutOfBoundsException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void keyMapperErrorIsDeliveredAsOnError() {
+        StepVerifier.create(Flux.just("BTC=1")
+                        .transform(LatestByKey.<String, String, String>conflate(s -> {
+                            throw new IllegalStateException("no key");
+                        }, s -> s)))
+                .expectErrorMessage("no key")
+                .verify(Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,89 @@
+package com.webflux.study.backpressure;
+
+import com.webflux.study.sinks.ElementCodec;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class OffHeapBufferTest {
+    private static final ElementCodec<String> STRING = new ElementCodec<>() {
+        @Override
+        public int encodedSize(String value) {
+            return value.length();
+        }
+
+        @Override
+        public void encode(String value, ByteBuffer buffer) {
+            buffer.put(value.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        @Override
+        public String decode(ByteBuffer buffer) {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+    };
+
+    @Test
+    public void ringKeepsFifoOrderAcrossWrapAround() {
+        OffHeapBuffer.ByteRing<String> ring = new OffHeapBuffer.ByteRing<>(64, STRING);
+        ArrayDeque<String> expected = new ArrayDeque<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            if (random.nextBoolean()) {
+                String value = "v" + i + "x".repeat(random.nextInt(12));
+                if (ring.offer(value)) {
+                    expected.offer(value);
+                }
+            } else {
+                assertThat(ring.poll(), is(expected.poll()));
+            }
+            assertThat(ring.size(), is(expected.size()));
+        }
+    }
+
+    @Test
+    public void dropOldestKeepsNewestElements() {
+        TestPublisher<Integer> source = TestPublisher.create();
+        List<Integer> dropped = new ArrayList<>();
+
+        // record 하나가 8 byte 이므로 4개까지 담김.
+        StepVerifier.create(source.flux()
+                        .transform(OffHeapBuffer.onBackpressureBuffer(32, ElementCodec.INT,
+                                BufferOverflowStrategy.DROP_OLDEST, dropped::add)), 0)
+                .then(() -> source.next(1, 2, 3, 4, 5, 6))
+                .thenRequest(3)
+                .expectNext(3, 4, 5)
+                .then(() -> source.next(7, 8, 9, 10).complete()) // 앞쪽으로 돌아가서 씀.
+                .thenRequest(10)
+                .expectNext(7, 8, 9, 10)
+                .verifyComplete();
+        assertThat(dropped, is(List.of(1, 2, 6)));
+    }
+
+    @Test
+    public void dropLatestKeepsOldestElements() {
+        TestPublisher<Integer> source = TestPublisher.create();
+
+        StepVerifier.create(source.flux()
+                        .transform(OffHeapBuffer.onBackpressureBuffer(32, ElementCodec.INT,
+                                BufferOverflowStrategy.DROP_LATEST)), 0)
+                .then(() -> source.next(1, 2, 3, 4, 5, 6).complete())
+                .thenRequest(10)
+                .expectNext(1, 2, 3, 4)
+                .verifyComplete();
+    }
+}
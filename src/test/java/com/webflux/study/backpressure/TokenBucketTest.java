@@ -0,0 +1,107 @@
+package com.webflux.study.backpressure;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class TokenBucketTest {
+
+    @Test
+    public void limitsRateAfterBurst() {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        TokenBucket bucket = new TokenBucket(10, 4, scheduler); // 100ms 마다 token 하나, 최대 4개
+
+        StepVerifier.withVirtualTime(() -> Flux.range(1, 12).transform(bucket.limit()), () -> scheduler, Long.MAX_VALUE)
+                .expectNext(1, 2, 3, 4)                   // burst
+                .expectNoEvent(Duration.ofMillis(199))
+                .thenAwait(Duration.ofMillis(1))
+                .expectNext(5, 6)                         // burst 의 절반이 모일 때까지 기다림
+                .thenAwait(Duration.ofMillis(200))
+                .expectNext(7, 8)
+                .thenAwait(Duration.ofMillis(400))
+                .expectNext(9, 10, 11, 12)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(bucket.granted(), is(12L));
+        assertThat(bucket.throttled(), is(4L)); // 0ms, 200ms, 400ms, 600ms
+    }
+
+    @Test
+    public void sharedBucketLimitsCombinedRate() {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        TokenBucket bucket = new TokenBucket(100, 10, scheduler);
+
+        StepVerifier.withVirtualTime(() -> Flux.merge(
+                                Flux.range(0, 100).transform(bucket.limit()),
+                                Flux.range(100, 100).transform(bucket.limit()))
+                        .count(),
+                        () -> scheduler, Long.MAX_VALUE)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(1_899))  // burst 10개 이후 나머지 190개는 10ms 에 하나씩
+                .thenAwait(Duration.ofMillis(1))
+                .expectNext(200L)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void idleSourceDoesNotStockpileDemand() {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        TokenBucket bucket = new TokenBucket(10, 2, scheduler);
+        Sinks.Many<Integer> sink = Sinks.many().unicast().onBackpressureBuffer();
+
+        StepVerifier.withVirtualTime(() -> sink.asFlux().transform(bucket.limit()), () -> scheduler, Long.MAX_VALUE)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofSeconds(3))     // Upstream 이 쉬는 동안에도 요청은 burst 개를 넘지 않음
+                .then(() -> {
+                    for (int i = 1; i <= 100; i++) {
+                        sink.tryEmitNext(i);
+                    }
+                })
+                .expectNext(1, 2)                         // 몰아서 emit 해도 burst 만큼만 바로 전달됨
+                .expectNoEvent(Duration.ofMillis(99))
+                .thenAwait(Duration.ofMillis(1))
+                .expectNext(3)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(bucket.granted(), is(3L));
+    }
+
+    @Test
+    public void idlePipelineDoesNotTakeSharedTokens() {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        TokenBucket bucket = new TokenBucket(10, 4, scheduler);
+        Sinks.Many<Integer> idle = Sinks.many().unicast().onBackpressureBuffer();
+        idle.asFlux().transform(bucket.limit()).subscribe();
+
+        StepVerifier.withVirtualTime(() -> Flux.range(1, 6).transform(bucket.limit()), () -> scheduler, Long.MAX_VALUE)
+                .expectNext(1, 2, 3, 4)                   // 쉬고 있는 체인이 있어도 busy 한 체인이 burst 를 모두 씀
+                .expectNoEvent(Duration.ofMillis(199))
+                .thenAwait(Duration.ofMillis(1))
+                .expectNext(5, 6)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void tryAcquireRefillsUpToBurst() {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        TokenBucket bucket = new TokenBucket(1_000, 5, scheduler);
+
+        assertThat(bucket.tryAcquire(10), is(5L));
+        assertThat(bucket.tryAcquire(1), is(0L));
+        assertThat(bucket.nanosUntilAvailable(2), is(2_000_000L));
+
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+        assertThat(bucket.tryAcquire(10), is(5L));
+    }
+}
@@ -0,0 +1,261 @@
+package com.webflux.study.operator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Hooks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * <h2>CryptoCurrencyPriceEmitter 다중 Listener 스트레스 테스트</h2>
+ * 수십 개의 Listener 에 수백만 건의 가격을 비동기로 전달해도 Listener 마다 순서와 개수가 보장되는지 검증함.
+ */
+public class CryptoCurrencyPriceEmitterTest {
+    private static final int LISTENERS = 48;
+    private static final int TICKS = 2_000_000;
+    private static final int CHUNK_SIZE = 1_000;
+
+    private Scheduler scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = Schedulers.newParallel("price-lane", 4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    public void fanOutToManyListenersTest() throws InterruptedException {
+        CryptoCurrencyPriceEmitter priceEmitter = new CryptoCurrencyPriceEmitter(scheduler);
+        CountDownLatch completed = new CountDownLatch(LISTENERS);
+        List<CountingListener> listeners = new ArrayList<>();
+        for (int i = 0; i < LISTENERS; i++) {
+            CountingListener listener = new CountingListener(completed, i == 0); // 첫 번째 Listener 는 느린 Listener 임.
+            listeners.add(listener);
+            priceEmitter.addIntListener(listener);
+        }
+
+        int[] chunk = new int[CHUNK_SIZE]; // 피드 쪽 버퍼는 재사용함.
+        for (int tick = 0; tick < TICKS; tick += CHUNK_SIZE) {
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                chunk[i] = tick + i;
+            }
+            priceEmitter.flowInto(chunk, 0, CHUNK_SIZE);
+        }
+        priceEmitter.complete();
+
+        assertThat(completed.await(60, TimeUnit.SECONDS), is(true));
+        for (CountingListener listener : listeners) {
+            assertThat(listener.received.get(), is((long) TICKS));
+            assertThat(listener.outOfOrder.get(), is(0L));
+        }
+    }
+
+    @Test
+    public void concurrentRegistrationTest() throws InterruptedException {
+        CryptoCurrencyPriceEmitter priceEmitter = new CryptoCurrencyPriceEmitter(scheduler);
+        CountDownLatch registered = new CountDownLatch(LISTENERS);
+        CountDownLatch completed = new CountDownLatch(LISTENERS);
+        List<Disposable> registrations = new ArrayList<>();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < LISTENERS; i++) {
+            Thread thread = new Thread(() -> {
+                Disposable registration = priceEmitter.addIntListener(new CountingListener(completed, false));
+                synchronized (registrations) {
+                    registrations.add(registration);
+                }
+                registered.countDown();
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        assertThat(registered.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(priceEmitter.listenerCount(), is(LISTENERS));
+
+        registrations.forEach(Disposable::dispose);
+        assertThat(priceEmitter.listenerCount(), is(0));
+
+        priceEmitter.complete();
+        assertThat(completed.getCount(), is((long) LISTENERS)); // 해제된 Listener 에게는 전달되지 않음.
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    @Test
+    public void slowListenerOnOtherWorkerDoesNotBlockTest() throws InterruptedException {
+        CryptoCurrencyPriceEmitter priceEmitter = new CryptoCurrencyPriceEmitter(scheduler);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch blockedCompleted = new CountDownLatch(1);
+        CountDownLatch fastCompleted = new CountDownLatch(1);
+        // Listener 가 스레드 수(4)보다 적으므로 두 Lane 은 서로 다른 스레드의 Worker 를 받음.
+        priceEmitter.addIntListener(new CryptoCurrencyIntPriceListener() {
+            @Override
+            public void onPrice(int[] prices, int offset, int length) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void onComplete() {
+                blockedCompleted.countDown();
+            }
+        });
+        CountingListener fast = new CountingListener(fastCompleted, false);
+        priceEmitter.addIntListener(fast);
+
+        int[] chunk = new int[CHUNK_SIZE];
+        for (int tick = 0; tick < 100 * CHUNK_SIZE; tick += CHUNK_SIZE) {
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                chunk[i] = tick + i;
+            }
+            priceEmitter.flowInto(chunk, 0, CHUNK_SIZE);
+        }
+        priceEmitter.complete();
+
+        // 첫 번째 Listener 가 멈춰 있는 동안에도 두 번째 Listener 는 끝까지 전달받음.
+        assertThat(fastCompleted.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(fast.received.get(), is(100L * CHUNK_SIZE));
+        assertThat(blockedCompleted.getCount(), is(1L));
+
+        release.countDown();
+        assertThat(blockedCompleted.await(10, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    public void disposeWhileEmittingTest() throws InterruptedException {
+        CryptoCurrencyPriceEmitter priceEmitter = new CryptoCurrencyPriceEmitter(scheduler);
+        CountDownLatch completed = new CountDownLatch(LISTENERS);
+        List<Disposable> registrations = new ArrayList<>();
+        for (int i = 0; i < LISTENERS; i++) {
+            registrations.add(priceEmitter.addIntListener(new CountingListener(completed, false)));
+        }
+
+        Thread disposer = new Thread(() -> registrations.forEach(Disposable::dispose));
+        int[] chunk = new int[CHUNK_SIZE];
+        for (int tick = 0; tick < 200 * CHUNK_SIZE; tick += CHUNK_SIZE) {
+            if (tick == 10 * CHUNK_SIZE) {
+                disposer.start();
+            }
+            priceEmitter.flowInto(chunk, 0, CHUNK_SIZE); // 해제된 Lane 에 enqueue 해도 예외가 발생하지 않음.
+        }
+        disposer.join();
+        priceEmitter.complete();
+
+        assertThat(priceEmitter.listenerCount(), is(0));
+        assertThat(completed.getCount(), is((long) LISTENERS));
+
+        CountDownLatch afterDispose = new CountDownLatch(1);
+        priceEmitter.addIntListener(new CountingListener(afterDispose, false));
+        priceEmitter.complete();
+        assertThat(afterDispose.await(10, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    public void throwingListenerDoesNotStopOtherListenersTest() throws InterruptedException {
+        throwingListenerDoesNotStopOtherListeners(new CryptoCurrencyPriceEmitter(scheduler));
+    }
+
+    @Test
+    public void throwingListenerDoesNotStopOtherListenersOnImmediateTest() throws InterruptedException {
+        throwingListenerDoesNotStopOtherListeners(new CryptoCurrencyPriceEmitter());
+    }
+
+    private void throwingListenerDoesNotStopOtherListeners(CryptoCurrencyPriceEmitter priceEmitter) throws InterruptedException {
+        AtomicLong dropped = new AtomicLong();
+        Hooks.onErrorDropped(e -> dropped.incrementAndGet());
+        try {
+            CountDownLatch completed = new CountDownLatch(3);
+            CountingListener before = new CountingListener(completed, false);
+            CountingListener after = new CountingListener(completed, false);
+            AtomicLong throwingCalls = new AtomicLong();
+            priceEmitter.addIntListener(before);
+            priceEmitter.addIntListener(new CryptoCurrencyIntPriceListener() {
+                @Override
+                public void onPrice(int[] prices, int offset, int length) {
+                    throwingCalls.incrementAndGet();
+                    throw new IllegalStateException("listener failure");
+                }
+
+                @Override
+                public void onComplete() {
+                    completed.countDown();
+                }
+            });
+            priceEmitter.addIntListener(after);
+
+            int[] chunk = new int[CHUNK_SIZE];
+            for (int tick = 0; tick < 10 * CHUNK_SIZE; tick += CHUNK_SIZE) {
+                for (int i = 0; i < CHUNK_SIZE; i++) {
+                    chunk[i] = tick + i;
+                }
+                priceEmitter.flowInto(chunk, 0, CHUNK_SIZE);
+            }
+            priceEmitter.complete();
+
+            // 예외를 던진 Listener 도 이후의 가격과 onComplete 를 계속 전달받음.
+            assertThat(completed.await(10, TimeUnit.SECONDS), is(true));
+            assertThat(throwingCalls.get(), is(10L));
+            assertThat(dropped.get(), is(10L));
+            for (CountingListener listener : List.of(before, after)) {
+                assertThat(listener.received.get(), is(10L * CHUNK_SIZE));
+                assertThat(listener.outOfOrder.get(), is(0L));
+            }
+        } finally {
+            Hooks.resetOnErrorDropped();
+        }
+    }
+
+    private static class CountingListener implements CryptoCurrencyIntPriceListener {
+        private final CountDownLatch completed;
+        private final boolean slow;
+        private final AtomicLong received = new AtomicLong();
+        private final AtomicLong outOfOrder = new AtomicLong();
+        private int expected;
+
+        private CountingListener(CountDownLatch completed, boolean slow) {
+            this.completed = completed;
+            this.slow = slow;
+        }
+
+        @Override
+        public void onPrice(int[] prices, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                if (prices[i] != expected++) {
+                    outOfOrder.incrementAndGet();
+                }
+            }
+            received.addAndGet(length);
+            if (slow && expected % 100_000 == 0) {
+                try {
+                    Thread.sleep(10L);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.webflux.study.operator;
+
+import com.webflux.study.operator.MultiCoinPriceEmitter.ShardStats;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MultiCoinPriceEmitterTest {
+    private static final List<String> COINS = List.of("BTC", "ETH", "XRP", "SOL");
+    private static final int PRICES_PER_COIN = 5_000;
+
+    @Test
+    public void assignsCoinsToShardsRoundRobin() {
+        MultiCoinPriceEmitter emitter = new MultiCoinPriceEmitter(COINS, 3, 16);
+
+        List<ShardStats> stats = emitter.stats();
+
+        assertThat(stats.size(), is(3));
+        assertThat(stats.get(0).getCoinNames(), contains("BTC", "SOL"));
+        assertThat(stats.get(1).getCoinNames(), contains("ETH"));
+        assertThat(stats.get(2).getCoinNames(), contains("XRP"));
+        assertThrows(IllegalArgumentException.class, () -> emitter.prices("DOGE"));
+    }
+
+    @Test
+    public void pricesOfOneCoinArriveInEmitOrderAcrossConcurrentProducers() throws InterruptedException {
+        MultiCoinPriceEmitter emitter = new MultiCoinPriceEmitter(COINS, 2, 256);
+        Map<String, List<Integer>> received = new ConcurrentHashMap<>();
+        for (String coin : COINS) {
+            List<Integer> prices = new CopyOnWriteArrayList<>();
+            received.put(coin, prices);
+            emitter.prices(coin).subscribe(coinPrice -> prices.add(coinPrice.getPrice()));
+        }
+
+        // 코인마다 Producer 하나가 가격을 올려가며 emit 하고, 같은 Shard 의 코인은 서로 다른 스레드에서 동시에 emit 함.
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (String coin : COINS) {
+            Thread producer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int price = 1; price <= PRICES_PER_COIN; price++) {
+                    assertThat(emitter.emit(coin, price), is(true));
+                    if ((price & 255) == 0) {
+                        Thread.yield();
+                    }
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+        start.countDown();
+        for (Thread producer : producers) {
+            producer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+
+        List<Integer> expected = IntStream.rangeClosed(1, PRICES_PER_COIN).boxed().collect(Collectors.toList());
+        for (String coin : COINS) {
+            assertThat(coin, received.get(coin), is(expected));
+        }
+        for (ShardStats shard : emitter.stats()) {
+            assertThat(shard.getEmitted(), is(2L * PRICES_PER_COIN));
+            assertThat(shard.getDropped(), is(0L));
+        }
+    }
+
+    @Test
+    public void fullShardDropsWithoutAffectingOtherShards() {
+        MultiCoinPriceEmitter emitter = new MultiCoinPriceEmitter(COINS, 2, 16);
+        List<Integer> btcPrices = new CopyOnWriteArrayList<>();
+        emitter.prices("BTC").subscribe(coinPrice -> btcPrices.add(coinPrice.getPrice()));
+        emitter.prices("ETH").subscribe(new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                // 요청하지 않으므로 ETH 가 속한 Shard 의 버퍼가 가득 참
+            }
+        });
+
+        int ethAccepted = 0;
+        for (int price = 1; price <= 100; price++) {
+            assertThat(emitter.emit("BTC", price), is(true));
+            if (emitter.emit("ETH", price)) {
+                ethAccepted++;
+            }
+        }
+
+        assertThat(ethAccepted, is(16));
+        assertThat(btcPrices.size(), is(100));
+        assertThat(emitter.stats().get(0).getDropped(), is(0L));
+        assertThat(emitter.stats().get(1).getDropped(), is(84L));
+    }
+}
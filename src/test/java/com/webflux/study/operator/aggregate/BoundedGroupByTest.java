@@ -0,0 +1,99 @@
+package com.webflux.study.operator.aggregate;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class BoundedGroupByTest {
+
+    @Test
+    public void slowGroupBackpressuresUpstream() {
+        BoundedGroupBy<Integer, Integer> groupBy =
+                new BoundedGroupBy<>(i -> i % 2, 2, 16, Duration.ofHours(1), VirtualTimeScheduler.create());
+        AtomicLong emitted = new AtomicLong();
+        List<GroupSubscriber> subscribers = new ArrayList<>();
+
+        Flux.range(0, 10_000)
+                .doOnNext(i -> emitted.incrementAndGet())
+                .transform(groupBy::apply)
+                .subscribe(group -> {
+                    GroupSubscriber subscriber = new GroupSubscriber();
+                    subscribers.add(subscriber);
+                    group.subscribe(subscriber);
+                });
+
+        // 그룹의 Subscriber 가 아무것도 요청하지 않으면 Upstream 에서도 prefetch 개만 받음.
+        assertThat(emitted.get(), is(16L));
+        assertThat(subscribers.size(), is(2));
+
+        subscribers.forEach(subscriber -> subscriber.request(Long.MAX_VALUE));
+
+        assertThat(emitted.get(), is(10_000L));
+        for (GroupSubscriber subscriber : subscribers) {
+            assertThat(subscriber.received.get(), is(5_000L));
+            assertThat(subscriber.completed, is(true));
+        }
+        assertThat(groupBy.liveGroups(), is(0));
+    }
+
+    @Test
+    public void cancelCompletesLiveGroups() {
+        BoundedGroupBy<Integer, Integer> groupBy =
+                new BoundedGroupBy<>(i -> i % 2, 2, Duration.ofHours(1), VirtualTimeScheduler.create());
+        Sinks.Many<Integer> source = Sinks.many().unicast().onBackpressureBuffer();
+        List<GroupSubscriber> subscribers = new ArrayList<>();
+
+        Disposable outer = source.asFlux()
+                .transform(groupBy::apply)
+                .subscribe(group -> {
+                    GroupSubscriber subscriber = new GroupSubscriber();
+                    subscribers.add(subscriber);
+                    group.subscribe(subscriber);
+                    subscriber.request(Long.MAX_VALUE);
+                });
+        source.tryEmitNext(1);
+        source.tryEmitNext(2);
+        assertThat(groupBy.liveGroups(), is(2));
+
+        outer.dispose();
+
+        assertThat(source.currentSubscriberCount(), is(0));
+        assertThat(groupBy.liveGroups(), is(0));
+        for (GroupSubscriber subscriber : subscribers) {
+            assertThat(subscriber.received.get(), is(1L));
+            assertThat(subscriber.completed, is(true));
+        }
+    }
+
+    private static class GroupSubscriber extends BaseSubscriber<Integer> {
+        private final AtomicLong received = new AtomicLong();
+        private volatile boolean completed;
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            // 테스트에서 직접 request() 함.
+        }
+
+        @Override
+        protected void hookOnNext(Integer value) {
+            received.incrementAndGet();
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            completed = true;
+        }
+    }
+}
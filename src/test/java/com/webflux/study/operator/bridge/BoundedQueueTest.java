@@ -0,0 +1,137 @@
+package com.webflux.study.operator.bridge;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.IntFunction;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BoundedQueueTest {
+
+    @Test
+    public void capacityIsRoundedUpToPowerOfTwo() {
+        assertThat(BoundedQueue.spsc(5).capacity(), is(8));
+        assertThat(BoundedQueue.mpsc(8).capacity(), is(8));
+        assertThat(BoundedQueue.mpsc(1).capacity(), is(1));
+        assertThrows(IllegalArgumentException.class, () -> BoundedQueue.spsc(0));
+        assertThrows(IllegalArgumentException.class, () -> BoundedQueue.mpsc((1 << 30) + 1));
+    }
+
+    @Test
+    public void spscKeepsFifoAndBoundariesAcrossWrapAround() {
+        keepsFifoAndBoundariesAcrossWrapAround(BoundedQueue::spsc);
+    }
+
+    @Test
+    public void mpscKeepsFifoAndBoundariesAcrossWrapAround() {
+        keepsFifoAndBoundariesAcrossWrapAround(BoundedQueue::mpsc);
+    }
+
+    private static void keepsFifoAndBoundariesAcrossWrapAround(IntFunction<BoundedQueue<Integer>> factory) {
+        BoundedQueue<Integer> queue = factory.apply(8);
+        assertThrows(NullPointerException.class, () -> queue.offer(null));
+        assertThat(queue.poll(), is(nullValue()));
+        assertThat(queue.isEmpty(), is(true));
+        int nextIn = 0;
+        int nextOut = 0;
+        // 매 round 마다 가득 채우고 일부만 꺼내서 index 가 배열 끝을 여러 번 넘어가게 함.
+        for (int round = 0; round < 100; round++) {
+            while (queue.offer(nextIn)) {
+                nextIn++;
+            }
+            assertThat(queue.size(), is(8));
+            assertThat(queue.isEmpty(), is(false));
+            for (int i = 0; i < 1 + round % 8; i++) {
+                assertThat(queue.poll(), is(nextOut++));
+            }
+            assertThat(queue.size(), is(nextIn - nextOut));
+        }
+        for (Integer value; (value = queue.poll()) != null; ) {
+            assertThat(value, is(nextOut++));
+        }
+        assertThat(nextOut, is(nextIn));
+        assertThat(queue.isEmpty(), is(true));
+        assertThat(queue.size(), is(0));
+        assertThat(queue.poll(), is(nullValue()));
+    }
+
+    @Test
+    public void spscConcurrentProducerAndConsumerKeepOrder() throws InterruptedException {
+        int count = 200_000;
+        BoundedQueue<Integer> queue = BoundedQueue.spsc(64);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                while (!queue.offer(i)) {
+                    Thread.yield(); // 코어가 적은 환경에서도 상대 스레드가 실행될 수 있게 함.
+                }
+            }
+        });
+        producer.start();
+
+        for (int expected = 0; expected < count; ) {
+            Integer value = queue.poll();
+            if (value == null) {
+                Thread.yield(); // 코어가 적은 환경에서도 상대 스레드가 실행될 수 있게 함.
+                continue;
+            }
+            assertThat(value, is(expected++));
+        }
+        producer.join();
+        assertThat(queue.isEmpty(), is(true));
+    }
+
+    @Test
+    public void mpscStressHasNoLossNoDuplicationAndKeepsPerProducerOrder() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50_000;
+        BoundedQueue<Long> queue = BoundedQueue.mpsc(64); // 작게 잡아서 가득 찬 상태에서 경쟁이 자주 일어나게 함.
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producerId = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (long seq = 0; seq < perProducer; seq++) {
+                    long value = producerId << 32 | seq;
+                    while (!queue.offer(value)) {
+                        Thread.yield(); // 코어가 적은 환경에서도 상대 스레드가 실행될 수 있게 함.
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+
+        long[] nextSeq = new long[producers];
+        for (long received = 0; received < (long) producers * perProducer; ) {
+            Long value = queue.poll();
+            if (value == null) {
+                Thread.yield(); // 코어가 적은 환경에서도 상대 스레드가 실행될 수 있게 함.
+                continue;
+            }
+            int producerId = (int) (value >>> 32);
+            long seq = value & 0xFFFF_FFFFL;
+            assertThat(seq, is(nextSeq[producerId]++)); // 빠지거나 중복되면 순서가 어긋남.
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (long seq : nextSeq) {
+            assertThat(seq, is((long) perProducer));
+        }
+        assertThat(queue.poll(), is(nullValue()));
+    }
+}
@@ -0,0 +1,56 @@
+package com.webflux.study.operator.bridge;
+
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DemandSlicedFluxTest {
+    private static final int[] PRICES = {1, 2, 3, 4, 5};
+
+    @Test
+    public void rejectsInvalidSliceSizeBeforeSubscribe() {
+        assertThrows(IllegalArgumentException.class, () -> DemandSlicedFlux.items(IntSliceSource.of(PRICES), 0));
+        assertThrows(IllegalArgumentException.class, () -> DemandSlicedFlux.slices(IntSliceSource.of(PRICES), -1));
+    }
+
+    @Test
+    public void emitsOneSlicePerRequest() {
+        StepVerifier.create(DemandSlicedFlux.slices(IntSliceSource.of(PRICES), 2), 1)
+                .expectNextMatches(slice -> slice.length == 2 && slice[0] == 1 && slice[1] == 2)
+                .expectNoEvent(Duration.ofMillis(10))
+                .thenRequest(2) // 남은 구간 2개를 정확히 요청해도 완료됨
+                .expectNextMatches(slice -> slice.length == 2 && slice[0] == 3)
+                .expectNextMatches(slice -> slice.length == 1 && slice[0] == 5)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void completesWhenExactDemandConsumesSource() {
+        StepVerifier.create(DemandSlicedFlux.items(IntSliceSource.of(new int[]{1, 2, 3}), 8), 3)
+                .expectNext(1, 2, 3)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void sourceReturningZeroIsRejected() {
+        StepVerifier.create(DemandSlicedFlux.items((buffer, maxLength) -> 0, 4))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void itemsHonourDemand() {
+        StepVerifier.create(DemandSlicedFlux.items(IntSliceSource.of(PRICES), 4), 3)
+                .expectNext(1, 2, 3)
+                .expectNoEvent(Duration.ofMillis(10))
+                .thenRequest(Long.MAX_VALUE)
+                .expectNext(4, 5)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,101 @@
+package com.webflux.study.operator.bridge;
+
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class QueueBridgeTest {
+
+    @Test
+    public void rejectsEmitsWhenQueueIsFull() {
+        QueueBridge<Integer> bridge = new QueueBridge<>(BoundedQueue.spsc(4));
+
+        StepVerifier.create(bridge.asFlux(), 0)
+                .then(() -> {
+                    for (int i = 1; i <= 4; i++) {
+                        assertThat(bridge.emit(i), is(true));
+                    }
+                    assertThat(bridge.emit(5), is(false)); // 요청이 없으므로 큐가 비워지지 않음
+                    assertThat(bridge.emit(6), is(false));
+                })
+                .then(() -> assertThat(bridge.depth(), is(4)))
+                .thenRequest(2)
+                .expectNext(1, 2)
+                .then(() -> assertThat(bridge.emit(7), is(true))) // 꺼낸 만큼 다시 들어감
+                .thenRequest(Long.MAX_VALUE)
+                .expectNext(3, 4, 7)
+                .then(bridge::complete)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(bridge.emitted(), is(5L));
+        assertThat(bridge.rejected(), is(2L));
+        assertThat(bridge.maxDepth(), is(4));
+        assertThat(bridge.emit(8), is(false)); // 종료 이후의 emit 은 무시됨
+        assertThat(bridge.rejected(), is(2L));
+    }
+
+    @Test
+    public void errorIsDeliveredAfterQueuedData() {
+        QueueBridge<Integer> bridge = new QueueBridge<>(BoundedQueue.spsc(4));
+
+        StepVerifier.create(bridge.asFlux(), 0)
+                .then(() -> {
+                    bridge.emit(1);
+                    bridge.error(new IllegalStateException("feed closed"));
+                })
+                .thenRequest(1)
+                .expectNext(1)
+                .expectErrorMessage("feed closed")
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void allowsOnlyOneSubscriber() {
+        QueueBridge<Integer> bridge = new QueueBridge<>(BoundedQueue.spsc(4));
+        bridge.asFlux().subscribe();
+
+        StepVerifier.create(bridge.asFlux())
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void concurrentEmitsAreEitherDeliveredOrRejected() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 100_000;
+        QueueBridge<Integer> bridge = new QueueBridge<>(BoundedQueue.mpsc(256));
+        AtomicLong received = new AtomicLong();
+        AtomicLong accepted = new AtomicLong();
+        bridge.asFlux().subscribe(value -> received.incrementAndGet());
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    if (bridge.emit(i)) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        bridge.complete();
+
+        assertThat(accepted.get() + bridge.rejected(), is((long) producers * perProducer));
+        assertThat(bridge.emitted(), is(accepted.get()));
+        assertThat(received.get(), is(accepted.get()));
+        assertThat(bridge.depth(), is(0));
+    }
+}
@@ -0,0 +1,59 @@
+package com.webflux.study.operator.candle;
+
+import com.webflux.study.operator.CoinPrice;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class CandleAggregatorTest {
+
+    @Test
+    public void tumblingWindowTest() {
+        Flux<CoinPrice> ticks = Flux.just(
+                new CoinPrice("BTC", 100, 0L),
+                new CoinPrice("ETH", 1, 10L),
+                new CoinPrice("BTC", 120, 300L),
+                new CoinPrice("BTC", 90, 700L),
+                new CoinPrice("BTC", 110, 999L),
+                new CoinPrice("BTC", 130, 1_200L),
+                new CoinPrice("BTC", 140, 3_500L)); // 2초 구간은 tick 이 없으므로 Candle 이 emit 되지 않음.
+
+        StepVerifier
+                .create(CandleAggregator.candles(ticks, "BTC", Duration.ofSeconds(1)))
+                .assertNext(candle -> assertCandle(candle, 0L, 100, 120, 90, 110, 4))
+                .assertNext(candle -> assertCandle(candle, 1_000L, 130, 130, 130, 130, 1))
+                .assertNext(candle -> assertCandle(candle, 3_000L, 140, 140, 140, 140, 1))
+                .verifyComplete();
+    }
+
+    @Test
+    public void slidingWindowTest() {
+        Flux<CoinPrice> ticks = Flux.just(
+                new CoinPrice("BTC", 100, 0L),
+                new CoinPrice("BTC", 150, 1_000L),
+                new CoinPrice("BTC", 80, 2_000L));
+
+        StepVerifier
+                .create(CandleAggregator.candles(ticks, "BTC", Duration.ofSeconds(2), Duration.ofSeconds(1)))
+                .assertNext(candle -> assertCandle(candle, -1_000L, 100, 100, 100, 100, 1))
+                .assertNext(candle -> assertCandle(candle, 0L, 100, 150, 100, 150, 2))
+                .assertNext(candle -> assertCandle(candle, 1_000L, 150, 150, 80, 80, 2))
+                .assertNext(candle -> assertCandle(candle, 2_000L, 80, 80, 80, 80, 1))
+                .verifyComplete();
+    }
+
+    private static void assertCandle(Candle candle, long windowStart,
+                                     int open, int high, int low, int close, long volume) {
+        assertThat(candle.getWindowStart(), is(windowStart));
+        assertThat(candle.getOpen(), is(open));
+        assertThat(candle.getHigh(), is(high));
+        assertThat(candle.getLow(), is(low));
+        assertThat(candle.getClose(), is(close));
+        assertThat(candle.getVolume(), is(volume));
+    }
+}
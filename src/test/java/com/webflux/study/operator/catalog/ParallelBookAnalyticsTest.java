@@ -0,0 +1,75 @@
+package com.webflux.study.operator.catalog;
+
+import com.webflux.study.operator.aggregate.RoyaltyAggregator;
+import com.webflux.study.operator.catalog.ParallelBookAnalytics.CatalogStats;
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ParallelBookAnalyticsTest {
+
+    @Test
+    public void rejectsInvalidBuckets() {
+        BookCatalog catalog = BookCatalog.builder(1).add("book", "author", null, 1_000, 1).build();
+
+        assertThrows(IllegalArgumentException.class, () -> new ParallelBookAnalytics(catalog, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelBookAnalytics(catalog, 1_000, 0));
+    }
+
+    @Test
+    public void histogramClampsOutOfRangePrices() {
+        BookCatalog catalog = BookCatalog.builder(4)
+                .add("negative", "author", null, -1_500, 1) // 음수 가격은 첫 구간
+                .add("cheap", "author", null, 500, 1)
+                .add("middle", "author", null, 1_500, 1)
+                .add("expensive", "author", null, 99_000, 1) // 범위를 넘는 가격은 마지막 구간
+                .build();
+
+        CatalogStats stats = new ParallelBookAnalytics(catalog, 1_000, 3)
+                .analyze(2, Schedulers.immediate())
+                .block(Duration.ofSeconds(5));
+
+        assertThat(stats.getPriceHistogram(), is(new long[]{2, 1, 1}));
+    }
+
+    @Test
+    public void mergesRailsAcrossChunks() {
+        int size = ParallelBookAnalytics.CHUNK_SIZE * 3 + 123; // 여러 구간이 여러 rail 로 나뉨
+        BookCatalog.Builder builder = BookCatalog.builder(size);
+        long[] expectedRoyalties = new long[3];
+        long expectedPenNameValue = 0;
+        long[] expectedHistogram = new long[10];
+        for (int row = 0; row < size; row++) {
+            int author = row % 3;
+            int price = (row % 20) * 1_000;
+            int stockQuantity = row % 7;
+            boolean hasPenName = author == 0;
+            builder.add("book-" + row, "author-" + author, hasPenName ? "pen" : null, price, stockQuantity);
+            expectedRoyalties[author] += RoyaltyAggregator.royalty(price, stockQuantity);
+            if (hasPenName) {
+                expectedPenNameValue += price * (long) stockQuantity;
+            }
+            expectedHistogram[Math.min(price / 1_000, 9)]++;
+        }
+        Scheduler scheduler = Schedulers.newParallel("analytics-test", 4);
+
+        CatalogStats stats = new ParallelBookAnalytics(builder.build(), 1_000, 10)
+                .analyze(4, scheduler)
+                .block(Duration.ofSeconds(30));
+        scheduler.dispose();
+
+        assertThat(stats.royaltiesByAuthor(), is(Map.of(
+                "author-0", expectedRoyalties[0],
+                "author-1", expectedRoyalties[1],
+                "author-2", expectedRoyalties[2])));
+        assertThat(stats.stockValueByPenName(), is(Map.of("pen", expectedPenNameValue)));
+        assertThat(stats.getPriceHistogram(), is(expectedHistogram));
+    }
+}
@@ -0,0 +1,152 @@
+package com.webflux.study.sinks;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Exceptions;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class BoundedReplaySinkTest {
+
+    @Test
+    public void evictsOldestByBytes() {
+        BoundedReplaySink<Integer> sink = new BoundedReplaySink<>(3 * 8, Duration.ofHours(1), value -> 8);
+
+        for (int i = 1; i <= 40; i++) { // ring buffer 가 여러 번 돌고 한 번 커지도록 함.
+            sink.tryEmitNext(i);
+        }
+
+        assertThat(sink.size(), is(3));
+        assertThat(sink.bytes(), is(24L));
+        assertThat(sink.evictedByBytes(), is(37L));
+
+        sink.tryEmitComplete();
+        StepVerifier.create(sink.asFlux())
+                .expectNext(38, 39, 40)
+                .verifyComplete();
+    }
+
+    @Test
+    public void evictsOlderThanMaxAgeAndContinuesWithLiveTail() {
+        VirtualTimeScheduler clock = VirtualTimeScheduler.create();
+        BoundedReplaySink<Integer> sink = new BoundedReplaySink<>(Long.MAX_VALUE, Duration.ofSeconds(10), value -> 1, clock);
+
+        sink.tryEmitNext(1);
+        clock.advanceTimeBy(Duration.ofSeconds(6));
+        sink.tryEmitNext(2);
+        clock.advanceTimeBy(Duration.ofSeconds(6));
+
+        StepVerifier.create(sink.asFlux())
+                .expectNext(2)
+                .then(() -> sink.tryEmitNext(3))
+                .expectNext(3)
+                .then(sink::tryEmitComplete)
+                .verifyComplete();
+
+        assertThat(sink.evictedByAge(), is(1L));
+        assertThat(sink.subscriberCount(), is(0));
+    }
+
+    @Test
+    public void slowSubscriberDropsLatestWhenLiveBufferIsFull() {
+        BoundedReplaySink<Integer> sink = new BoundedReplaySink<>(Long.MAX_VALUE, Duration.ofHours(1), value -> 1,
+                VirtualTimeScheduler.create(), 8, BoundedReplaySink.Overflow.DROP_LATEST);
+
+        StepVerifier.create(sink.asFlux(), 0)
+                .then(() -> {
+                    for (int i = 1; i <= 12; i++) {
+                        sink.tryEmitNext(i);
+                    }
+                    sink.tryEmitComplete();
+                })
+                .thenRequest(Long.MAX_VALUE)
+                .expectNext(1, 2, 3, 4, 5, 6, 7, 8)
+                .verifyComplete();
+
+        assertThat(sink.dropped(), is(4L));
+        assertThat(sink.size(), is(12));
+    }
+
+    @Test
+    public void slowSubscriberFailsWhenLiveBufferIsFull() {
+        BoundedReplaySink<Integer> sink = new BoundedReplaySink<>(Long.MAX_VALUE, Duration.ofHours(1), value -> 1,
+                VirtualTimeScheduler.create(), 8, BoundedReplaySink.Overflow.ERROR);
+
+        StepVerifier.create(sink.asFlux(), 0)
+                .then(() -> {
+                    for (int i = 1; i <= 12; i++) {
+                        sink.tryEmitNext(i);
+                    }
+                })
+                .thenRequest(Long.MAX_VALUE)
+                .expectNext(1, 2, 3, 4, 5, 6, 7, 8)
+                .verifyErrorMatches(Exceptions::isOverflow);
+
+        assertThat(sink.dropped(), is(1L));
+        assertThat(sink.subscriberCount(), is(0));
+    }
+
+    @Test
+    public void lateSubscriberReplayingLongHistoryDoesNotOverflowLiveBuffer() {
+        BoundedReplaySink<Integer> sink = new BoundedReplaySink<>(Long.MAX_VALUE, Duration.ofHours(1), value -> 1,
+                VirtualTimeScheduler.create(), 8, BoundedReplaySink.Overflow.ERROR);
+        for (int i = 1; i <= 1_000; i++) {
+            sink.tryEmitNext(i);
+        }
+
+        StepVerifier.create(sink.asFlux(), 10)
+                .expectNextCount(10)
+                .then(() -> {
+                    // history 를 replay 하는 도중에 live 버퍼(8개)보다 많은 데이터가 emit 됨
+                    for (int i = 1_001; i <= 1_100; i++) {
+                        sink.tryEmitNext(i);
+                    }
+                })
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextSequence(IntStream.rangeClosed(11, 1_100).boxed().collect(Collectors.toList()))
+                .then(() -> sink.tryEmitNext(1_101))
+                .expectNext(1_101)
+                .then(sink::tryEmitComplete)
+                .verifyComplete();
+
+        assertThat(sink.dropped(), is(0L));
+    }
+
+    @Test
+    public void slowSubscriberDoesNotBlockOtherCallers() throws Exception {
+        BoundedReplaySink<Integer> sink = new BoundedReplaySink<>(Long.MAX_VALUE, Duration.ofHours(1), value -> 1,
+                VirtualTimeScheduler.create());
+        CountDownLatch delivering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        sink.asFlux().subscribe(value -> {
+            delivering.countDown();
+            try {
+                release.await(); // emit 하는 스레드를 onNext 안에 붙잡아 둠
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        CompletableFuture<Void> emitter = CompletableFuture.runAsync(() -> sink.tryEmitNext(1));
+        assertThat(delivering.await(5, TimeUnit.SECONDS), is(true));
+
+        // 전달 중에도 조회와 새 구독은 기다리지 않음
+        assertThat(CompletableFuture.supplyAsync(sink::size).get(1, TimeUnit.SECONDS), is(1));
+        StepVerifier.create(sink.asFlux().take(1))
+                .expectNext(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        release.countDown();
+        emitter.get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,29 @@
+package com.webflux.study.sinks;
+
+import com.webflux.study.operator.CoinPrice;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class CoinPriceCodecTest {
+    private final CoinPriceCodec codec = new CoinPriceCodec();
+
+    @Test
+    public void encodedSizeCountsUtf8Bytes() {
+        for (String name : new String[]{"BTC", "비트코인", "🪙coin"}) {
+            CoinPrice price = new CoinPrice(name, 100, 1L);
+            ByteBuffer buffer = ByteBuffer.allocate(codec.encodedSize(price));
+
+            codec.encode(price, buffer);
+
+            assertThat(buffer.remaining(), is(0));
+            assertThat(codec.encodedSize(price), is(1 + name.getBytes(StandardCharsets.UTF_8).length + 12));
+            buffer.flip();
+            assertThat(codec.decode(buffer).getCoinName(), is(name));
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.webflux.study.sinks;
+
+import com.webflux.study.sinks.IsolatedMulticastSink.Overflow;
+import com.webflux.study.sinks.IsolatedMulticastSink.SubscriberStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+public class IsolatedMulticastSinkTest {
+    private Scheduler scheduler;
+
+    @BeforeEach
+    public void setUp() {
+        scheduler = Schedulers.newParallel("isolated-test", 2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    public void slowSubscriberDoesNotHoldUpFastOne() {
+        IsolatedMulticastSink<Integer> sink = new IsolatedMulticastSink<>(4, Overflow.DROP, scheduler);
+        Recorder<Integer> fast = new Recorder<>(Long.MAX_VALUE);
+        Recorder<Integer> slow = new Recorder<>(0); // 요청하지 않으므로 버퍼가 금방 가득 참
+        sink.asFlux().subscribe(fast);
+        sink.asFlux().subscribe(slow);
+
+        // 빠른 Subscriber 가 받는 속도에 맞춰 emit 하는 동안 느린 Subscriber 의 버퍼는 계속 가득 차 있음
+        emitAtPaceOf(fast, sink, 1, 100);
+        sink.tryEmitComplete();
+
+        awaitUntil(() -> fast.completed);
+        assertThat(fast.values, is(range(1, 100)));
+        assertThat(slow.values, is(empty()));
+        assertThat(slow.completed, is(false)); // 버퍼에 남은 데이터를 전달하기 전에는 완료하지 않음
+    }
+
+    @Test
+    public void dropDiscardsNewValuesForFullSubscriberOnly() {
+        IsolatedMulticastSink<Integer> sink = new IsolatedMulticastSink<>(4, Overflow.DROP, scheduler);
+        Recorder<Integer> fast = new Recorder<>(Long.MAX_VALUE);
+        Recorder<Integer> slow = new Recorder<>(0);
+        sink.asFlux().subscribe(fast);
+        sink.asFlux().subscribe(slow);
+
+        emitAtPaceOf(fast, sink, 1, 10);
+        SubscriberStats slowStats = statsOf(sink, 2);
+        assertThat(slowStats.getDropped(), is(6L));
+        assertThat(slowStats.getLag(), is(4L));
+        assertThat(statsOf(sink, 1).getDropped(), is(0L));
+
+        sink.tryEmitComplete();
+        slow.request(Long.MAX_VALUE);
+        awaitUntil(() -> fast.completed && slow.completed);
+
+        assertThat(fast.values, is(range(1, 10)));
+        assertThat(slow.values, contains(1, 2, 3, 4));
+    }
+
+    @Test
+    public void conflateKeepsOnlyLatestOverflowedValue() {
+        IsolatedMulticastSink<Integer> sink = new IsolatedMulticastSink<>(4, Overflow.CONFLATE, scheduler);
+        Recorder<Integer> slow = new Recorder<>(0);
+        sink.asFlux().subscribe(slow);
+
+        for (int i = 1; i <= 10; i++) {
+            sink.tryEmitNext(i);
+        }
+        SubscriberStats stats = statsOf(sink, 1);
+        assertThat(stats.getConflated(), is(5L)); // 5 ~ 9 가 차례로 최신 값에 덮어써짐
+        assertThat(stats.getLag(), is(5L));
+
+        sink.tryEmitComplete();
+        slow.request(Long.MAX_VALUE);
+        awaitUntil(() -> slow.completed);
+
+        assertThat(slow.values, contains(1, 2, 3, 4, 10));
+    }
+
+    @Test
+    public void disconnectErrorsOnlyTheSlowSubscriber() {
+        IsolatedMulticastSink<Integer> sink = new IsolatedMulticastSink<>(4, Overflow.DISCONNECT, scheduler);
+        Recorder<Integer> fast = new Recorder<>(Long.MAX_VALUE);
+        Recorder<Integer> slow = new Recorder<>(0);
+        sink.asFlux().subscribe(fast);
+        sink.asFlux().subscribe(slow);
+
+        emitAtPaceOf(fast, sink, 1, 5);
+        awaitUntil(() -> slow.error != null);
+        assertThat(Exceptions.isOverflow(slow.error), is(true));
+        assertThat(slow.values, is(empty()));
+        assertThat(sink.currentSubscriberCount(), is(1));
+
+        emitAtPaceOf(fast, sink, 6, 10);
+        sink.tryEmitComplete();
+        awaitUntil(() -> fast.completed);
+
+        assertThat(fast.values, is(range(1, 10)));
+        assertThat(fast.error, is((Throwable) null));
+    }
+
+    @Test
+    public void subscribersCancellingDuringEmissionAreRemoved() {
+        IsolatedMulticastSink<Integer> sink = new IsolatedMulticastSink<>(16, Overflow.DROP, scheduler);
+        List<List<Integer>> taken = new ArrayList<>();
+        for (int n = 1; n <= 8; n++) {
+            List<Integer> values = new CopyOnWriteArrayList<>();
+            taken.add(values);
+            sink.asFlux().take(n).subscribe(values::add); // n 개를 받으면 onNext 안에서 cancel 함
+        }
+        Recorder<Integer> remaining = new Recorder<>(Long.MAX_VALUE);
+        sink.asFlux().subscribe(remaining);
+
+        // emit 하는 도중에 Worker 가 onNext 안에서 cancel 함
+        emitAtPaceOf(remaining, sink, 1, 100);
+        awaitUntil(() -> sink.currentSubscriberCount() == 1);
+
+        for (int n = 1; n <= 8; n++) {
+            assertThat(taken.get(n - 1), is(range(1, n)));
+        }
+        remaining.cancel();
+        awaitUntil(() -> sink.currentSubscriberCount() == 0);
+        assertThat(sink.tryEmitNext(101), is(Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER));
+    }
+
+    private static void emitAtPaceOf(Recorder<Integer> subscriber, IsolatedMulticastSink<Integer> sink, int from, int to) {
+        int received = subscriber.values.size();
+        for (int i = from; i <= to; i++) {
+            assertThat(sink.tryEmitNext(i), is(Sinks.EmitResult.OK));
+            int expected = received + i - from + 1;
+            awaitUntil(() -> subscriber.values.size() == expected);
+        }
+    }
+
+    private static SubscriberStats statsOf(IsolatedMulticastSink<?> sink, long id) {
+        return sink.stats().stream()
+                .filter(stats -> stats.getId() == id)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static List<Integer> range(int from, int to) {
+        return IntStream.rangeClosed(from, to).boxed().collect(Collectors.toList());
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not met within 5s");
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    /**
+     * 처음 요청할 개수를 정하고, 받은 Signal 을 기록하는 Subscriber.
+     */
+    private static class Recorder<T> extends BaseSubscriber<T> {
+        private final long initialRequest;
+        private final List<T> values = new CopyOnWriteArrayList<>();
+        private volatile boolean completed;
+        private volatile Throwable error;
+
+        Recorder(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            if (initialRequest > 0) {
+                request(initialRequest);
+            }
+        }
+
+        @Override
+        protected void hookOnNext(T value) {
+            values.add(value);
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            completed = true;
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            error = throwable;
+        }
+    }
+}
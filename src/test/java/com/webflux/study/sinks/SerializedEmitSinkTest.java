@@ -0,0 +1,219 @@
+package com.webflux.study.sinks;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+public class SerializedEmitSinkTest {
+    private static final int PRODUCERS = 4;
+    private static final int PER_PRODUCER = 20_000;
+
+    @Test
+    public void concurrentEmitsArriveExactlyOnce() throws InterruptedException {
+        RecordingSink<Integer> delegate = new RecordingSink<>(Sinks.many().unicast().onBackpressureBuffer());
+        SerializedEmitSink<Integer> sink = new SerializedEmitSink<>(delegate);
+        AtomicIntegerArray received = new AtomicIntegerArray(PRODUCERS * PER_PRODUCER);
+        AtomicInteger completes = new AtomicInteger();
+        sink.asFlux().subscribe(received::incrementAndGet, e -> {}, completes::incrementAndGet);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            int base = p * PER_PRODUCER;
+            Thread producer = new Thread(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < PER_PRODUCER; i++) {
+                    sink.emitNext(base + i);
+                    if ((i & 255) == 0) {
+                        Thread.yield(); // 코어가 하나여도 다른 스레드가 drain 중에 끼어들게 함
+                    }
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+        start.countDown();
+        for (Thread producer : producers) {
+            producer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        sink.emitComplete();
+        awaitUntil(() -> completes.get() == 1);
+
+        for (int i = 0; i < received.length(); i++) {
+            assertThat("value " + i, received.get(i), is(1));
+        }
+        assertThat(delegate.nonSerialized.sum(), is(0L));
+        assertThat(sink.failed(), is(0L));
+        assertThat(sink.offered(), is((long) PRODUCERS * PER_PRODUCER));
+        assertThat(delegate.terminals.get(), is(1));
+    }
+
+    @Test
+    public void terminalArrivingDuringDrainIsEmittedOnce() throws InterruptedException {
+        RecordingSink<Integer> delegate = new RecordingSink<>(Sinks.many().unicast().onBackpressureBuffer());
+        SerializedEmitSink<Integer> sink = new SerializedEmitSink<>(delegate);
+        CountDownLatch draining = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        List<String> terminals = new CopyOnWriteArrayList<>();
+        sink.asFlux().subscribe(v -> {
+            if (v == 1) {
+                draining.countDown();
+                awaitQuietly(release); // drain 스레드를 onNext 안에 붙잡아 둠
+            }
+            received.add(v);
+        }, e -> terminals.add("error"), () -> terminals.add("complete"));
+
+        Thread drainer = new Thread(() -> sink.emitNext(1));
+        drainer.start();
+        assertThat(draining.await(5, TimeUnit.SECONDS), is(true));
+
+        // drain 중에 들어온 데이터와 종료 Signal 은 큐에 남고 drain 스레드가 처리함
+        sink.emitNext(2);
+        sink.emitComplete();
+        sink.emitError(new IllegalStateException("late"));
+        sink.emitComplete();
+        sink.emitNext(3);
+        release.countDown();
+        drainer.join(TimeUnit.SECONDS.toMillis(5));
+
+        sink.emitComplete(); // drain 이 끝난 뒤에 다시 호출해도 다시 보내지 않음
+        sink.emitError(new IllegalStateException("later"));
+
+        assertThat(received, contains(1, 2));
+        assertThat(terminals, contains("complete"));
+        assertThat(delegate.terminals.get(), is(1));
+        assertThat(sink.failed(), is(1L)); // 종료 후에 emit 한 3
+    }
+
+    @Test
+    public void concurrentTerminalsAreEmittedOnce() throws InterruptedException {
+        for (int round = 0; round < 200; round++) {
+            RecordingSink<Integer> delegate = new RecordingSink<>(Sinks.many().unicast().onBackpressureBuffer());
+            SerializedEmitSink<Integer> sink = new SerializedEmitSink<>(delegate);
+            List<String> terminals = new CopyOnWriteArrayList<>();
+            sink.asFlux().subscribe(v -> {}, e -> terminals.add("error"), () -> terminals.add("complete"));
+
+            CountDownLatch start = new CountDownLatch(1);
+            Thread completer = new Thread(() -> {
+                awaitQuietly(start);
+                sink.emitNext(1);
+                sink.emitComplete();
+            });
+            Thread failer = new Thread(() -> {
+                awaitQuietly(start);
+                sink.emitNext(2);
+                sink.emitError(new IllegalStateException("boom"));
+            });
+            completer.start();
+            failer.start();
+            start.countDown();
+            completer.join(TimeUnit.SECONDS.toMillis(5));
+            failer.join(TimeUnit.SECONDS.toMillis(5));
+
+            assertThat("round " + round, terminals.size(), is(1));
+            assertThat("round " + round, delegate.terminals.get(), is(1));
+            assertThat("round " + round, delegate.nonSerialized.sum(), is(0L));
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not met within 5s");
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    /**
+     * 원본 Sinks 로 넘어간 호출과 FAIL_NON_SERIALIZED 결과를 셈.
+     */
+    private static class RecordingSink<T> implements Sinks.Many<T> {
+        private final Sinks.Many<T> delegate;
+        private final LongAdder nonSerialized = new LongAdder();
+        private final AtomicInteger terminals = new AtomicInteger();
+
+        RecordingSink(Sinks.Many<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Sinks.EmitResult tryEmitNext(T t) {
+            return record(delegate.tryEmitNext(t));
+        }
+
+        @Override
+        public Sinks.EmitResult tryEmitComplete() {
+            terminals.incrementAndGet();
+            return record(delegate.tryEmitComplete());
+        }
+
+        @Override
+        public Sinks.EmitResult tryEmitError(Throwable error) {
+            terminals.incrementAndGet();
+            return record(delegate.tryEmitError(error));
+        }
+
+        @Override
+        public void emitNext(T t, Sinks.EmitFailureHandler failureHandler) {
+            delegate.emitNext(t, failureHandler);
+        }
+
+        @Override
+        public void emitComplete(Sinks.EmitFailureHandler failureHandler) {
+            delegate.emitComplete(failureHandler);
+        }
+
+        @Override
+        public void emitError(Throwable error, Sinks.EmitFailureHandler failureHandler) {
+            delegate.emitError(error, failureHandler);
+        }
+
+        @Override
+        public int currentSubscriberCount() {
+            return delegate.currentSubscriberCount();
+        }
+
+        @Override
+        public Flux<T> asFlux() {
+            return delegate.asFlux();
+        }
+
+        @Override
+        public Object scanUnsafe(Attr key) {
+            return delegate.scanUnsafe(key);
+        }
+
+        private Sinks.EmitResult record(Sinks.EmitResult result) {
+            if (result == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+                nonSerialized.increment();
+            }
+            return result;
+        }
+    }
+}
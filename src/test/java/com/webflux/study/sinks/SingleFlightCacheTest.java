@@ -0,0 +1,111 @@
+package com.webflux.study.sinks;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class SingleFlightCacheTest {
+    private static final int CALLERS = 5_000;
+
+    @Test
+    public void concurrentCallersShareOneLoad() throws Exception {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(Duration.ofMinutes(1));
+        AtomicInteger backendCalls = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<String>> results = new ArrayList<>(CALLERS);
+            for (int i = 0; i < CALLERS; i++) {
+                String key = i % 2 == 0 ? "Asia/Seoul" : "Europe/London";
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get(key, k -> Mono.fromCallable(() -> {
+                                backendCalls.incrementAndGet();
+                                return "time of " + k;
+                            })
+                            .delayElement(Duration.ofMillis(200)))
+                            .block(Duration.ofSeconds(10));
+                }));
+            }
+            start.countDown();
+
+            for (int i = 0; i < CALLERS; i++) {
+                String key = i % 2 == 0 ? "Asia/Seoul" : "Europe/London";
+                assertThat(results.get(i).get(10, TimeUnit.SECONDS), is("time of " + key));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(backendCalls.get(), is(2));
+        assertThat(cache.loads(), is(2L));
+        assertThat(cache.coalesced() + cache.hits(), is((long) CALLERS - 2));
+    }
+
+    @Test
+    public void reloadsAfterTtl() {
+        VirtualTimeScheduler clock = VirtualTimeScheduler.create();
+        SingleFlightCache<Integer, Integer> cache = new SingleFlightCache<>(Duration.ofSeconds(30), clock);
+        AtomicInteger backendCalls = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(cache.get(1, key -> Mono.fromCallable(backendCalls::incrementAndGet)))
+                    .expectNext(1)
+                    .verifyComplete();
+        }
+        clock.advanceTimeBy(Duration.ofSeconds(31));
+
+        StepVerifier.create(cache.get(1, key -> Mono.fromCallable(backendCalls::incrementAndGet)))
+                .expectNext(2)
+                .verifyComplete();
+        assertThat(cache.hits(), is(2L));
+        assertThat(cache.loads(), is(2L));
+    }
+
+    @Test
+    public void failedLoadIsNotCached() {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(Duration.ofMinutes(1));
+
+        StepVerifier.create(cache.get("book", key -> Mono.error(new IllegalStateException("backend down"))))
+                .expectErrorMessage("backend down")
+                .verify();
+        StepVerifier.create(cache.get("book", key -> Mono.just("Reactive Programming")))
+                .expectNext("Reactive Programming")
+                .verifyComplete();
+        assertThat(cache.loads(), is(2L));
+    }
+
+    @Test
+    public void sweepsExpiredKeysThatAreNotRequestedAgain() {
+        VirtualTimeScheduler clock = VirtualTimeScheduler.create();
+        SingleFlightCache<Integer, Integer> cache = new SingleFlightCache<>(Duration.ofSeconds(30), clock);
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.get(i, Mono::just).block();
+        }
+        assertThat(cache.size(), is(1_000));
+
+        clock.advanceTimeBy(Duration.ofSeconds(31));
+        StepVerifier.create(cache.get(-1, Mono::just)) // 다른 key 를 요청해도 만료된 값이 정리됨.
+                .expectNext(-1)
+                .verifyComplete();
+
+        assertThat(cache.size(), is(1));
+        assertThat(cache.expired(), is(1_000L));
+    }
+}
@@ -0,0 +1,102 @@
+package com.webflux.study.sinks;
+
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SpillingReplaySinkTest {
+
+    @Test
+    public void rejectsSegmentTooSmallForRecordHeader() {
+        assertThrows(IllegalArgumentException.class, () -> new SpillingReplaySink<>(ElementCodec.INT, Integer.BYTES));
+        assertThrows(IllegalArgumentException.class, () -> new SpillingReplaySink<>(ElementCodec.INT, 0));
+        assertThrows(IllegalArgumentException.class, () -> new SpillingReplaySink<>(ElementCodec.INT, 100, 0));
+    }
+
+    @Test
+    public void replaysAcrossSegmentsThenLiveTail() {
+        Path directory;
+        // record 하나가 8 byte 이므로 segment 하나에 12개가 들어가고 4 byte 가 남음.
+        try (SpillingReplaySink<Integer> sink = new SpillingReplaySink<>(ElementCodec.INT, 100)) {
+            directory = sink.getDirectory();
+            for (int i = 0; i < 30; i++) {
+                sink.tryEmitNext(i);
+            }
+            assertThat(sink.segmentCount(), is(3));
+            assertThat(sink.spilledBytes(), is(240L));
+
+            StepVerifier.create(sink.asFlux(), 0)
+                    .thenRequest(29)
+                    .expectNextCount(29)
+                    .then(() -> sink.tryEmitNext(30))
+                    .thenRequest(2)
+                    .expectNext(29, 30)
+                    .then(sink::tryEmitComplete)
+                    .verifyComplete();
+
+            StepVerifier.create(sink.asFlux().reduce(0, Integer::sum))
+                    .expectNext(465)
+                    .verifyComplete();
+        }
+        assertThat(Files.exists(directory), is(false));
+    }
+
+    @Test
+    public void retainsAtMostMaxSegments() throws IOException {
+        try (SpillingReplaySink<Integer> sink = new SpillingReplaySink<>(ElementCodec.INT, 100, 2)) {
+            for (int i = 0; i < 30; i++) {
+                sink.tryEmitNext(i);
+            }
+            // 0~11, 12~23, 24~29 세 개의 segment 중 가장 오래된 segment 가 삭제됨.
+            assertThat(sink.segmentCount(), is(2));
+            assertThat(sink.evictedSegments(), is(1L));
+            assertThat(sink.size(), is(18L));
+            try (Stream<Path> files = Files.list(sink.getDirectory())) {
+                assertThat(files.count(), is(2L));
+            }
+
+            sink.tryEmitComplete();
+            StepVerifier.create(sink.asFlux())
+                    .expectNext(12)
+                    .expectNextCount(17)
+                    .verifyComplete();
+        }
+    }
+
+    @Test
+    public void laggingSubscriberSkipsEvictedSegments() {
+        try (SpillingReplaySink<Integer> sink = new SpillingReplaySink<>(ElementCodec.INT, 100, 2)) {
+            StepVerifier.create(sink.asFlux(), 0)
+                    .then(() -> {
+                        for (int i = 0; i < 12; i++) {
+                            sink.tryEmitNext(i);
+                        }
+                    })
+                    .thenRequest(5)
+                    .expectNext(0, 1, 2, 3, 4)
+                    .then(() -> {
+                        // 요청하지 않은 Subscriber 가 있어도 데이터는 파일에만 쌓이고, segment 는 2개만 보관됨.
+                        for (int i = 12; i < 60; i++) {
+                            sink.tryEmitNext(i);
+                        }
+                        sink.tryEmitComplete();
+                    })
+                    .thenRequest(Long.MAX_VALUE)
+                    .expectNext(5, 6, 7, 8, 9, 10, 11) // 읽고 있던 segment 는 끝까지 읽음.
+                    .expectNext(36)                      // 삭제된 12~35 는 건너뜀.
+                    .expectNextCount(23)
+                    .verifyComplete();
+
+            assertThat(sink.skipped(), is(24L));
+            assertThat(sink.subscriberCount(), is(0));
+        }
+    }
+}
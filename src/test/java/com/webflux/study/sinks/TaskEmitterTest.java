@@ -0,0 +1,125 @@
+package com.webflux.study.sinks;
+
+import com.webflux.study.sinks.TaskEmitter.TaskErrorPolicy;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+
+public class TaskEmitterTest {
+
+    @Test
+    public void emitsResultsInBatches() throws InterruptedException {
+        CountDownLatch gate = new CountDownLatch(1);
+        try (TaskEmitter<Integer> emitter = new TaskEmitter<>(Sinks.many().unicast().onBackpressureBuffer(),
+                Executors.newSingleThreadExecutor(), 4, Duration.ofSeconds(1), VirtualTimeScheduler.create())) {
+            for (int i = 0; i < 10; i++) {
+                int n = i;
+                emitter.submit(() -> {
+                    gate.await();
+                    return n;
+                });
+            }
+            emitter.complete();
+            gate.countDown(); // 모든 작업을 제출한 뒤에 실행을 시작함
+
+            List<Integer> results = emitter.asFlux().collectList().block(Duration.ofSeconds(5));
+
+            assertThat(results, is(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9)));
+            assertThat(emitter.batches(), is(3L)); // 4개, 4개, 마지막 작업이 끝날 때 남은 2개
+            assertThat(emitter.sink().maxDrainBatch(), is(4L));
+        }
+    }
+
+    @Test
+    public void flushesPartialBatchAfterMaxDelay() throws InterruptedException {
+        VirtualTimeScheduler timer = VirtualTimeScheduler.create();
+        CountDownLatch gate = new CountDownLatch(1);
+        try (TaskEmitter<String> emitter = new TaskEmitter<>(Sinks.many().unicast().onBackpressureBuffer(),
+                Executors.newFixedThreadPool(2), 4, Duration.ofMillis(100), timer)) {
+            emitter.submit(() -> {
+                gate.await();
+                return "slow";
+            });
+            emitter.submit(() -> "fast");
+            awaitUntil(() -> emitter.pending() == 1); // fast 의 결과가 batch 에 들어감
+
+            StepVerifier.create(emitter.asFlux())
+                    .expectSubscription()
+                    .expectNoEvent(Duration.ofMillis(50))
+                    .then(() -> timer.advanceTimeBy(Duration.ofMillis(100)))
+                    .expectNext("fast")
+                    .then(() -> {
+                        gate.countDown();
+                        emitter.complete();
+                    })
+                    .expectNext("slow")
+                    .expectComplete()
+                    .verify(Duration.ofSeconds(5));
+        }
+    }
+
+    @Test
+    public void skipsFailedTasksByDefault() {
+        try (TaskEmitter<Integer> emitter = new TaskEmitter<>(Sinks.many().unicast().onBackpressureBuffer(),
+                Executors.newFixedThreadPool(2))) {
+            for (int i = 0; i < 5; i++) {
+                int n = i;
+                emitter.submit(() -> {
+                    if (n == 2) {
+                        throw new IllegalStateException("task " + n);
+                    }
+                    return n;
+                });
+            }
+            emitter.complete();
+
+            List<Integer> results = emitter.asFlux().collectList().block(Duration.ofSeconds(5));
+
+            assertThat(results, containsInAnyOrder(0, 1, 3, 4));
+            assertThat(emitter.failedTasks(), is(1L));
+        }
+    }
+
+    @Test
+    public void terminatePolicyEmitsCollectedResultsThenError() {
+        try (TaskEmitter<Integer> emitter = new TaskEmitter<Integer>(Sinks.many().unicast().onBackpressureBuffer(),
+                Executors.newSingleThreadExecutor())
+                .errorPolicy(TaskErrorPolicy.TERMINATE)) {
+            emitter.submit(() -> 1);
+            emitter.submit(() -> {
+                throw new IllegalStateException("boom");
+            });
+            emitter.submit(() -> 3);
+            emitter.complete();
+
+            StepVerifier.create(emitter.asFlux())
+                    .expectNext(1)
+                    .expectErrorMessage("boom")
+                    .verify(Duration.ofSeconds(5));
+            assertThat(emitter.failedTasks(), is(1L));
+        }
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not met within 5s");
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+}